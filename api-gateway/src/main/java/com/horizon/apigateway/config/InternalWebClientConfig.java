@@ -0,0 +1,58 @@
+package com.horizon.apigateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Eén gedeelde, gepoolde WebClient voor calls van de gateway naar interne services (userservice sync).
+ * Pool metrics (reactor.netty.connection.provider.active/idle/pending.connections) komen via de
+ * Micrometer global registry in Prometheus terecht onder pool name "internal-services".
+ */
+@Configuration
+public class InternalWebClientConfig {
+
+    public static final String POOL_NAME = "internal-services";
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionProvider internalServicesConnectionProvider(
+            @Value("${horizon.gateway.internal-client.max-connections:200}") int maxConnections,
+            @Value("${horizon.gateway.internal-client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${horizon.gateway.internal-client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${horizon.gateway.internal-client.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // idle connecties sluiten voordat userservice (Tomcat keep-alive 60s) dat doet
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    WebClient internalWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider internalServicesConnectionProvider,
+            @Value("${horizon.gateway.internal-client.connect-timeout:1s}") Duration connectTimeout,
+            @Value("${horizon.gateway.internal-client.response-timeout:3s}") Duration responseTimeout,
+            @Value("${horizon.gateway.internal-client.keep-alive:true}") boolean keepAlive) {
+        HttpClient httpClient = HttpClient.create(internalServicesConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .keepAlive(keepAlive);
+
+        // clone() zodat de gedeelde builder van Spring niet aangepast wordt
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
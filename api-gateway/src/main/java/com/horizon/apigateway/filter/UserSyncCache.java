@@ -0,0 +1,59 @@
+package com.horizon.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Onthoudt welke (sub, preferred_username, email) combinaties recent succesvol naar userservice
+ * zijn gesynchroniseerd, zodat de gateway niet bij elke request een sync-call hoeft te doen.
+ * Verandert een van de claims, dan verandert de key en wordt er opnieuw gesynchroniseerd.
+ */
+@Component
+public class UserSyncCache {
+
+    public static final String CACHE_NAME = "gateway.user-sync";
+
+    private final Cache<String, Boolean> syncedClaims;
+
+    public UserSyncCache(MeterRegistry meterRegistry,
+                         @Value("${horizon.gateway.user-sync.cache.max-size:10000}") long maxSize,
+                         @Value("${horizon.gateway.user-sync.cache.ttl:10m}") Duration ttl) {
+        this.syncedClaims = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache_gets{result=hit|miss}, cache_evictions, cache_size in Prometheus
+        CaffeineCacheMetrics.monitor(meterRegistry, syncedClaims, CACHE_NAME);
+    }
+
+    public boolean isSynchronized(String keycloakId, String username, String email) {
+        return syncedClaims.getIfPresent(key(keycloakId, username, email)) != null;
+    }
+
+    public void markSynchronized(String keycloakId, String username, String email) {
+        syncedClaims.put(key(keycloakId, username, email), Boolean.TRUE);
+    }
+
+    static String key(String keycloakId, String username, String email) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // \u0000 als scheiding zodat ("ab", "c") en ("a", "bc") niet dezelfde hash opleveren
+            String claims = keycloakId + '\u0000' + username + '\u0000' + email;
+            return HexFormat.of().formatHex(digest.digest(claims.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is verplicht aanwezig in elke JVM
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.horizon.apigateway.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Doet de daadwerkelijke POST naar /users/internal/synchronize en markeert de claims
+ * in de {@link UserSyncCache} zodra userservice de sync bevestigd heeft.
+ */
+@Component
+public class UserSyncClient {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSyncClient.class);
+    private final WebClient internalWebClient;
+    private final UserSyncCache userSyncCache;
+    private final String userServiceUri;
+
+    public UserSyncClient(@Qualifier("internalWebClient") WebClient internalWebClient,
+                          UserSyncCache userSyncCache,
+                          @Value("${horizon.gateway.userservice.uri:http://userservice:8081}") String userServiceUri) {
+        this.internalWebClient = internalWebClient;
+        this.userSyncCache = userSyncCache;
+        this.userServiceUri = userServiceUri;
+    }
+
+    public Mono<Void> synchronize(UserSyncRequest syncRequest) {
+        String keycloakId = syncRequest.getKeycloakId();
+        log.info("Attempting to synchronize user: {}", keycloakId);
+
+        return internalWebClient
+            .post()
+            .uri(userServiceUri + "/users/internal/synchronize")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(syncRequest)
+            .retrieve()
+            .toBodilessEntity() // We don't care about the response body much, just that it succeeds
+            .doOnSuccess(response -> {
+                log.info("User sync call for {} completed with status: {}", keycloakId, response.getStatusCode());
+                userSyncCache.markSynchronized(keycloakId, syncRequest.getUsername(), syncRequest.getEmail());
+            })
+            .doOnError(error -> log.error("User sync call for {} failed: {}", keycloakId, error.getMessage()))
+            .then();
+    }
+}
@@ -0,0 +1,109 @@
+package com.horizon.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Voert user syncs op de achtergrond uit zodat de request van de gebruiker er niet op hoeft te wachten.
+ * Een sync met dezelfde claims als een sync die al in de wachtrij staat of bezig is wordt samengevoegd (coalesced);
+ * zijn de claims intussen veranderd, dan krijgt die sync een eigen plek in de wachtrij.
+ * en als de wachtrij vol zit wordt de sync gedropt; de volgende request van die gebruiker probeert het opnieuw.
+ */
+@Component
+public class UserSyncDispatcher implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSyncDispatcher.class);
+
+    private final UserSyncClient userSyncClient;
+    private final int queueDepth;
+
+    private final Sinks.Many<UserSyncRequest> queue = Sinks.many().unicast().onBackpressureBuffer();
+    // key = claim-fingerprint van UserSyncCache, zodat gewijzigde claims niet worden weggegooid
+    private final Map<String, Boolean> pendingClaims = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter droppedCounter;
+    private final Counter coalescedCounter;
+    private final Disposable worker;
+
+    public UserSyncDispatcher(UserSyncClient userSyncClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${horizon.gateway.user-sync.async.concurrency:16}") int concurrency,
+                              @Value("${horizon.gateway.user-sync.async.queue-depth:1000}") int queueDepth) {
+        this.userSyncClient = userSyncClient;
+        this.queueDepth = queueDepth;
+
+        this.droppedCounter = Counter.builder("gateway.user-sync.dropped")
+                .description("User syncs dropped because the background queue was full")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("gateway.user-sync.coalesced")
+                .description("User syncs merged into an already pending sync with the same claims")
+                .register(meterRegistry);
+        Gauge.builder("gateway.user-sync.queued", queued, AtomicInteger::get)
+                .description("User syncs waiting for a free worker")
+                .register(meterRegistry);
+        Gauge.builder("gateway.user-sync.in-flight", inFlight, AtomicInteger::get)
+                .description("User sync calls currently running against userservice")
+                .register(meterRegistry);
+
+        // flatMap met een concurrency limiet: maximaal `concurrency` sync-calls tegelijk naar userservice
+        this.worker = queue.asFlux()
+                .flatMap(this::process, concurrency)
+                .subscribe();
+    }
+
+    /**
+     * Zet een sync in de wachtrij en keert direct terug.
+     */
+    public void submit(UserSyncRequest syncRequest) {
+        String keycloakId = syncRequest.getKeycloakId();
+        String claimKey = claimKey(syncRequest);
+        if (pendingClaims.putIfAbsent(claimKey, Boolean.TRUE) != null) {
+            coalescedCounter.increment();
+            return;
+        }
+        if (queued.incrementAndGet() > queueDepth) {
+            queued.decrementAndGet();
+            pendingClaims.remove(claimKey);
+            droppedCounter.increment();
+            log.warn("User sync queue full ({}), dropping sync for {}", queueDepth, keycloakId);
+            return;
+        }
+        // submit wordt vanaf meerdere event-loop threads aangeroepen, dus retry als een andere thread net emit
+        queue.emitNext(syncRequest, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    private Mono<Void> process(UserSyncRequest syncRequest) {
+        queued.decrementAndGet();
+        inFlight.incrementAndGet();
+        return userSyncClient.synchronize(syncRequest)
+                .onErrorResume(e -> Mono.empty()) // al gelogd door UserSyncClient, de worker moet blijven draaien
+                .doFinally(signal -> {
+                    inFlight.decrementAndGet();
+                    pendingClaims.remove(claimKey(syncRequest));
+                });
+    }
+
+    private static String claimKey(UserSyncRequest syncRequest) {
+        return UserSyncCache.key(syncRequest.getKeycloakId(), syncRequest.getUsername(), syncRequest.getEmail());
+    }
+
+    @Override
+    public void destroy() {
+        worker.dispose();
+    }
+}
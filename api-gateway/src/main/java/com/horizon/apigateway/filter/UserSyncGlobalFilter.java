@@ -2,48 +2,35 @@ package com.horizon.apigateway.filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Map;
-import java.util.Objects;
-
 @Component
 public class UserSyncGlobalFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(UserSyncGlobalFilter.class);
-    private final WebClient.Builder webClientBuilder;
-
-
-    private final String userServiceUri = "http://userservice:8081";
-
-    public UserSyncGlobalFilter(WebClient.Builder webClientBuilder) {
-        this.webClientBuilder = webClientBuilder;
-    }
+    private final UserSyncCache userSyncCache;
+    private final UserSyncClient userSyncClient;
+    private final UserSyncDispatcher userSyncDispatcher;
 
-    // Define a DTO that matches UserSyncRequestDTO in userservice
-    private static class UserSyncRequest {
-        private String keycloakId;
-        private String username;
-        private String email;
+    // blocking: wacht op de sync voordat de request doorgestuurd wordt
+    // async: zet de sync op de achtergrond-wachtrij en stuur de request direct door
+    private final boolean asyncSync;
 
-        public UserSyncRequest(String keycloakId, String username, String email) {
-            this.keycloakId = keycloakId;
-            this.username = username;
-            this.email = email;
-        }
-        public String getKeycloakId() { return keycloakId; }
-        public String getUsername() { return username; }
-        public String getEmail() { return email; }
+    public UserSyncGlobalFilter(UserSyncCache userSyncCache,
+                                UserSyncClient userSyncClient,
+                                UserSyncDispatcher userSyncDispatcher,
+                                @Value("${horizon.gateway.user-sync.mode:blocking}") String syncMode) {
+        this.userSyncCache = userSyncCache;
+        this.userSyncClient = userSyncClient;
+        this.userSyncDispatcher = userSyncDispatcher;
+        this.asyncSync = "async".equalsIgnoreCase(syncMode);
     }
 
     @Override
@@ -52,12 +39,6 @@ public class UserSyncGlobalFilter implements GlobalFilter, Ordered {
             .cast(JwtAuthenticationToken.class)
             .map(JwtAuthenticationToken::getToken)
             .flatMap(jwt -> {
-                // Check if already synced recently (e.g. via a custom claim in JWT set by Keycloak after first sync, or a flag in session if stateful)
-                // For a stateless approach, one might call it always, relying on idempotency,
-                // or use a short-lived cache in the gateway (not ideal for distributed gateways).
-                // For simplicity, this filter will attempt to call it if principal is present.
-                // More sophisticated logic (e.g. "first request after login") is harder in a stateless filter.
-
                 String keycloakId = jwt.getSubject();
                 String username = jwt.getClaimAsString("preferred_username"); // Common Keycloak claim
                 String email = jwt.getClaimAsString("email");
@@ -67,18 +48,20 @@ public class UserSyncGlobalFilter implements GlobalFilter, Ordered {
                     return chain.filter(exchange); // Proceed without sync if claims are missing
                 }
 
+                // Claims recent al gesynchroniseerd en niet veranderd? Dan is de sync-call overbodig.
+                // Elke gateway-instantie heeft zijn eigen cache; synchronize is idempotent dus dubbele calls zijn onschuldig.
+                if (userSyncCache.isSynchronized(keycloakId, username, email)) {
+                    return chain.filter(exchange);
+                }
+
                 UserSyncRequest syncRequest = new UserSyncRequest(keycloakId, username, email);
-                log.info("Attempting to synchronize user: {}", keycloakId);
 
-                return webClientBuilder.build()
-                    .post()
-                    .uri(userServiceUri + "/users/internal/synchronize")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(syncRequest)
-                    .retrieve()
-                    .toBodilessEntity() // We don't care about the response body much, just that it succeeds
-                    .doOnSuccess(response -> log.info("User sync call for {} completed with status: {}", keycloakId, response.getStatusCode()))
-                    .doOnError(error -> log.error("User sync call for {} failed: {}", keycloakId, error.getMessage()))
+                if (asyncSync) {
+                    userSyncDispatcher.submit(syncRequest);
+                    return chain.filter(exchange);
+                }
+
+                return userSyncClient.synchronize(syncRequest)
                     .then(chain.filter(exchange))
                     .onErrorResume(e -> {
                         // If user sync call fails, log and continue the chain. Don't break user's request.
@@ -97,4 +80,4 @@ public class UserSyncGlobalFilter implements GlobalFilter, Ordered {
         return Ordered.HIGHEST_PRECEDENCE + 101; // Example: Just after security context is established.
         // Or use a specific order like SecurityReactorContextConfiguration.SecurityReactorContextSubscriber.ORDER + 1
     }
-} 
\ No newline at end of file
+}
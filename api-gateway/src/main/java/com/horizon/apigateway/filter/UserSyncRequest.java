@@ -0,0 +1,17 @@
+package com.horizon.apigateway.filter;
+
+// Define a DTO that matches UserSyncRequestDTO in userservice
+public class UserSyncRequest {
+    private final String keycloakId;
+    private final String username;
+    private final String email;
+
+    public UserSyncRequest(String keycloakId, String username, String email) {
+        this.keycloakId = keycloakId;
+        this.username = username;
+        this.email = email;
+    }
+    public String getKeycloakId() { return keycloakId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+}
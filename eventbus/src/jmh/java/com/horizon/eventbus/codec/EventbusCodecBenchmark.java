@@ -0,0 +1,81 @@
+package com.horizon.eventbus.codec;
+
+import com.horizon.eventbus.message.EventCreatedMessage;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Vergelijkt JSON en CBOR voor de drie berichten op de bus: encode en decode throughput (ops/us), allocaties per
+ * operatie (gc profiler, gc.alloc.rate.norm) en de grootte van de body (geprint bij de setup van elke trial).
+ * profile is een UserProfileUpdatedEvent met drie gewijzigde velden, elk een geneste map met oldValue/newValue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class EventbusCodecBenchmark {
+
+    @Param({"JSON", "CBOR"})
+    public PayloadFormat format;
+
+    @Param({"created", "registered", "profile"})
+    public String payload;
+
+    private EventbusCodec codec;
+    private Object event;
+    private Class<?> type;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        codec = new EventbusCodec(format);
+        switch (payload) {
+            case "created" -> event = new EventCreatedMessage(UUID.randomUUID(), "Zomerconcert in het Stadspark",
+                    LocalDateTime.of(2025, 7, 12, 20, 30), LocalDateTime.of(2025, 5, 1, 9, 15, 42), UUID.randomUUID());
+            case "registered" -> event = new UserRegisteredEvent(UUID.randomUUID().toString(), "jdevries",
+                    "j.devries@example.com");
+            case "profile" -> event = new UserProfileUpdatedEvent(UUID.randomUUID().toString(), profileChanges());
+            default -> throw new IllegalArgumentException(payload);
+        }
+        type = event.getClass();
+        encoded = codec.encode(event);
+        // de grootte is per format/payload constant, dus één regel in de output i.p.v. een meting
+        System.out.printf("payload size %s/%s: %d bytes%n", format, payload, encoded.getBody().length);
+    }
+
+    private static Map<String, Object> profileChanges() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("username", change("jdevries", "jan.devries"));
+        changes.put("email", change("j.devries@example.com", "jan.devries@example.org"));
+        changes.put("displayName", change("Jan", "Jan de Vries"));
+        return changes;
+    }
+
+    private static Map<String, String> change(String oldValue, String newValue) {
+        Map<String, String> change = new LinkedHashMap<>();
+        change.put("oldValue", oldValue);
+        change.put("newValue", newValue);
+        return change;
+    }
+
+    @Benchmark
+    public Message encode() {
+        return codec.encode(event);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded, type);
+    }
+}
@@ -0,0 +1,50 @@
+package com.horizon.eventbus;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Namen van de gedeelde exchanges, routing keys en queues. De exchanges zelf worden door
+ * EventbusAutoConfiguration gedeclareerd; een consumer declareert zijn eigen queue met {@link #durableQueue}.
+ */
+public final class EventbusTopology {
+
+    public static final String EVENTS_EXCHANGE = "horizon.exchange.events";
+    public static final String USERS_EXCHANGE = "horizon.users.exchange";
+
+    public static final String ROUTING_KEY_EVENT_CREATED = "event.created";
+    public static final String ROUTING_KEY_EVENT_COMPLETED = "event.completed";
+    public static final String ROUTING_KEY_EVENT_CAPACITY_CHANGED = "event.capacity.changed";
+    public static final String ROUTING_KEY_EVENT_CACHE_INVALIDATE = "event.cache.invalidate";
+    public static final String ROUTING_KEY_USER_REGISTERED = "user.registered";
+    public static final String ROUTING_KEY_USER_PROFILE_UPDATED = "user.profile.updated";
+
+    public static final String QUEUE_EVENT_CREATED = "horizon.queue.event.created";
+
+    // Moment waarop de producer het event vastlegde, in epoch microseconden. Het AMQP timestamp veld heeft maar
+    // secondeprecisie; consumers gebruiken deze header om een ouder bericht dat later binnenkomt te herkennen.
+    public static final String EVENT_TIME_HEADER = "horizon-event-time";
+
+    private EventbusTopology() {
+    }
+
+    /**
+     * Durable queue op een van de gedeelde exchanges, gebonden op de gegeven routing keys. Declareren is
+     * idempotent, dus producer en consumer mogen dezelfde queue allebei declareren.
+     */
+    public static Declarables durableQueue(String queue, String exchange, String... routingKeys) {
+        List<Declarable> declarables = new ArrayList<>();
+        Queue durable = QueueBuilder.durable(queue).build();
+        declarables.add(durable);
+        for (String routingKey : routingKeys) {
+            declarables.add(new Binding(queue, Binding.DestinationType.QUEUE, exchange, routingKey, null));
+        }
+        return new Declarables(declarables);
+    }
+}
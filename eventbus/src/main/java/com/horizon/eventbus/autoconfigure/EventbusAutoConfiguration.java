@@ -0,0 +1,180 @@
+package com.horizon.eventbus.autoconfigure;
+
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.codec.PayloadFormat;
+import com.horizon.eventbus.metrics.ConsumerMetricsAdvice;
+import com.horizon.eventbus.metrics.ConsumerMetricsPostProcessor;
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.retry.ParkingLot;
+import com.horizon.eventbus.retry.ParkingLotEndpoint;
+import com.horizon.eventbus.retry.RetryRoutingAdvice;
+import com.horizon.eventbus.retry.RetryRoutingPostProcessor;
+import com.horizon.eventbus.retry.RetryTopology;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.amqp.core.HeadersExchange;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gedeelde messaging setup voor elke service met de eventbus library op het classpath: één MessageConverter
+ * (Boot's RabbitTemplate en listener factories pakken hem automatisch op), de gedeelde exchanges, de publisher
+ * met gecorreleerde confirms, consumer metrics en retry routing op elke listener container factory, en de
+ * parking lot endpoint (alleen voor de admin rol).
+ */
+@AutoConfiguration(after = RabbitAutoConfiguration.class)
+public class EventbusAutoConfiguration {
+
+    // json of cbor; consumers lezen altijd beide, dus pas omzetten als alle consumers deze library draaien
+    @Bean
+    @ConditionalOnMissingBean
+    public EventbusCodec eventbusCodec(@Value("${horizon.eventbus.codec.outbound-format:json}") String outboundFormat) {
+        return new EventbusCodec(PayloadFormat.fromName(outboundFormat));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MessageConverter.class)
+    public MessageConverter eventbusMessageConverter(EventbusCodec eventbusCodec) {
+        return eventbusCodec.messageConverter();
+    }
+
+    @Bean
+    public TopicExchange eventsExchange() {
+        return new TopicExchange(EventbusTopology.EVENTS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public TopicExchange usersExchange() {
+        return new TopicExchange(EventbusTopology.USERS_EXCHANGE, true, false);
+    }
+
+    // vereist spring.rabbitmq.publisher-confirm-type=correlated
+    @Bean
+    @ConditionalOnMissingBean
+    public CorrelatedConfirmPublisher correlatedConfirmPublisher(RabbitTemplate rabbitTemplate,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 @Value("${horizon.eventbus.publisher.max-in-flight:1000}") int maxInFlight,
+                                                                 @Value("${horizon.eventbus.publisher.max-attempts:3}") int maxAttempts,
+                                                                 @Value("${horizon.eventbus.publisher.confirm-timeout:5s}") Duration confirmTimeout,
+                                                                 @Value("${horizon.eventbus.publisher.retry-backoff:100ms}") Duration retryBackoff) {
+        return new CorrelatedConfirmPublisher(rabbitTemplate, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                maxInFlight, maxAttempts, confirmTimeout, retryBackoff);
+    }
+
+    // Vertragingstrappen voor mislukte berichten; daarna gaat een bericht naar de parking lot van zijn queue.
+    // Een service kiest zelf welke queues retry topologie krijgen (RetryTopology.declare).
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryTopology retryTopology(@Value("${horizon.eventbus.retry.delays:1s,10s,1m}") List<Duration> delays) {
+        return new RetryTopology(delays);
+    }
+
+    @Bean
+    public HeadersExchange retryDelayExchange() {
+        return new HeadersExchange(RetryTopology.DELAY_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public HeadersExchange retryExchange() {
+        return new HeadersExchange(RetryTopology.RETRY_EXCHANGE, true, false);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryRoutingAdvice retryRoutingAdvice(RetryTopology retryTopology, CorrelatedConfirmPublisher publisher,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RetryRoutingAdvice(retryTopology, publisher, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    public static RetryRoutingPostProcessor eventbusRetryRoutingPostProcessor(ObjectProvider<RetryRoutingAdvice> advice) {
+        return new RetryRoutingPostProcessor(advice);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ParkingLot parkingLot(RabbitTemplate rabbitTemplate, RetryTopology retryTopology,
+                                 CorrelatedConfirmPublisher publisher, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ParkingLot(rabbitTemplate, retryTopology, publisher, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    // Alleen met actuator op het classpath; zichtbaar via management.endpoints.web.exposure.include=parkinglot
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class ParkingLotEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        ParkingLotEndpoint parkingLotEndpoint(ParkingLot parkingLot) {
+            return new ParkingLotEndpoint(parkingLot);
+        }
+
+        // De endpoint kan berichten opnieuw afleveren: alleen voor de Keycloak realm rol uit horizon.security.admin-role.
+        // Eigen filter chain die vóór die van de service gaat, zodat de regel in elk profiel en elke service geldt.
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+        @ConditionalOnClass(name = {"org.springframework.security.web.SecurityFilterChain",
+                "org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter"})
+        static class ParkingLotSecurityConfiguration {
+
+            @Bean
+            @Order(1)
+            SecurityFilterChain parkingLotFilterChain(HttpSecurity http,
+                                                      @Value("${horizon.security.admin-role:admin}") String adminRole) throws Exception {
+                http
+                        .securityMatcher("/actuator/parkinglot", "/actuator/parkinglot/**")
+                        .authorizeHttpRequests(authz -> authz
+                                .anyRequest().hasRole(adminRole)
+                        )
+                        .oauth2ResourceServer(oauth2 -> oauth2
+                                .jwt(jwt -> jwt.jwtAuthenticationConverter(keycloakRealmRoles()))
+                        );
+                return http.build();
+            }
+
+            // Keycloak zet realm rollen in realm_access.roles; als ROLE_<rol> zodat hasRole ze herkent
+            private static JwtAuthenticationConverter keycloakRealmRoles() {
+                JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+                converter.setJwtGrantedAuthoritiesConverter(jwt -> {
+                    Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+                    if (realmAccess == null || !(realmAccess.get("roles") instanceof Collection<?> roles)) {
+                        return List.of();
+                    }
+                    return roles.stream()
+                            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role))
+                            .toList();
+                });
+                return converter;
+            }
+        }
+    }
+
+    // static: een BeanPostProcessor moet vroeg bestaan; de MeterRegistry wordt pas bij het eerste bericht opgehaald
+    @Bean
+    public static ConsumerMetricsPostProcessor eventbusConsumerMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConsumerMetricsPostProcessor(
+                new ConsumerMetricsAdvice(() -> meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+    }
+}
@@ -0,0 +1,64 @@
+package com.horizon.eventbus.autoconfigure;
+
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.outbox.OutboxDAL;
+import com.horizon.eventbus.outbox.OutboxMessage;
+import com.horizon.eventbus.outbox.OutboxPublisher;
+import com.horizon.eventbus.outbox.OutboxRelay;
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox voor services die met JPA schrijven, aan te zetten met horizon.outbox.enabled=true.
+ * De outbox draait op de DataSource en transactiemanager van de service: OutboxMessage en OutboxDAL komen via de
+ * auto-configuration packages in de entity- en repository scan van de service, dus outbox_messages wordt net als
+ * de eigen tabellen van de service beheerd. Services zonder outbox (of zonder JPA) merken er niets van.
+ */
+@AutoConfiguration(after = EventbusAutoConfiguration.class,
+        beforeName = {"org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+                "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration"})
+@ConditionalOnClass(name = "org.springframework.data.jpa.repository.JpaRepository")
+@ConditionalOnProperty(name = "horizon.outbox.enabled", havingValue = "true")
+@Import(OutboxAutoConfiguration.OutboxPackageRegistrar.class)
+public class OutboxAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxPublisher outboxPublisher(OutboxDAL outboxDAL, EventbusCodec eventbusCodec) {
+        return new OutboxPublisher(outboxDAL, eventbusCodec);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxRelay outboxRelay(OutboxDAL outboxDAL, CorrelatedConfirmPublisher publisher,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                   @Value("${horizon.outbox.relay.batch-size:200}") int batchSize) {
+        return new OutboxRelay(outboxDAL, publisher, new TransactionTemplate(transactionManager),
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), batchSize);
+    }
+
+    // vóór JpaRepositoriesAutoConfiguration, die de packages leest op het moment dat hij zijn repositories registreert
+    static class OutboxPackageRegistrar implements ImportBeanDefinitionRegistrar {
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata metadata, BeanDefinitionRegistry registry) {
+            AutoConfigurationPackages.register(registry, OutboxMessage.class.getPackageName());
+        }
+    }
+}
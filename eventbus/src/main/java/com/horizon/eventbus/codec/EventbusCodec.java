@@ -0,0 +1,95 @@
+package com.horizon.eventbus.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.io.IOException;
+
+/**
+ * De ene plek waar berichten worden (de)serialiseerd. Vooraf gebouwde, thread-safe mappers en converters voor
+ * alle producers en consumers, in plaats van een eigen Jackson2JsonMessageConverter per service.
+ *
+ * Schrijven gebeurt in het outbound format (JSON of CBOR, zie horizon.eventbus.codec.outbound-format); lezen
+ * volgt de content_type header van het bericht, dus consumers accepteren tijdens een rollout beide formats.
+ * JSON is gelijk aan het format van de oude per-service converters (__TypeId__ header, datums als array).
+ * Onbekende velden worden genegeerd: een producer kan een veld toevoegen zonder dat oudere consumers breken.
+ */
+public class EventbusCodec {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final PayloadFormat outboundFormat;
+    private final MessageConverter messageConverter;
+
+    public EventbusCodec() {
+        this(PayloadFormat.JSON);
+    }
+
+    public EventbusCodec(PayloadFormat outboundFormat) {
+        this(defaultObjectMapper(), defaultCborMapper(), outboundFormat);
+    }
+
+    public EventbusCodec(ObjectMapper objectMapper, ObjectMapper cborMapper, PayloadFormat outboundFormat) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborMapper;
+        this.outboundFormat = outboundFormat;
+        this.messageConverter = new NegotiatingMessageConverter(
+                new Jackson2JsonMessageConverter(objectMapper), new CborMessageConverter(cborMapper), outboundFormat);
+    }
+
+    public static ObjectMapper defaultObjectMapper() {
+        return JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .build();
+    }
+
+    public static ObjectMapper defaultCborMapper() {
+        return CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .build();
+    }
+
+    public MessageConverter messageConverter() {
+        return messageConverter;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    public PayloadFormat outboundFormat() {
+        return outboundFormat;
+    }
+
+    public Message encode(Object payload) {
+        return messageConverter.toMessage(payload, new MessageProperties());
+    }
+
+    /**
+     * Leest de body als het gegeven type, ongeacht de __TypeId__ header; voor consumers die het type zelf
+     * bepalen (batch listeners, meerdere types op één queue). Het format volgt uit de content_type header.
+     */
+    public <T> T decode(Message message, Class<T> type) {
+        PayloadFormat format = PayloadFormat.fromContentType(message.getMessageProperties().getContentType());
+        ObjectMapper mapper = format == PayloadFormat.CBOR ? cborMapper : objectMapper;
+        try {
+            return mapper.readValue(message.getBody(), type);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not read " + type.getSimpleName() + " from " + format
+                    + " message body", e);
+        }
+    }
+}
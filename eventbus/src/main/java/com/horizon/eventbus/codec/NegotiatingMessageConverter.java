@@ -0,0 +1,37 @@
+package com.horizon.eventbus.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Schrijft in het geconfigureerde outbound format en leest elk bericht in het format van zijn content_type.
+ * Zo kunnen producers per service van JSON naar CBOR zonder dat consumers tegelijk mee moeten.
+ */
+public class NegotiatingMessageConverter implements MessageConverter {
+
+    private final MessageConverter json;
+    private final MessageConverter cbor;
+    private final PayloadFormat outbound;
+
+    public NegotiatingMessageConverter(MessageConverter json, MessageConverter cbor, PayloadFormat outbound) {
+        this.json = json;
+        this.cbor = cbor;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return converterFor(outbound).toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        return converterFor(PayloadFormat.fromContentType(message.getMessageProperties().getContentType()))
+                .fromMessage(message);
+    }
+
+    private MessageConverter converterFor(PayloadFormat format) {
+        return format == PayloadFormat.CBOR ? cbor : json;
+    }
+}
@@ -0,0 +1,36 @@
+package com.horizon.eventbus.codec;
+
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.Locale;
+
+/**
+ * Formaten die EventbusCodec kan schrijven en lezen. Welk format een bericht heeft staat in de content_type
+ * header; een bericht zonder (bekende) content type is JSON, zoals alles van voor de binaire codec.
+ */
+public enum PayloadFormat {
+    JSON(MessageProperties.CONTENT_TYPE_JSON),
+    CBOR("application/cbor");
+
+    private final String contentType;
+
+    PayloadFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static PayloadFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("cbor")) {
+            return CBOR;
+        }
+        return JSON;
+    }
+
+    // voor properties: "json" of "cbor"
+    public static PayloadFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
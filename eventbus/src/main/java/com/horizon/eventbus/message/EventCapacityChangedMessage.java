@@ -0,0 +1,43 @@
+package com.horizon.eventbus.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Message die wordt gepubliceerd wanneer een Event met een maximum aantal deelnemers wordt aangemaakt,
+ * of wanneer dat maximum wijzigt. rsvpservice gebruikt dit om de capaciteit af te dwingen.
+ */
+public class EventCapacityChangedMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+    private final Integer maxAttendees;
+
+    @JsonCreator
+    public EventCapacityChangedMessage(
+            @JsonProperty("id") UUID id,
+            @JsonProperty("maxAttendees") Integer maxAttendees
+    ) {
+        this.id = id;
+        this.maxAttendees = maxAttendees;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Integer getMaxAttendees() {
+        return maxAttendees;
+    }
+
+    @Override
+    public String toString() {
+        return "EventCapacityChangedMessage{" +
+                "id=" + id +
+                ", maxAttendees=" + maxAttendees +
+                '}';
+    }
+}
@@ -0,0 +1,44 @@
+package com.horizon.eventbus.message;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Message die wordt gepubliceerd wanneer een Event door de scheduler op COMPLETED is gezet.
+ * Bewust klein: consumers die meer nodig hebben halen het event op via eventservice.
+ */
+public class EventCompletedMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+    private final LocalDateTime endDate;
+
+    @JsonCreator
+    public EventCompletedMessage(
+            @JsonProperty("id") UUID id,
+            @JsonProperty("endDate") LocalDateTime endDate
+    ) {
+        this.id = id;
+        this.endDate = endDate;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public String toString() {
+        return "EventCompletedMessage{" +
+                "id=" + id +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
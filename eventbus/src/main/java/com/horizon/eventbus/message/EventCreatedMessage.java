@@ -1,4 +1,4 @@
-package com.horizon.userservice.eventbus;
+package com.horizon.eventbus.message;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
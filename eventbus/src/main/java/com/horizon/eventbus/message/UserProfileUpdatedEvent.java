@@ -0,0 +1,57 @@
+package com.horizon.eventbus.message;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Message die userservice publiceert wanneer profielvelden van een user wijzigen. updatedFields bevat per veld
+ * een map met "oldValue" en "newValue".
+ */
+public class UserProfileUpdatedEvent {
+    private String keycloakId;
+    private Map<String, Object> updatedFields;
+
+    public UserProfileUpdatedEvent() {
+    }
+
+    public UserProfileUpdatedEvent(String keycloakId, Map<String, Object> updatedFields) {
+        this.keycloakId = keycloakId;
+        this.updatedFields = updatedFields;
+    }
+
+    public String getKeycloakId() {
+        return keycloakId;
+    }
+
+    public void setKeycloakId(String keycloakId) {
+        this.keycloakId = keycloakId;
+    }
+
+    public Map<String, Object> getUpdatedFields() {
+        return updatedFields;
+    }
+
+    public void setUpdatedFields(Map<String, Object> updatedFields) {
+        this.updatedFields = updatedFields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserProfileUpdatedEvent that)) return false;
+        return Objects.equals(keycloakId, that.keycloakId) && Objects.equals(updatedFields, that.updatedFields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(keycloakId, updatedFields);
+    }
+
+    @Override
+    public String toString() {
+        return "UserProfileUpdatedEvent{" +
+                "keycloakId='" + keycloakId + '\'' +
+                ", updatedFields=" + updatedFields +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.horizon.eventbus.message;
+
+import java.util.Objects;
+
+/**
+ * Message die userservice publiceert wanneer een nieuwe user is aangemaakt.
+ */
+public class UserRegisteredEvent {
+    private String keycloakId;
+    private String username;
+    private String email;
+
+    public UserRegisteredEvent() {
+    }
+
+    public UserRegisteredEvent(String keycloakId, String username, String email) {
+        this.keycloakId = keycloakId;
+        this.username = username;
+        this.email = email;
+    }
+
+    public String getKeycloakId() {
+        return keycloakId;
+    }
+
+    public void setKeycloakId(String keycloakId) {
+        this.keycloakId = keycloakId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserRegisteredEvent that)) return false;
+        return Objects.equals(keycloakId, that.keycloakId)
+                && Objects.equals(username, that.username)
+                && Objects.equals(email, that.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(keycloakId, username, email);
+    }
+
+    @Override
+    public String toString() {
+        return "UserRegisteredEvent{" +
+                "keycloakId='" + keycloakId + '\'' +
+                ", username='" + username + '\'' +
+                ", email='" + email + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+package com.horizon.eventbus.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Advice op de listener container: meet per queue de verwerkingstijd van een aflevering (los bericht of batch)
+ * en de leeftijd van elk bericht bij ontvangst, op basis van de timestamp die CorrelatedConfirmPublisher zet.
+ * Zo hoeft geen enkele listener dit zelf bij te houden.
+ */
+public class ConsumerMetricsAdvice implements MethodInterceptor {
+
+    public static final String PROCESSING_TIMER = "eventbus.consumer.processing";
+    public static final String MESSAGE_AGE_TIMER = "eventbus.consumer.message.age";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    public ConsumerMetricsAdvice(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // ContainerDelegate.invokeListener(Channel, Object data): data is een Message of een List<Message>
+        Object[] arguments = invocation.getArguments();
+        Object data = arguments.length > 1 ? arguments[1] : null;
+        Message first = firstMessage(data);
+        if (first == null) {
+            return invocation.proceed();
+        }
+
+        MeterRegistry registry = meterRegistry.get();
+        String queue = queueOf(first);
+        recordAges(registry, queue, data);
+
+        Timer.Sample sample = Timer.start(registry);
+        String result = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            result = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(PROCESSING_TIMER)
+                    .tag("queue", queue)
+                    .tag("result", result)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    private static void recordAges(MeterRegistry registry, String queue, Object data) {
+        Timer age = Timer.builder(MESSAGE_AGE_TIMER)
+                .tag("queue", queue)
+                .publishPercentileHistogram()
+                .register(registry);
+        long now = System.currentTimeMillis();
+        if (data instanceof List<?> messages) {
+            for (Object message : messages) {
+                if (message instanceof Message amqpMessage) {
+                    recordAge(age, amqpMessage, now);
+                }
+            }
+        } else if (data instanceof Message message) {
+            recordAge(age, message, now);
+        }
+    }
+
+    private static void recordAge(Timer age, Message message, long now) {
+        Date timestamp = message.getMessageProperties().getTimestamp();
+        if (timestamp != null) {
+            age.record(Duration.ofMillis(Math.max(0, now - timestamp.getTime())));
+        }
+    }
+
+    private static Message firstMessage(Object data) {
+        if (data instanceof Message message) {
+            return message;
+        }
+        if (data instanceof List<?> messages && !messages.isEmpty() && messages.get(0) instanceof Message message) {
+            return message;
+        }
+        return null;
+    }
+
+    private static String queueOf(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        String queue = properties.getConsumerQueue();
+        return queue != null ? queue : "unknown";
+    }
+}
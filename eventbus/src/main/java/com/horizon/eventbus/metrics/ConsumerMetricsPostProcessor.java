@@ -0,0 +1,39 @@
+package com.horizon.eventbus.metrics;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hangt ConsumerMetricsAdvice vooraan in de advice chain van elke SimpleRabbitListenerContainerFactory, ook de
+ * batch factories die services zelf definiëren. Vooraan, zodat retry-advice binnen de meting valt.
+ */
+public class ConsumerMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ConsumerMetricsAdvice advice;
+
+    public ConsumerMetricsPostProcessor(ConsumerMetricsAdvice advice) {
+        this.advice = advice;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof SimpleRabbitListenerContainerFactory factory) {
+            List<Advice> chain = new ArrayList<>();
+            chain.add(advice);
+            Advice[] existing = factory.getAdviceChain();
+            if (existing != null) {
+                for (Advice current : existing) {
+                    if (current != advice) {
+                        chain.add(current);
+                    }
+                }
+            }
+            factory.setAdviceChain(chain.toArray(new Advice[0]));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,22 @@
+package com.horizon.eventbus.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
+
+// Gevonden via de auto-configuration packages die OutboxAutoConfiguration registreert
+public interface OutboxDAL extends JpaRepository<OutboxMessage, Long> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2): elke replica pakt een eigen batch, niemand wacht
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxMessage> findByOrderByIdAsc(Limit limit);
+
+    Optional<OutboxMessage> findFirstByOrderByIdAsc();
+}
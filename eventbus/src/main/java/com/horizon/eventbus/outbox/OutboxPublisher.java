@@ -0,0 +1,41 @@
+package com.horizon.eventbus.outbox;
+
+import com.horizon.eventbus.codec.EventbusCodec;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vervangt rabbitTemplate.convertAndSend voor alles wat bij een database write hoort: het bericht wordt in de
+ * lopende transactie in de outbox gezet (MANDATORY, dus nooit los van de write) en later door OutboxRelay
+ * gepubliceerd. Een request wacht zo nooit op de broker, en een commit zonder bericht kan niet meer.
+ */
+public class OutboxPublisher {
+
+    private final OutboxDAL outboxDAL;
+    private final EventbusCodec eventbusCodec;
+
+    public OutboxPublisher(OutboxDAL outboxDAL, EventbusCodec eventbusCodec) {
+        this.outboxDAL = outboxDAL;
+        this.eventbusCodec = eventbusCodec;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        Message message = eventbusCodec.encode(payload);
+        MessageProperties properties = message.getMessageProperties();
+
+        OutboxMessage outboxMessage = new OutboxMessage();
+        outboxMessage.setExchange(exchange);
+        outboxMessage.setRoutingKey(routingKey);
+        outboxMessage.setContentType(properties.getContentType());
+        outboxMessage.setTypeId(properties.getHeader(DefaultJackson2JavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+        outboxMessage.setPayload(message.getBody());
+        outboxMessage.setCreatedAt(LocalDateTime.now());
+        outboxDAL.save(outboxMessage);
+    }
+}
@@ -0,0 +1,144 @@
+package com.horizon.eventbus.outbox;
+
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.publisher.OutboundMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publiceert de outbox in batches: de oudste batch wordt gelockt (SKIP LOCKED, zodat replicas elkaar niet
+ * blokkeren), via CorrelatedConfirmPublisher (eventbus library) zonder tussendoor te wachten verstuurd en pas
+ * verwijderd als de broker alles bevestigd heeft; een nack wordt door de publisher zelf een paar keer herhaald.
+ * At-least-once: valt de relay weg tussen confirm en commit, dan wordt de batch nog een keer gepubliceerd.
+ * Geen volgordegarantie, ook niet binnen een replica: een bericht dat na een nack opnieuw verstuurd wordt kan na
+ * latere berichten uit dezelfde batch aankomen, en replicas publiceren hun batches door elkaar. Consumers die op
+ * volgorde moeten letten gebruiken de event time header (EventbusTopology.EVENT_TIME_HEADER).
+ */
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    static final String DEPTH_GAUGE = "outbox.depth";
+    static final String OLDEST_AGE_GAUGE = "outbox.oldest.age";
+    static final String LAG_TIMER = "outbox.relay.lag";
+    static final String BATCH_TIMER = "outbox.relay.batch";
+    static final String PUBLISHED_COUNTER = "outbox.published";
+    static final String FAILURES_COUNTER = "outbox.relay.failures";
+
+    private final OutboxDAL outboxDAL;
+    private final CorrelatedConfirmPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+
+    public OutboxRelay(OutboxDAL outboxDAL, CorrelatedConfirmPublisher publisher, TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry, int batchSize) {
+        this.outboxDAL = outboxDAL;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+
+        // bijgewerkt na elke run, zodat een scrape geen query kost
+        Gauge.builder(DEPTH_GAUGE, depth, AtomicLong::get)
+                .description("Messages waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder(OLDEST_AGE_GAUGE, oldestAgeMs, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox message")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${horizon.outbox.relay.interval:200ms}")
+    public int relay() {
+        int published = 0;
+        try {
+            int batch;
+            do {
+                batch = relayBatch();
+                published += batch;
+            } while (batch == batchSize);
+        } catch (AmqpException e) {
+            // batch is teruggedraaid en blijft staan; de volgende run probeert het opnieuw
+            meterRegistry.counter(FAILURES_COUNTER).increment();
+            logger.warn("Outbox relay failed after publishing {} messages, retrying next run", published, e);
+        }
+        updateGauges();
+        return published;
+    }
+
+    private int relayBatch() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = outboxDAL.findByOrderByIdAsc(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            publisher.publishAll(batch.stream().map(OutboxRelay::toOutbound).toList());
+            outboxDAL.deleteAllInBatch(batch);
+
+            LocalDateTime now = LocalDateTime.now();
+            Timer lag = Timer.builder(LAG_TIMER)
+                    .description("Time between the database commit and the confirmed publish")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            for (OutboxMessage message : batch) {
+                lag.record(Duration.between(message.getCreatedAt(), now));
+            }
+            return batch.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            sample.stop(meterRegistry.timer(BATCH_TIMER));
+            meterRegistry.counter(PUBLISHED_COUNTER).increment(count);
+        }
+        return count;
+    }
+
+    private void updateGauges() {
+        depth.set(outboxDAL.count());
+        oldestAgeMs.set(outboxDAL.findFirstByOrderByIdAsc()
+                .map(message -> Duration.between(message.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+
+    // timestamp = moment van de outbox insert, zodat de consumer metrics de hele weg van commit tot verwerking meten;
+    // dezelfde tijd in microseconden als event time header, voor consumers die op volgorde moeten letten
+    private static OutboundMessage toOutbound(OutboxMessage outboxMessage) {
+        Instant createdAt = outboxMessage.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(outboxMessage.getContentType());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setTimestamp(Date.from(createdAt));
+        properties.setHeader(EventbusTopology.EVENT_TIME_HEADER, ChronoUnit.MICROS.between(Instant.EPOCH, createdAt));
+        if (outboxMessage.getTypeId() != null) {
+            properties.setHeader(DefaultJackson2JavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, outboxMessage.getTypeId());
+        }
+        return new OutboundMessage(outboxMessage.getExchange(), outboxMessage.getRoutingKey(),
+                new Message(outboxMessage.getPayload(), properties));
+    }
+}
@@ -0,0 +1,174 @@
+package com.horizon.eventbus.publisher;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publiceert met gecorreleerde, asynchrone publisher confirms (spring.rabbitmq.publisher-confirm-type=correlated):
+ * elk bericht krijgt een CorrelationData en de afzender wacht niet per bericht, de broker bevestigt op de
+ * achtergrond. Daarmee blijven veel berichten tegelijk onderweg in plaats van één round trip per bericht of batch.
+ *
+ * Backpressure: er zijn hoogstens max-in-flight onbevestigde berichten. Is die grens bereikt, dan wacht publish()
+ * (tot confirm-timeout) op een vrije plek in plaats van de broker en het geheugen verder te belasten.
+ * Een nack of mislukte send wordt met oplopende backoff opnieuw verstuurd, tot max-attempts pogingen. Door zo'n
+ * retry kan een bericht later aankomen dan berichten die na hem verstuurd zijn.
+ */
+public class CorrelatedConfirmPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorrelatedConfirmPublisher.class);
+
+    public static final String CONFIRM_TIMER = "eventbus.publisher.confirm.latency";
+    public static final String IN_FLIGHT_GAUGE = "eventbus.publisher.in-flight";
+    public static final String PUBLISHED_COUNTER = "eventbus.publisher.messages";
+    public static final String RETRIES_COUNTER = "eventbus.publisher.retries";
+    public static final String FAILURES_COUNTER = "eventbus.publisher.failures";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final Duration confirmTimeout;
+    private final Duration retryBackoff;
+    private final Semaphore permits;
+
+    public CorrelatedConfirmPublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry, int maxInFlight,
+                                      int maxAttempts, Duration confirmTimeout, Duration retryBackoff) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.maxAttempts = maxAttempts;
+        this.confirmTimeout = confirmTimeout;
+        this.retryBackoff = retryBackoff;
+        this.permits = new Semaphore(maxInFlight);
+
+        Gauge.builder(IN_FLIGHT_GAUGE, permits, available -> this.maxInFlight - available.availablePermits())
+                .description("Published messages still waiting for a broker confirm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verstuurt het bericht en geeft een future die slaagt op de (eventueel na retries) ontvangen ack, en faalt
+     * met een AmqpException na een laatste nack, mislukte send of confirm-timeout.
+     *
+     * @throws AmqpTimeoutException als er binnen confirm-timeout geen plek vrijkomt onder max-in-flight
+     */
+    public CompletableFuture<Void> publish(OutboundMessage message) {
+        acquirePermit();
+        stampTimestamp(message.message().getMessageProperties());
+        CompletableFuture<Void> result = new CompletableFuture<Void>()
+                .orTimeout(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        // de aanroeper ziet de uitkomst pas als de plek vrij is en de metrics bijgewerkt zijn
+        CompletableFuture<Void> completed = result.whenComplete((ignored, failure) -> {
+            permits.release();
+            if (failure == null) {
+                meterRegistry.counter(PUBLISHED_COUNTER).increment();
+            } else {
+                meterRegistry.counter(FAILURES_COUNTER).increment();
+            }
+        });
+        attempt(message, 1, result);
+        return completed;
+    }
+
+    /**
+     * Verstuurt alle berichten zonder tussendoor te wachten en blokkeert daarna tot ze allemaal bevestigd zijn.
+     * Voor een achtergrond-thread zoals de outbox relay, niet voor een request thread.
+     *
+     * @throws AmqpException als niet alle berichten bevestigd zijn
+     */
+    public void publishAll(List<OutboundMessage> messages) {
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(messages.size());
+        for (OutboundMessage message : messages) {
+            confirms.add(publish(message));
+        }
+        try {
+            CompletableFuture.allOf(confirms.toArray(new CompletableFuture[0])).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw new AmqpTimeoutException("No publisher confirm within " + confirmTimeout, timeout);
+            }
+            throw e.getCause() instanceof AmqpException amqp ? amqp : new AmqpException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for publisher confirms", e);
+        }
+    }
+
+    private void attempt(OutboundMessage message, int attempt, CompletableFuture<Void> result) {
+        if (result.isDone()) {
+            return; // al verlopen, niet nog eens versturen
+        }
+        CorrelationData correlation = new CorrelationData(UUID.randomUUID().toString());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            rabbitTemplate.send(message.exchange(), message.routingKey(), message.message(), correlation);
+        } catch (AmqpException e) {
+            retryOrFail(message, attempt, result, e);
+            return;
+        }
+        correlation.getFuture().whenComplete((confirm, failure) -> {
+            boolean ack = failure == null && confirm.isAck();
+            sample.stop(Timer.builder(CONFIRM_TIMER)
+                    .tag("result", ack ? "ack" : "nack")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            if (ack) {
+                result.complete(null);
+            } else {
+                String reason = failure != null ? failure.getMessage() : confirm.getReason();
+                retryOrFail(message, attempt, result, new AmqpException("Publish nacked: " + reason));
+            }
+        });
+    }
+
+    // nooit vanaf de confirm thread zelf opnieuw versturen: de retry draait na de backoff op een andere thread
+    private void retryOrFail(OutboundMessage message, int attempt, CompletableFuture<Void> result, AmqpException cause) {
+        if (attempt >= maxAttempts) {
+            logger.warn("Giving up on message to {}/{} after {} attempts", message.exchange(), message.routingKey(),
+                    attempt, cause);
+            result.completeExceptionally(cause);
+            return;
+        }
+        meterRegistry.counter(RETRIES_COUNTER).increment();
+        long delayMs = retryBackoff.toMillis() * attempt;
+        CompletableFuture.runAsync(() -> attempt(message, attempt + 1, result),
+                CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new AmqpTimeoutException("More than " + maxInFlight + " messages waiting for publisher confirms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Interrupted while waiting for publisher capacity", e);
+        }
+    }
+
+    // consumers meten de leeftijd van een bericht vanaf deze timestamp (zie ConsumerMetricsAdvice)
+    private static void stampTimestamp(MessageProperties properties) {
+        if (properties.getTimestamp() == null) {
+            properties.setTimestamp(new Date());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.horizon.eventbus.publisher;
+
+import org.springframework.amqp.core.Message;
+
+/**
+ * Een al geserialiseerd bericht met zijn bestemming, zoals CorrelatedConfirmPublisher het verstuurt.
+ */
+public record OutboundMessage(String exchange, String routingKey, Message message) {
+}
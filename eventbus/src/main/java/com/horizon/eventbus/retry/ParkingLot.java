@@ -0,0 +1,109 @@
+package com.horizon.eventbus.retry;
+
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.publisher.OutboundMessage;
+import com.rabbitmq.client.GetResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Beheer van de parking lots uit RetryTopology: hoeveel berichten er per queue geparkeerd staan, en ze in bulk
+ * opnieuw aanbieden. Een teruggezet bericht begint weer bij de eerste vertragingstrap.
+ */
+public class ParkingLot {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingLot.class);
+
+    public static final String REPLAYED_COUNTER = "eventbus.consumer.replayed";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final RetryTopology retryTopology;
+    private final CorrelatedConfirmPublisher publisher;
+    private final MeterRegistry meterRegistry;
+    private final MessagePropertiesConverter propertiesConverter = new DefaultMessagePropertiesConverter();
+
+    public ParkingLot(RabbitTemplate rabbitTemplate, RetryTopology retryTopology, CorrelatedConfirmPublisher publisher,
+                      MeterRegistry meterRegistry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.retryTopology = retryTopology;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Aantal geparkeerde berichten per consumer queue met retry topologie. */
+    public Map<String, Long> parkedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (String queue : retryTopology.queues()) {
+            counts.put(queue, rabbitTemplate.execute(channel -> channel.messageCount(RetryTopology.parkingLot(queue))));
+        }
+        return counts;
+    }
+
+    /**
+     * Zet tot limit geparkeerde berichten terug op hun queue. De berichten worden pas uit de parking lot geackt
+     * als de broker de herpublicatie bevestigd heeft; lukt dat niet, dan blijven ze geparkeerd.
+     *
+     * @return het aantal teruggezette berichten
+     * @throws IllegalArgumentException als de queue geen retry topologie heeft
+     */
+    public int replay(String queue, int limit) {
+        if (!retryTopology.isRetryable(queue)) {
+            throw new IllegalArgumentException("No parking lot for queue " + queue);
+        }
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            List<OutboundMessage> batch = new ArrayList<>();
+            long lastDeliveryTag = -1;
+            while (batch.size() < limit) {
+                GetResponse response = channel.basicGet(RetryTopology.parkingLot(queue), false);
+                if (response == null) {
+                    break;
+                }
+                lastDeliveryTag = response.getEnvelope().getDeliveryTag();
+                batch.add(toRetry(queue, response));
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                publisher.publishAll(batch);
+            } catch (AmqpException e) {
+                channel.basicNack(lastDeliveryTag, true, true);
+                throw e;
+            }
+            channel.basicAck(lastDeliveryTag, true);
+            return batch.size();
+        });
+        int count = replayed == null ? 0 : replayed;
+        meterRegistry.counter(REPLAYED_COUNTER, "queue", queue).increment(count);
+        logger.info("Replayed {} parked messages to {}", count, queue);
+        return count;
+    }
+
+    // via de retry exchange rechtstreeks terug naar de queue, met de originele routing key en een schone teller
+    private OutboundMessage toRetry(String queue, GetResponse response) {
+        MessageProperties properties = propertiesConverter.toMessageProperties(response.getProps(),
+                response.getEnvelope(), StandardCharsets.UTF_8.name());
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RetryTopology.QUEUE_HEADER, queue);
+        headers.put(RetryTopology.STAGE_HEADER, null);
+        headers.put(RetryTopology.ATTEMPT_HEADER, null);
+        headers.put(RetryTopology.ERROR_HEADER, null);
+        Message message = RetryTopology.republishable(new Message(response.getBody(), properties), headers);
+        String routingKey = properties.getReceivedRoutingKey();
+        return new OutboundMessage(RetryTopology.RETRY_EXCHANGE, routingKey != null ? routingKey : "", message);
+    }
+}
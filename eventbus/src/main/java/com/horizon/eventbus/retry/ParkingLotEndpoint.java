@@ -0,0 +1,43 @@
+package com.horizon.eventbus.retry;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * Admin endpoint voor de parking lots (alleen voor de admin rol, zie EventbusAutoConfiguration):
+ * GET /actuator/parkinglot geeft het aantal geparkeerde berichten per queue,
+ * POST /actuator/parkinglot/{queue} met optioneel {"limit": n} zet ze in bulk terug.
+ */
+@Endpoint(id = "parkinglot")
+public class ParkingLotEndpoint {
+
+    static final int DEFAULT_REPLAY_LIMIT = 500;
+
+    private final ParkingLot parkingLot;
+
+    public ParkingLotEndpoint(ParkingLot parkingLot) {
+        this.parkingLot = parkingLot;
+    }
+
+    @ReadOperation
+    public Map<String, Long> parked() {
+        return parkingLot.parkedCounts();
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String queue, @Nullable Integer limit) {
+        try {
+            int replayed = parkingLot.replay(queue, limit != null && limit > 0 ? limit : DEFAULT_REPLAY_LIMIT);
+            return Map.of("queue", queue, "replayed", replayed);
+        } catch (IllegalArgumentException e) {
+            // 400 in plaats van 500
+            throw new InvalidEndpointRequestException(e.getMessage(), "Unknown queue");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.horizon.eventbus.retry;
+
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.publisher.OutboundMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Advice op de listener container: gooit de listener van een queue met retry topologie (zie RetryTopology), dan
+ * wordt de aflevering niet direct opnieuw op de queue gezet maar gaat elk bericht naar de volgende vertragingstrap,
+ * of na de laatste naar de parking lot. Pas als dat bevestigd is wordt de aflevering geackt, dus een giftig bericht
+ * kan een consumer niet meer in een lus laten draaien. Bij een batch gaat de hele batch mee, met per bericht een
+ * eigen teller. Een bericht dat niet te lezen is wordt meteen geparkeerd: opnieuw proberen helpt daar niet.
+ * Lukt het publiceren niet, dan valt de container terug op zijn gewone gedrag (requeue).
+ */
+public class RetryRoutingAdvice implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryRoutingAdvice.class);
+
+    public static final String RETRIES_COUNTER = "eventbus.consumer.retries";
+    public static final String PARKED_COUNTER = "eventbus.consumer.parked";
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final RetryTopology retryTopology;
+    private final CorrelatedConfirmPublisher publisher;
+    private final MeterRegistry meterRegistry;
+
+    public RetryRoutingAdvice(RetryTopology retryTopology, CorrelatedConfirmPublisher publisher, MeterRegistry meterRegistry) {
+        this.retryTopology = retryTopology;
+        this.publisher = publisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // ContainerDelegate.invokeListener(Channel, Object data): data is een Message of een List<Message>
+        Object[] arguments = invocation.getArguments();
+        List<Message> messages = messages(arguments.length > 1 ? arguments[1] : null);
+        String queue = messages.isEmpty() ? null : messages.get(0).getMessageProperties().getConsumerQueue();
+        if (!retryTopology.isRetryable(queue)) {
+            return invocation.proceed();
+        }
+
+        try {
+            return invocation.proceed();
+        } catch (Exception e) {
+            try {
+                route(queue, messages, e);
+            } catch (AmqpException publishFailure) {
+                logger.error("Could not route {} failed messages from {} to retry, requeueing", messages.size(), queue,
+                        publishFailure);
+                e.addSuppressed(publishFailure);
+                throw e;
+            }
+            return null;
+        }
+    }
+
+    private void route(String queue, List<Message> messages, Exception failure) {
+        boolean unreadable = isUnreadable(failure);
+        String error = describe(failure);
+
+        List<OutboundMessage> outbound = new ArrayList<>(messages.size());
+        List<String> stages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            int attempts = RetryTopology.attemptsOf(message);
+            Optional<Duration> delay = unreadable ? Optional.empty() : retryTopology.delayAfter(attempts);
+            String stage = delay.map(RetryTopology::stage).orElse(RetryTopology.PARKED_STAGE);
+
+            Map<String, Object> headers = new HashMap<>();
+            headers.put(RetryTopology.QUEUE_HEADER, queue);
+            headers.put(RetryTopology.STAGE_HEADER, stage);
+            headers.put(RetryTopology.ATTEMPT_HEADER, attempts + 1);
+            headers.put(RetryTopology.ERROR_HEADER, error);
+            // de originele routing key blijft staan; de headers exchange routeert alleen op de headers
+            String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+            outbound.add(new OutboundMessage(RetryTopology.DELAY_EXCHANGE, routingKey != null ? routingKey : "",
+                    RetryTopology.republishable(message, headers)));
+            stages.add(stage);
+        }
+        publisher.publishAll(outbound);
+
+        long parked = stages.stream().filter(RetryTopology.PARKED_STAGE::equals).count();
+        for (String stage : stages) {
+            if (RetryTopology.PARKED_STAGE.equals(stage)) {
+                meterRegistry.counter(PARKED_COUNTER, "queue", queue, "reason", unreadable ? "unreadable" : "exhausted")
+                        .increment();
+            } else {
+                meterRegistry.counter(RETRIES_COUNTER, "queue", queue, "stage", stage).increment();
+            }
+        }
+        logger.warn("Listener on {} failed ({}): {} messages scheduled for retry, {} parked", queue, error,
+                messages.size() - parked, parked);
+    }
+
+    private static boolean isUnreadable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MessageConversionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String describe(Exception failure) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(failure);
+        String description = cause.getClass().getName() + ": " + cause.getMessage();
+        return description.length() > MAX_ERROR_LENGTH ? description.substring(0, MAX_ERROR_LENGTH) : description;
+    }
+
+    private static List<Message> messages(Object data) {
+        if (data instanceof Message message) {
+            return List.of(message);
+        }
+        List<Message> messages = new ArrayList<>();
+        if (data instanceof List<?> list) {
+            for (Object element : list) {
+                if (element instanceof Message message) {
+                    messages.add(message);
+                }
+            }
+        }
+        return messages;
+    }
+}
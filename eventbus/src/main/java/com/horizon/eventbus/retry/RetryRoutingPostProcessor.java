@@ -0,0 +1,41 @@
+package com.horizon.eventbus.retry;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hangt RetryRoutingAdvice achteraan in de advice chain van elke SimpleRabbitListenerContainerFactory, dus binnen
+ * de consumer metrics. De advice wordt pas opgehaald als er een factory langskomt, zodat deze post processor vroeg
+ * kan bestaan zonder de RabbitTemplate mee te trekken.
+ */
+public class RetryRoutingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<RetryRoutingAdvice> advice;
+
+    public RetryRoutingPostProcessor(ObjectProvider<RetryRoutingAdvice> advice) {
+        this.advice = advice;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof SimpleRabbitListenerContainerFactory factory) {
+            RetryRoutingAdvice retry = advice.getIfAvailable();
+            if (retry == null) {
+                return bean;
+            }
+            Advice[] existing = factory.getAdviceChain();
+            List<Advice> chain = new ArrayList<>(existing != null ? Arrays.asList(existing) : List.of());
+            if (!chain.contains(retry)) {
+                chain.add(retry);
+                factory.setAdviceChain(chain.toArray(new Advice[0]));
+            }
+        }
+        return bean;
+    }
+}
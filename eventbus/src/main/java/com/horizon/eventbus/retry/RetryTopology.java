@@ -0,0 +1,142 @@
+package com.horizon.eventbus.retry;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retry topologie per consumer queue: een vertragingsqueue per trap (x-message-ttl) en een parking lot.
+ * RetryRoutingAdvice zet een mislukt bericht via de delay exchange in de eerstvolgende trap; als de TTL verloopt
+ * stuurt de broker het via de dead-letter exchange (de retry exchange) terug naar de oorspronkelijke queue.
+ * Na de laatste trap belandt het bericht in de parking lot, tot het via ParkingLot opnieuw wordt aangeboden.
+ *
+ * Beide exchanges zijn headers exchanges: er wordt gerouteerd op {@link #QUEUE_HEADER} en {@link #STAGE_HEADER},
+ * zodat de originele routing key onderweg behouden blijft (consumers lezen hem nog als __TypeId__ ontbreekt).
+ * Een trap heet naar zijn vertraging; andere delays geven dus nieuwe queues in plaats van afwijkende argumenten
+ * op een bestaande queue, en berichten in een oude trap komen gewoon terug.
+ */
+public class RetryTopology {
+
+    public static final String DELAY_EXCHANGE = "horizon.eventbus.retry.delay";
+    public static final String RETRY_EXCHANGE = "horizon.eventbus.retry";
+
+    // zonder x- prefix: headers exchanges negeren x- headers bij het matchen
+    public static final String QUEUE_HEADER = "horizon-retry-queue";
+    public static final String STAGE_HEADER = "horizon-retry-stage";
+    public static final String ATTEMPT_HEADER = "horizon-retry-attempt";
+    public static final String ERROR_HEADER = "horizon-retry-error";
+
+    public static final String PARKED_STAGE = "parked";
+
+    private final List<Duration> delays;
+    private final Set<String> queues = ConcurrentHashMap.newKeySet();
+
+    public RetryTopology(List<Duration> delays) {
+        this.delays = List.copyOf(delays);
+    }
+
+    /**
+     * Vertragingsqueues en parking lot voor een consumer queue, plus de binding waarmee berichten uit de retry
+     * exchange terugkomen. Alleen queues die zo gedeclareerd zijn worden door RetryRoutingAdvice afgehandeld.
+     */
+    public Declarables declare(String queue) {
+        queues.add(queue);
+        List<Declarable> declarables = new ArrayList<>();
+        for (Duration delay : delays) {
+            String stage = stage(delay);
+            declarables.add(QueueBuilder.durable(delayQueue(queue, delay))
+                    .ttl((int) delay.toMillis())
+                    .deadLetterExchange(RETRY_EXCHANGE)
+                    .build());
+            declarables.add(headersBinding(delayQueue(queue, delay), DELAY_EXCHANGE, queue, stage));
+        }
+        declarables.add(QueueBuilder.durable(parkingLot(queue)).build());
+        declarables.add(headersBinding(parkingLot(queue), DELAY_EXCHANGE, queue, PARKED_STAGE));
+        declarables.add(headersBinding(queue, RETRY_EXCHANGE, queue, null));
+        return new Declarables(declarables);
+    }
+
+    public boolean isRetryable(String queue) {
+        return queue != null && queues.contains(queue);
+    }
+
+    public Set<String> queues() {
+        return Set.copyOf(queues);
+    }
+
+    /** De vertraging voor een bericht dat al attempts keer opnieuw is aangeboden; leeg als het geparkeerd moet worden. */
+    public Optional<Duration> delayAfter(int attempts) {
+        return attempts < delays.size() ? Optional.of(delays.get(attempts)) : Optional.empty();
+    }
+
+    public static String delayQueue(String queue, Duration delay) {
+        return queue + ".retry." + stage(delay);
+    }
+
+    public static String parkingLot(String queue) {
+        return queue + ".parking-lot";
+    }
+
+    public static String stage(Duration delay) {
+        return delay.toMillis() + "ms";
+    }
+
+    static int attemptsOf(Message message) {
+        Object attempts = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+        return attempts instanceof Number number ? number.intValue() : 0;
+    }
+
+    /**
+     * Kopie van een ontvangen bericht om opnieuw te publiceren: zelfde body, type en timestamp (de message age
+     * metric telt de vertraging dus mee), persistent, zonder de x-death administratie van de broker.
+     */
+    static Message republishable(Message source, Map<String, Object> headers) {
+        MessageProperties received = source.getMessageProperties();
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(received.getContentType());
+        properties.setContentEncoding(received.getContentEncoding());
+        properties.setMessageId(received.getMessageId());
+        properties.setCorrelationId(received.getCorrelationId());
+        properties.setType(received.getType());
+        properties.setAppId(received.getAppId());
+        properties.setTimestamp(received.getTimestamp());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        received.getHeaders().forEach((name, value) -> {
+            if (!name.startsWith("x-death") && !name.startsWith("x-first-death") && !name.startsWith("x-last-death")) {
+                properties.setHeader(name, value);
+            }
+        });
+        headers.forEach((name, value) -> {
+            if (value == null) {
+                properties.getHeaders().remove(name);
+            } else {
+                properties.setHeader(name, value);
+            }
+        });
+        return new Message(source.getBody(), properties);
+    }
+
+    // stage null: alleen op de queue matchen
+    private static Binding headersBinding(String destination, String exchange, String queue, String stage) {
+        Map<String, Object> arguments = new LinkedHashMap<>();
+        arguments.put("x-match", "all");
+        arguments.put(QUEUE_HEADER, queue);
+        if (stage != null) {
+            arguments.put(STAGE_HEADER, stage);
+        }
+        return new Binding(destination, Binding.DestinationType.QUEUE, exchange, "", arguments);
+    }
+}
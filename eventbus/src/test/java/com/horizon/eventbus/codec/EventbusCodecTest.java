@@ -0,0 +1,101 @@
+package com.horizon.eventbus.codec;
+
+import com.horizon.eventbus.message.EventCreatedMessage;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventbusCodecTest {
+
+    private final EventbusCodec codec = new EventbusCodec();
+
+    @Test
+    void encode_shouldProduceJsonWithTypeIdAndRoundTrip() {
+        EventCreatedMessage event = new EventCreatedMessage(UUID.randomUUID(), "Concert",
+                LocalDateTime.of(2025, 6, 1, 20, 0), LocalDateTime.of(2025, 5, 1, 12, 0), UUID.randomUUID());
+
+        Message message = codec.encode(event);
+
+        MessageProperties properties = message.getMessageProperties();
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, properties.getContentType());
+        assertEquals(EventCreatedMessage.class.getName(), properties.getHeader("__TypeId__"));
+        EventCreatedMessage converted = (EventCreatedMessage) codec.messageConverter().fromMessage(message);
+        assertEquals(event.toString(), converted.toString());
+        assertEquals(event.toString(), codec.decode(message, EventCreatedMessage.class).toString());
+    }
+
+    @Test
+    void decode_shouldIgnoreUnknownFieldsAndReadLegacyDates() {
+        // zoals de per-service converters het schreven: datums als array, plus een veld dat deze versie niet kent
+        String json = "{\"id\":\"" + UUID.randomUUID() + "\",\"title\":\"Concert\","
+                + "\"startDate\":[2025,6,1,20,0],\"createdAt\":[2025,5,1,12,0],\"addedLater\":true}";
+
+        EventCreatedMessage event = codec.decode(new Message(json.getBytes(StandardCharsets.UTF_8)),
+                EventCreatedMessage.class);
+
+        assertEquals("Concert", event.getTitle());
+        assertEquals(LocalDateTime.of(2025, 6, 1, 20, 0), event.getStartDate());
+
+        UserProfileUpdatedEvent profile = codec.decode(
+                new Message("{\"keycloakId\":\"kc-1\",\"updatedFields\":{\"username\":{\"newValue\":\"new\"}}}"
+                        .getBytes(StandardCharsets.UTF_8)), UserProfileUpdatedEvent.class);
+        assertEquals(Map.of("newValue", "new"), profile.getUpdatedFields().get("username"));
+    }
+
+    @Test
+    void cbor_shouldRoundTripAndBeSmallerThanJson() {
+        EventbusCodec cborCodec = new EventbusCodec(PayloadFormat.CBOR);
+        UserProfileUpdatedEvent event = new UserProfileUpdatedEvent("kc-1", Map.of(
+                "username", Map.of("oldValue", "old", "newValue", "new"),
+                "email", Map.of("oldValue", "old@example.com", "newValue", "new@example.com")));
+
+        Message cbor = cborCodec.encode(event);
+
+        assertEquals(PayloadFormat.CBOR.contentType(), cbor.getMessageProperties().getContentType());
+        assertEquals(UserProfileUpdatedEvent.class.getName(), cbor.getMessageProperties().getHeader("__TypeId__"));
+        assertEquals(event, cborCodec.decode(cbor, UserProfileUpdatedEvent.class));
+        assertEquals(event, cborCodec.messageConverter().fromMessage(cbor));
+        assertTrue(cbor.getBody().length < codec.encode(event).getBody().length);
+    }
+
+    @Test
+    void decode_shouldFollowContentTypeWhateverTheOutboundFormat() {
+        UserRegisteredEvent event = new UserRegisteredEvent("kc-2", "user", "user@example.com");
+        EventbusCodec cborCodec = new EventbusCodec(PayloadFormat.CBOR);
+
+        // tijdens een rollout: een JSON consumer krijgt CBOR en andersom
+        assertEquals(event, codec.decode(cborCodec.encode(event), UserRegisteredEvent.class));
+        assertEquals(event, codec.messageConverter().fromMessage(cborCodec.encode(event)));
+        assertEquals(event, cborCodec.decode(codec.encode(event), UserRegisteredEvent.class));
+        assertEquals(event, cborCodec.messageConverter().fromMessage(codec.encode(event)));
+    }
+
+    @Test
+    void messageConverter_shouldPreferListenerParameterTypeForCbor() {
+        Message cbor = new EventbusCodec(PayloadFormat.CBOR).encode(new UserRegisteredEvent("kc-3", "user", "u@example.com"));
+        // zoals de listener adapter doet; de header noemt een klasse die deze consumer niet kent
+        cbor.getMessageProperties().setHeader("__TypeId__", "com.horizon.userservice.event.UserRegisteredEvent");
+        cbor.getMessageProperties().setInferredArgumentType(UserRegisteredEvent.class);
+
+        assertEquals("kc-3", ((UserRegisteredEvent) codec.messageConverter().fromMessage(cbor)).getKeycloakId());
+    }
+
+    @Test
+    void decode_shouldWrapUnreadableBody() {
+        Message garbage = new Message("not json".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(MessageConversionException.class, () -> codec.decode(garbage, EventCreatedMessage.class));
+    }
+}
@@ -0,0 +1,87 @@
+package com.horizon.eventbus.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConsumerMetricsAdviceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConsumerMetricsAdvice advice = new ConsumerMetricsAdvice(() -> meterRegistry);
+
+    @Test
+    void invoke_shouldTimeBatchPerQueueAndRecordMessageAge() throws Throwable {
+        List<Message> batch = List.of(message("queue.a", 5_000), message("queue.a", 1_000), message("queue.a", -1));
+        MethodInvocation invocation = invocation(batch);
+        when(invocation.proceed()).thenReturn(null);
+
+        advice.invoke(invocation);
+
+        Timer processing = meterRegistry.timer(ConsumerMetricsAdvice.PROCESSING_TIMER, "queue", "queue.a", "result", "success");
+        assertEquals(1, processing.count());
+        // het bericht zonder timestamp telt niet mee voor de leeftijd
+        Timer age = meterRegistry.timer(ConsumerMetricsAdvice.MESSAGE_AGE_TIMER, "queue", "queue.a");
+        assertEquals(2, age.count());
+        assertTrue(age.max(TimeUnit.MILLISECONDS) >= 5_000);
+    }
+
+    @Test
+    void invoke_shouldTagFailures() throws Throwable {
+        MethodInvocation invocation = invocation(message("queue.b", 0));
+        when(invocation.proceed()).thenThrow(new IllegalStateException("listener failed"));
+
+        assertThrows(IllegalStateException.class, () -> advice.invoke(invocation));
+
+        assertEquals(1, meterRegistry.timer(ConsumerMetricsAdvice.PROCESSING_TIMER,
+                "queue", "queue.b", "result", "failure").count());
+    }
+
+    @Test
+    void postProcessor_shouldPutAdviceInFrontOfExistingChain() {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        Advice retry = RetryInterceptorBuilder.stateless().recoverer(new RejectAndDontRequeueRecoverer()).build();
+        factory.setAdviceChain(retry);
+        ConsumerMetricsPostProcessor postProcessor = new ConsumerMetricsPostProcessor(advice);
+
+        postProcessor.postProcessAfterInitialization(factory, "factory");
+        postProcessor.postProcessAfterInitialization(factory, "factory");
+
+        assertArrayEquals(new Advice[] {advice, retry}, factory.getAdviceChain());
+        assertSame(advice, factory.getAdviceChain()[0]);
+    }
+
+    private static MethodInvocation invocation(Object data) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(new Object[] {null, data});
+        return invocation;
+    }
+
+    // ageMs < 0: geen timestamp
+    private static Message message(String queue, long ageMs) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        if (ageMs >= 0) {
+            properties.setTimestamp(new Date(System.currentTimeMillis() - ageMs));
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+}
@@ -0,0 +1,149 @@
+package com.horizon.eventbus.publisher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CorrelatedConfirmPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RabbitTemplate rabbitTemplate;
+    private final Deque<Outcome> outcomes = new ArrayDeque<>();
+    private final List<CorrelationData> unconfirmed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            Outcome outcome = outcomes.isEmpty() ? Outcome.ACK : outcomes.poll();
+            switch (outcome) {
+                case ACK -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+                case NACK -> correlation.getFuture().complete(new CorrelationData.Confirm(false, "internal error"));
+                case NONE -> unconfirmed.add(correlation);
+            }
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publishAll_shouldReturnOnceEveryMessageIsAcked() {
+        CorrelatedConfirmPublisher publisher = publisher(10, 3, Duration.ofSeconds(2));
+        Message stamped = message();
+        Date original = new Date(1_000L);
+        stamped.getMessageProperties().setTimestamp(original);
+        Message unstamped = message();
+
+        publisher.publishAll(List.of(outbound(stamped), outbound(unstamped)));
+
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        // een bestaande timestamp (bv. het moment van de outbox insert) blijft staan
+        assertEquals(original, stamped.getMessageProperties().getTimestamp());
+        assertNotNull(unstamped.getMessageProperties().getTimestamp());
+        assertEquals(2.0, meterRegistry.counter(CorrelatedConfirmPublisher.PUBLISHED_COUNTER).count());
+        assertEquals(2, meterRegistry.timer(CorrelatedConfirmPublisher.CONFIRM_TIMER, "result", "ack").count());
+        assertEquals(0.0, meterRegistry.get(CorrelatedConfirmPublisher.IN_FLIGHT_GAUGE).gauge().value());
+    }
+
+    @Test
+    void publishAll_shouldRetryNackedMessage() {
+        CorrelatedConfirmPublisher publisher = publisher(10, 3, Duration.ofSeconds(2));
+        outcomes.add(Outcome.NACK);
+        outcomes.add(Outcome.ACK);
+
+        publisher.publishAll(List.of(outbound(message())));
+
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(1.0, meterRegistry.counter(CorrelatedConfirmPublisher.RETRIES_COUNTER).count());
+        assertEquals(1, meterRegistry.timer(CorrelatedConfirmPublisher.CONFIRM_TIMER, "result", "nack").count());
+        assertEquals(1.0, meterRegistry.counter(CorrelatedConfirmPublisher.PUBLISHED_COUNTER).count());
+    }
+
+    @Test
+    void publishAll_shouldFailAfterMaxAttempts() {
+        CorrelatedConfirmPublisher publisher = publisher(10, 2, Duration.ofSeconds(2));
+        outcomes.add(Outcome.NACK);
+        outcomes.add(Outcome.NACK);
+
+        assertThrows(AmqpException.class, () -> publisher.publishAll(List.of(outbound(message()))));
+
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        assertEquals(1.0, meterRegistry.counter(CorrelatedConfirmPublisher.FAILURES_COUNTER).count());
+        assertEquals(0.0, meterRegistry.get(CorrelatedConfirmPublisher.IN_FLIGHT_GAUGE).gauge().value());
+    }
+
+    @Test
+    void publish_shouldApplyBackpressureAtMaxInFlight() throws Exception {
+        CorrelatedConfirmPublisher publisher = publisher(2, 1, Duration.ofSeconds(5));
+        outcomes.add(Outcome.NONE);
+        outcomes.add(Outcome.NONE);
+
+        publisher.publish(outbound(message()));
+        publisher.publish(outbound(message()));
+        assertEquals(2.0, meterRegistry.get(CorrelatedConfirmPublisher.IN_FLIGHT_GAUGE).gauge().value());
+
+        // beide plekken bezet: de derde wacht tot er een confirm binnenkomt
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> publisher.publish(outbound(message())));
+        assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        unconfirmed.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        third.get(2, TimeUnit.SECONDS);
+        verify(rabbitTemplate, times(3)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publishAll_shouldTimeOutWithoutConfirmAndFreeCapacity() {
+        CorrelatedConfirmPublisher publisher = publisher(1, 1, Duration.ofMillis(100));
+        outcomes.add(Outcome.NONE);
+
+        assertThrows(AmqpTimeoutException.class, () -> publisher.publishAll(List.of(outbound(message()))));
+
+        // een late confirm verandert niets meer, en de plek is weer vrij
+        unconfirmed.forEach(correlation -> correlation.getFuture().complete(new CorrelationData.Confirm(true, null)));
+        assertEquals(0.0, meterRegistry.get(CorrelatedConfirmPublisher.IN_FLIGHT_GAUGE).gauge().value());
+        publisher.publishAll(List.of(outbound(message())));
+    }
+
+    private CorrelatedConfirmPublisher publisher(int maxInFlight, int maxAttempts, Duration confirmTimeout) {
+        return new CorrelatedConfirmPublisher(rabbitTemplate, meterRegistry, maxInFlight, maxAttempts, confirmTimeout,
+                Duration.ofMillis(10));
+    }
+
+    private static OutboundMessage outbound(Message message) {
+        return new OutboundMessage("exchange", "routing.key", message);
+    }
+
+    // NONE: de broker bevestigt niet
+    private enum Outcome { ACK, NACK, NONE }
+
+    private static Message message() {
+        return new Message("{}".getBytes(), new MessageProperties());
+    }
+}
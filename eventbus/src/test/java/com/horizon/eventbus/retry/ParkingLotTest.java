@@ -0,0 +1,107 @@
+package com.horizon.eventbus.retry;
+
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.publisher.OutboundMessage;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingLotTest {
+
+    private static final String QUEUE = "queue.retryable";
+    private static final String PARKING_LOT = RetryTopology.parkingLot(QUEUE);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final CorrelatedConfirmPublisher publisher = mock(CorrelatedConfirmPublisher.class);
+    private final Channel channel = mock(Channel.class);
+    private final RetryTopology retryTopology = new RetryTopology(List.of(Duration.ofSeconds(1)));
+    private final ParkingLot parkingLot = new ParkingLot(rabbitTemplate, retryTopology, publisher, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        retryTopology.declare(QUEUE);
+        when(rabbitTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<ChannelCallback<?>>getArgument(0).doInRabbit(channel));
+    }
+
+    @Test
+    void replay_shouldRepublishUpToLimitToTheQueueAndAckAfterConfirm() throws Exception {
+        when(channel.basicGet(PARKING_LOT, false)).thenReturn(parked(1), parked(2), parked(3));
+
+        assertEquals(2, parkingLot.replay(QUEUE, 2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboundMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publishAll(captor.capture());
+        OutboundMessage replayed = captor.getValue().get(0);
+        assertEquals(RetryTopology.RETRY_EXCHANGE, replayed.exchange());
+        assertEquals("user.registered", replayed.routingKey());
+        assertEquals(QUEUE, replayed.message().getMessageProperties().getHeader(RetryTopology.QUEUE_HEADER));
+        // schone teller: het bericht doorloopt alle trappen opnieuw
+        assertNull(replayed.message().getMessageProperties().getHeader(RetryTopology.ATTEMPT_HEADER));
+        assertNull(replayed.message().getMessageProperties().getHeader(RetryTopology.STAGE_HEADER));
+        assertEquals("com.horizon.Type", replayed.message().getMessageProperties().getHeader("__TypeId__"));
+        verify(channel).basicAck(2, true);
+        assertEquals(2, meterRegistry.counter(ParkingLot.REPLAYED_COUNTER, "queue", QUEUE).count());
+    }
+
+    @Test
+    void replay_shouldLeaveMessagesParkedWhenRepublishFails() throws Exception {
+        when(channel.basicGet(PARKING_LOT, false)).thenReturn(parked(1), (GetResponse) null);
+        doThrow(new AmqpTimeoutException("no confirm")).when(publisher).publishAll(any());
+
+        assertThrows(AmqpTimeoutException.class, () -> parkingLot.replay(QUEUE, 10));
+
+        verify(channel).basicNack(1, true, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void replay_shouldRejectQueuesWithoutParkingLot() {
+        assertThrows(IllegalArgumentException.class, () -> parkingLot.replay("queue.plain", 10));
+    }
+
+    @Test
+    void parkedCounts_shouldReportEveryRetryableQueue() throws Exception {
+        when(channel.messageCount(PARKING_LOT)).thenReturn(7L);
+
+        assertEquals(Map.of(QUEUE, 7L), parkingLot.parkedCounts());
+    }
+
+    private static GetResponse parked(long deliveryTag) {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType("application/json")
+                .headers(Map.of("__TypeId__", "com.horizon.Type",
+                        RetryTopology.QUEUE_HEADER, QUEUE,
+                        RetryTopology.STAGE_HEADER, RetryTopology.PARKED_STAGE,
+                        RetryTopology.ATTEMPT_HEADER, 2))
+                .build();
+        Envelope envelope = new Envelope(deliveryTag, false, RetryTopology.DELAY_EXCHANGE, "user.registered");
+        return new GetResponse(envelope, properties, "{}".getBytes(), 0);
+    }
+}
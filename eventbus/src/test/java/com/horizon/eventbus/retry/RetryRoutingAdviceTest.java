@@ -0,0 +1,165 @@
+package com.horizon.eventbus.retry;
+
+import com.horizon.eventbus.publisher.CorrelatedConfirmPublisher;
+import com.horizon.eventbus.publisher.OutboundMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetryRoutingAdviceTest {
+
+    private static final String QUEUE = "queue.retryable";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetryTopology retryTopology = new RetryTopology(List.of(Duration.ofSeconds(1), Duration.ofSeconds(10)));
+    private final CorrelatedConfirmPublisher publisher = mock(CorrelatedConfirmPublisher.class);
+    private final RetryRoutingAdvice advice = new RetryRoutingAdvice(retryTopology, publisher, meterRegistry);
+
+    RetryRoutingAdviceTest() {
+        retryTopology.declare(QUEUE);
+    }
+
+    @Test
+    void declare_shouldCreateDelayQueuesThatDeadLetterBackAndAParkingLot() {
+        List<Queue> queues = retryTopology.declare("queue.other").getDeclarablesByType(Queue.class);
+
+        assertEquals(List.of("queue.other.retry.1000ms", "queue.other.retry.10000ms", "queue.other.parking-lot"),
+                queues.stream().map(Queue::getName).toList());
+        Queue firstDelay = queues.get(0);
+        assertEquals(1000, firstDelay.getArguments().get("x-message-ttl"));
+        assertEquals(RetryTopology.RETRY_EXCHANGE, firstDelay.getArguments().get("x-dead-letter-exchange"));
+        // geen x-dead-letter-routing-key: de originele routing key blijft behouden
+        assertFalse(firstDelay.getArguments().containsKey("x-dead-letter-routing-key"));
+        assertTrue(retryTopology.declare("queue.other").getDeclarablesByType(Binding.class).stream()
+                .anyMatch(binding -> binding.getDestination().equals("queue.other")
+                        && binding.getExchange().equals(RetryTopology.RETRY_EXCHANGE)));
+    }
+
+    @Test
+    void invoke_shouldRouteFailedMessageToFirstDelayStageAndSwallowFailure() throws Throwable {
+        Message message = message(QUEUE, null);
+        MethodInvocation invocation = invocation(message);
+        when(invocation.proceed()).thenThrow(failure(new IllegalStateException("database down")));
+
+        assertNull(advice.invoke(invocation));
+
+        OutboundMessage routed = published().get(0);
+        assertEquals(RetryTopology.DELAY_EXCHANGE, routed.exchange());
+        assertEquals("event.created", routed.routingKey());
+        MessageProperties properties = routed.message().getMessageProperties();
+        assertEquals(QUEUE, properties.getHeader(RetryTopology.QUEUE_HEADER));
+        assertEquals("1000ms", properties.getHeader(RetryTopology.STAGE_HEADER));
+        assertEquals(1, (int) properties.getHeader(RetryTopology.ATTEMPT_HEADER));
+        assertTrue(properties.<String>getHeader(RetryTopology.ERROR_HEADER).contains("database down"));
+        assertEquals("com.horizon.Type", properties.getHeader("__TypeId__"));
+        assertEquals(message.getMessageProperties().getTimestamp(), properties.getTimestamp());
+        assertEquals(MessageDeliveryMode.PERSISTENT, properties.getDeliveryMode());
+        assertNull(properties.getHeader("x-death"));
+        assertEquals(1, meterRegistry.counter(RetryRoutingAdvice.RETRIES_COUNTER, "queue", QUEUE, "stage", "1000ms").count());
+    }
+
+    @Test
+    void invoke_shouldParkEachMessageOfABatchThatUsedUpItsStages() throws Throwable {
+        MethodInvocation invocation = invocation(List.of(message(QUEUE, 1), message(QUEUE, 2)));
+        when(invocation.proceed()).thenThrow(failure(new IllegalStateException("still failing")));
+
+        advice.invoke(invocation);
+
+        List<OutboundMessage> routed = published();
+        assertEquals("10000ms", routed.get(0).message().getMessageProperties().getHeader(RetryTopology.STAGE_HEADER));
+        assertEquals(RetryTopology.PARKED_STAGE, routed.get(1).message().getMessageProperties().getHeader(RetryTopology.STAGE_HEADER));
+        assertEquals(3, (int) routed.get(1).message().getMessageProperties().getHeader(RetryTopology.ATTEMPT_HEADER));
+        assertEquals(1, meterRegistry.counter(RetryRoutingAdvice.PARKED_COUNTER, "queue", QUEUE, "reason", "exhausted").count());
+    }
+
+    @Test
+    void invoke_shouldParkUnreadableMessageWithoutRetrying() throws Throwable {
+        MethodInvocation invocation = invocation(message(QUEUE, null));
+        when(invocation.proceed()).thenThrow(failure(new MessageConversionException("not json")));
+
+        advice.invoke(invocation);
+
+        assertEquals(RetryTopology.PARKED_STAGE, published().get(0).message().getMessageProperties()
+                .getHeader(RetryTopology.STAGE_HEADER));
+        assertEquals(1, meterRegistry.counter(RetryRoutingAdvice.PARKED_COUNTER, "queue", QUEUE, "reason", "unreadable").count());
+    }
+
+    @Test
+    void invoke_shouldLeaveQueuesWithoutRetryTopologyAlone() throws Throwable {
+        MethodInvocation invocation = invocation(message("queue.plain", null));
+        ListenerExecutionFailedException failure = failure(new IllegalStateException("boom"));
+        when(invocation.proceed()).thenThrow(failure);
+
+        assertSame(failure, assertThrows(ListenerExecutionFailedException.class, () -> advice.invoke(invocation)));
+        verify(publisher, never()).publishAll(anyList());
+    }
+
+    @Test
+    void invoke_shouldRethrowWhenRoutingIsNotConfirmed() throws Throwable {
+        MethodInvocation invocation = invocation(message(QUEUE, null));
+        ListenerExecutionFailedException failure = failure(new IllegalStateException("boom"));
+        when(invocation.proceed()).thenThrow(failure);
+        doThrow(new AmqpTimeoutException("no confirm")).when(publisher).publishAll(any());
+
+        // de container valt terug op requeue, het bericht gaat niet verloren
+        assertSame(failure, assertThrows(ListenerExecutionFailedException.class, () -> advice.invoke(invocation)));
+        assertEquals(1, failure.getSuppressed().length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboundMessage> published() {
+        ArgumentCaptor<List<OutboundMessage>> captor = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publishAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ListenerExecutionFailedException failure(Exception cause) {
+        return new ListenerExecutionFailedException("Listener threw exception", cause);
+    }
+
+    private static MethodInvocation invocation(Object data) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getArguments()).thenReturn(new Object[] {null, data});
+        return invocation;
+    }
+
+    private static Message message(String queue, Integer attempts) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue(queue);
+        properties.setReceivedRoutingKey("event.created");
+        properties.setTimestamp(new Date(1_000));
+        properties.setHeader("__TypeId__", "com.horizon.Type");
+        properties.setHeader("x-death", List.of());
+        if (attempts != null) {
+            properties.setHeader(RetryTopology.ATTEMPT_HEADER, attempts);
+        }
+        return new Message("{}".getBytes(), properties);
+    }
+}
@@ -0,0 +1,72 @@
+package com.horizon.eventservice.geo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Vergelijkt de grid index met een lineaire scan over alle events voor een nearby query
+ * (eerste pagina van 20, op afstand gesorteerd). De events liggen verspreid over Nederland.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+public class EventGeoIndexBenchmark {
+
+    private static final double QUERY_LAT = 51.4416; // Eindhoven
+    private static final double QUERY_LON = 5.4697;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    public int eventCount;
+
+    @Param({"5", "25"})
+    public double radiusKm;
+
+    private EventGeoIndex index;
+    private UUID[] ids;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new EventGeoIndex(0.1);
+        ids = new UUID[eventCount];
+        latitudes = new double[eventCount];
+        longitudes = new double[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+            latitudes[i] = 50.75 + random.nextDouble() * 2.8;
+            longitudes[i] = 3.35 + random.nextDouble() * 3.9;
+            index.put(ids[i], latitudes[i], longitudes[i]);
+        }
+    }
+
+    @Benchmark
+    public EventGeoIndex.NearbyResult gridIndex() {
+        return index.nearby(QUERY_LAT, QUERY_LON, radiusKm, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<EventGeoIndex.Hit> linearScan() {
+        List<EventGeoIndex.Hit> hits = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            double distance = EventGeoIndex.distanceKm(QUERY_LAT, QUERY_LON, latitudes[i], longitudes[i]);
+            if (distance <= radiusKm) {
+                hits.add(new EventGeoIndex.Hit(ids[i], distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(EventGeoIndex.Hit::distanceKm));
+        return hits.subList(0, Math.min(PAGE_SIZE, hits.size()));
+    }
+}
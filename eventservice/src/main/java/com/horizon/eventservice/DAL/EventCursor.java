@@ -0,0 +1,33 @@
+package com.horizon.eventservice.DAL;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Positie in de event feed: de (startDate, id) van het laatst geziene event; startDate is null zolang de
+ * feed nog in de events zonder datum zit. Wordt naar de client gestuurd als opaque base64url string.
+ */
+public record EventCursor(LocalDateTime startDate, UUID id) {
+
+    public String encode() {
+        String raw = (startDate == null ? "" : startDate.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException als de cursor niet door {@link #encode()} gemaakt is
+     */
+    public static EventCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String startDate = raw.substring(0, separator);
+            return new EventCursor(startDate.isEmpty() ? null : LocalDateTime.parse(startDate),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid event cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,11 +1,53 @@
 package com.horizon.eventservice.DAL;
 
 import com.horizon.eventservice.model.Event;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface EventDAL extends JpaRepository<Event, UUID> {
-}
\ No newline at end of file
+public interface EventDAL extends JpaRepository<Event, UUID>, JpaSpecificationExecutor<Event> {
+
+    // detailpagina: event + tags in één join, attendees/waitlist blijven lazy
+    @EntityGraph(attributePaths = "tags")
+    Optional<Event> findWithTagsById(UUID id);
+
+    // keyset op id voor het in batches herbouwen van het zoekindex
+    List<Event> findAllByOrderByIdAsc(Limit limit);
+    List<Event> findByIdGreaterThanOrderByIdAsc(UUID afterId, Limit limit);
+
+    // events die in het nieuwe stuk van het upcoming wiel beginnen
+    List<Event> findByStatusAndStartDateGreaterThanEqualAndStartDateLessThan(
+            Event.EventStatus status, LocalDateTime from, LocalDateTime until);
+
+    // SKIP LOCKED (timeout -2): draaien meerdere replicas de job tegelijk, dan pakt elk een eigen batch
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<Event> findByStatusAndEndDateLessThanEqualOrderByEndDateAsc(
+            Event.EventStatus status, LocalDateTime endedBefore, Limit limit);
+
+    @Modifying
+    @Query("update Event e set e.status = :status, e.updatedAt = :updatedAt where e.id in :ids")
+    int updateStatus(@Param("ids") Collection<UUID> ids,
+                     @Param("status") Event.EventStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // lijstweergaven: tags voor een hele pagina events in één query i.p.v. één per event
+    @Query("select e.id as eventId, t as tag from Event e join e.tags t where e.id in :ids")
+    List<EventTagView> findTagsByEventIds(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,61 @@
+package com.horizon.eventservice.DAL;
+
+import com.horizon.eventservice.DTO.EventFilterDTO;
+import com.horizon.eventservice.model.Event;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria voor de event feed. De predicates sluiten aan op de composite indexes op {@link Event},
+ * zodat een pagina een index range scan is op (filterkolom, startDate, id). Events zonder startDate
+ * staan vooraan, zoals MySQL (en de index) NULL oplopend sorteert; een datumfilter sluit ze uit.
+ */
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> feed(EventFilterDTO filter, EventCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), filter.getCategory()));
+            }
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getPrivate() != null) {
+                predicates.add(cb.equal(root.get("isPrivate"), filter.getPrivate()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("startDate"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.<LocalDateTime>get("startDate"), filter.getTo()));
+            }
+
+            if (after != null && after.startDate() == null) {
+                // nog in de events zonder datum: de rest daarvan op id, daarna alle events met een datum
+                predicates.add(cb.or(
+                        cb.and(
+                                cb.isNull(root.get("startDate")),
+                                cb.greaterThan(root.<UUID>get("id"), after.id())),
+                        cb.isNotNull(root.get("startDate"))));
+            } else if (after != null) {
+                // (startDate, id) > (:startDate, :id); NULL valt hier vanzelf buiten
+                predicates.add(cb.or(
+                        cb.greaterThan(root.<LocalDateTime>get("startDate"), after.startDate()),
+                        cb.and(
+                                cb.equal(root.get("startDate"), after.startDate()),
+                                cb.greaterThan(root.<UUID>get("id"), after.id()))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.horizon.eventservice.DAL;
+
+import java.util.UUID;
+
+// Projectie van één (event, tag) rij uit de event_tags collectie
+public interface EventTagView {
+    UUID getEventId();
+    String getTag();
+}
@@ -8,6 +8,8 @@ public class EventCreateDTO {
     private String title;
     private String description;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private String category;
@@ -15,6 +17,7 @@ public class EventCreateDTO {
     private boolean isPrivate;
     private UUID organizerId;
     private String imageUrl;
+    private Integer maxAttendees;
 
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
@@ -25,6 +28,12 @@ public class EventCreateDTO {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public LocalDateTime getStartDate() { return startDate; }
     public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
 
@@ -46,4 +55,7 @@ public class EventCreateDTO {
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
-}
\ No newline at end of file
+
+    public Integer getMaxAttendees() { return maxAttendees; }
+    public void setMaxAttendees(Integer maxAttendees) { this.maxAttendees = maxAttendees; }
+}
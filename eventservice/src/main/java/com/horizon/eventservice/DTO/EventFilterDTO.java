@@ -0,0 +1,28 @@
+package com.horizon.eventservice.DTO;
+
+import com.horizon.eventservice.model.Event;
+
+import java.time.LocalDateTime;
+
+public class EventFilterDTO {
+    private String category;
+    private Event.EventStatus status;
+    private LocalDateTime from;   // startDate >= from
+    private LocalDateTime to;     // startDate < to
+    private Boolean isPrivate;
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Event.EventStatus getStatus() { return status; }
+    public void setStatus(Event.EventStatus status) { this.status = status; }
+
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public Boolean getPrivate() { return isPrivate; }
+    public void setPrivate(Boolean isPrivate) { this.isPrivate = isPrivate; }
+}
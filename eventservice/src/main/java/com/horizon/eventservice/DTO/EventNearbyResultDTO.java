@@ -0,0 +1,29 @@
+package com.horizon.eventservice.DTO;
+
+import java.util.List;
+
+public class EventNearbyResultDTO {
+    private List<NearbyEventDTO> items; // dichtstbijzijnde eerst
+    private long totalHits;
+    private int page;
+    private int size;
+
+    public EventNearbyResultDTO(List<NearbyEventDTO> items, long totalHits, int page, int size) {
+        this.items = items;
+        this.totalHits = totalHits;
+        this.page = page;
+        this.size = size;
+    }
+
+    public List<NearbyEventDTO> getItems() { return items; }
+    public void setItems(List<NearbyEventDTO> items) { this.items = items; }
+
+    public long getTotalHits() { return totalHits; }
+    public void setTotalHits(long totalHits) { this.totalHits = totalHits; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,19 @@
+package com.horizon.eventservice.DTO;
+
+import java.util.List;
+
+public class EventPageDTO {
+    private List<EventResponseDTO> items;
+    private String nextCursor; // null als dit de laatste pagina is
+
+    public EventPageDTO(List<EventResponseDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<EventResponseDTO> getItems() { return items; }
+    public void setItems(List<EventResponseDTO> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -9,12 +9,15 @@ public class EventResponseDTO {
     private String title;
     private String description;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private String category;
     private List<String> tags;
     private boolean isPrivate;
     private UUID organizerId;
+    private Integer maxAttendees;
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -28,6 +31,12 @@ public class EventResponseDTO {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public LocalDateTime getStartDate() { return startDate; }
     public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
 
@@ -45,4 +54,7 @@ public class EventResponseDTO {
 
     public UUID getOrganizerId() { return organizerId; }
     public void setOrganizerId(UUID organizerId) { this.organizerId = organizerId; }
+
+    public Integer getMaxAttendees() { return maxAttendees; }
+    public void setMaxAttendees(Integer maxAttendees) { this.maxAttendees = maxAttendees; }
 }
@@ -0,0 +1,35 @@
+package com.horizon.eventservice.DTO;
+
+import java.util.List;
+import java.util.Map;
+
+public class EventSearchResultDTO {
+    private List<EventResponseDTO> items; // op relevantie gesorteerd
+    private long totalHits;
+    private int page;
+    private int size;
+    private Map<String, Integer> tagFacets; // tag -> aantal matches, over alle pagina's
+
+    public EventSearchResultDTO(List<EventResponseDTO> items, long totalHits, int page, int size, Map<String, Integer> tagFacets) {
+        this.items = items;
+        this.totalHits = totalHits;
+        this.page = page;
+        this.size = size;
+        this.tagFacets = tagFacets;
+    }
+
+    public List<EventResponseDTO> getItems() { return items; }
+    public void setItems(List<EventResponseDTO> items) { this.items = items; }
+
+    public long getTotalHits() { return totalHits; }
+    public void setTotalHits(long totalHits) { this.totalHits = totalHits; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public Map<String, Integer> getTagFacets() { return tagFacets; }
+    public void setTagFacets(Map<String, Integer> tagFacets) { this.tagFacets = tagFacets; }
+}
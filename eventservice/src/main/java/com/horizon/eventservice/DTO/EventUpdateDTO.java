@@ -9,11 +9,14 @@ public class EventUpdateDTO {
     private String title;
     private String description;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private String category;
     private List<String> tags;
     private Boolean isPrivate;
+    private Integer maxAttendees;
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -27,6 +30,12 @@ public class EventUpdateDTO {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public LocalDateTime getStartDate() { return startDate; }
     public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
 
@@ -41,4 +50,7 @@ public class EventUpdateDTO {
 
     public Boolean getPrivate() { return isPrivate; }
     public void setPrivate(Boolean isPrivate) { this.isPrivate = isPrivate; }
-}
\ No newline at end of file
+
+    public Integer getMaxAttendees() { return maxAttendees; }
+    public void setMaxAttendees(Integer maxAttendees) { this.maxAttendees = maxAttendees; }
+}
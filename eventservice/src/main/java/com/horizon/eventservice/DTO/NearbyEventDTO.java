@@ -0,0 +1,17 @@
+package com.horizon.eventservice.DTO;
+
+public class NearbyEventDTO {
+    private EventResponseDTO event;
+    private double distanceKm;
+
+    public NearbyEventDTO(EventResponseDTO event, double distanceKm) {
+        this.event = event;
+        this.distanceKm = distanceKm;
+    }
+
+    public EventResponseDTO getEvent() { return event; }
+    public void setEvent(EventResponseDTO event) { this.event = event; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+}
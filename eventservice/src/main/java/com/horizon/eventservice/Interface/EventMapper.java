@@ -0,0 +1,31 @@
+package com.horizon.eventservice.Interface;
+
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.model.Event;
+
+import java.util.List;
+
+// Tags worden apart meegegeven, zodat de aanroeper bepaalt hoe ze geladen zijn (batch of entity graph)
+public final class EventMapper {
+
+    private EventMapper() {
+    }
+
+    public static EventResponseDTO toResponseDTO(Event event, List<String> tags) {
+        EventResponseDTO dto = new EventResponseDTO();
+        dto.setId(event.getId());
+        dto.setTitle(event.getTitle());
+        dto.setDescription(event.getDescription());
+        dto.setLocation(event.getLocation());
+        dto.setLatitude(event.getLatitude());
+        dto.setLongitude(event.getLongitude());
+        dto.setStartDate(event.getStartDate());
+        dto.setEndDate(event.getEndDate());
+        dto.setCategory(event.getCategory());
+        dto.setTags(tags);
+        dto.setPrivate(event.isPrivate());
+        dto.setOrganizerId(event.getOrganizerId());
+        dto.setMaxAttendees(event.getMaxAttendees());
+        return dto;
+    }
+}
@@ -1,7 +1,11 @@
 package com.horizon.eventservice.Interface;
 
 import com.horizon.eventservice.DTO.EventCreateDTO;
+import com.horizon.eventservice.DTO.EventFilterDTO;
+import com.horizon.eventservice.DTO.EventNearbyResultDTO;
+import com.horizon.eventservice.DTO.EventPageDTO;
 import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.DTO.EventSearchResultDTO;
 import com.horizon.eventservice.DTO.EventUpdateDTO;
 import com.horizon.eventservice.model.Event;
 
@@ -11,7 +15,10 @@ import java.util.UUID;
 
 public interface EventService {
     Optional<EventResponseDTO> getEventById(UUID id);
-    List<EventResponseDTO> getAllEvents();
+    EventPageDTO getEvents(EventFilterDTO filter, String afterCursor, int size);
+    EventSearchResultDTO searchEvents(String query, List<String> tags, int page, int size);
+    List<EventResponseDTO> getUpcomingEvents(int hours, int limit);
+    EventNearbyResultDTO getNearbyEvents(double latitude, double longitude, double radiusKm, int page, int size);
     Event createEvent(EventCreateDTO createDTO);
     Optional<Event> updateEvent(EventUpdateDTO updateDTO);
     void deleteEventById(UUID id);
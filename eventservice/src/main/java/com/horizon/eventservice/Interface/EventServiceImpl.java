@@ -1,18 +1,40 @@
 package com.horizon.eventservice.Interface;
 
+import com.horizon.eventservice.DAL.EventCursor;
+import com.horizon.eventservice.DAL.EventSpecifications;
+import com.horizon.eventservice.DAL.EventTagView;
 import com.horizon.eventservice.DTO.EventCreateDTO;
+import com.horizon.eventservice.DTO.EventFilterDTO;
+import com.horizon.eventservice.DTO.EventNearbyResultDTO;
+import com.horizon.eventservice.DTO.EventPageDTO;
 import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.DTO.EventSearchResultDTO;
 import com.horizon.eventservice.DTO.EventUpdateDTO;
+import com.horizon.eventservice.DTO.NearbyEventDTO;
 import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.cache.EventCache;
 import com.horizon.eventservice.eventbus.EventPublisher;
+import com.horizon.eventservice.geo.EventGeoIndex;
 import com.horizon.eventservice.model.Event;
+import com.horizon.eventservice.search.EventIndexUpdater;
+import com.horizon.eventservice.search.EventSearchIndex;
+import com.horizon.eventservice.upcoming.UpcomingEventWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -22,24 +44,143 @@ public class EventServiceImpl implements EventService {
 
     private final EventDAL eventDAL;
     private final EventPublisher eventPublisher;
+    private final EventCache eventCache;
+    private final EventSearchIndex searchIndex;
+    private final EventGeoIndex geoIndex;
+    private final EventIndexUpdater indexUpdater;
+    private final UpcomingEventWheel upcomingWheel;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger logger = LoggerFactory.getLogger(EventServiceImpl.class);
 
+    static final int MAX_PAGE_SIZE = 200;
+    // zoekresultaten zijn op relevantie, diep doorbladeren heeft geen zin en kost steeds meer
+    static final int MAX_SEARCH_WINDOW = 1000;
+    static final int MAX_TAG_FACETS = 20;
+    static final double MAX_NEARBY_RADIUS_KM = 500;
+    // houdt de IN-lijst binnen de parameterlimieten van de driver bij het laden van de tags
+    static final int TAG_LOOKUP_CHUNK_SIZE = 1000;
+    // native NULL volgorde (events zonder startDate eerst), zoals de index; nullsLast zou een filesort afdwingen
+    private static final Sort FEED_ORDER = Sort.by(Sort.Order.asc("startDate"), Sort.Order.asc("id"));
+
     @Autowired
-    public EventServiceImpl(EventDAL eventDAL, EventPublisher eventPublisher) {
+    public EventServiceImpl(EventDAL eventDAL, EventPublisher eventPublisher, EventCache eventCache,
+                            EventSearchIndex searchIndex, EventGeoIndex geoIndex, EventIndexUpdater indexUpdater,
+                            UpcomingEventWheel upcomingWheel, TransactionTemplate transactionTemplate) {
         this.eventDAL = eventDAL;
         this.eventPublisher = eventPublisher;
+        this.eventCache = eventCache;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.indexUpdater = indexUpdater;
+        this.upcomingWheel = upcomingWheel;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
     public Optional<EventResponseDTO> getEventById(UUID id) {
-        return eventDAL.findById(id).map(this::mapToDTO);
+        return eventCache.get(id, key -> eventDAL.findWithTagsById(key)
+                .map(event -> EventMapper.toResponseDTO(event, event.getTags()))
+                .orElse(null));
     }
 
     @Override
-    public List<EventResponseDTO> getAllEvents() {
-        return eventDAL.findAll().stream()
-                .map(this::mapToDTO)
+    public EventPageDTO getEvents(EventFilterDTO filter, String afterCursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        EventCursor after;
+        try {
+            after = afterCursor == null || afterCursor.isBlank() ? null : EventCursor.decode(afterCursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        // één rij extra om te weten of er nog een pagina na deze komt; geen COUNT query
+        List<Event> events = eventDAL.findBy(EventSpecifications.feed(filter, after),
+                query -> query.sortBy(FEED_ORDER).limit(pageSize + 1).all());
+        boolean hasMore = events.size() > pageSize;
+        List<Event> page = hasMore ? events.subList(0, pageSize) : events;
+
+        List<EventResponseDTO> items = mapToDTOs(page);
+        String nextCursor = null;
+        if (hasMore) {
+            Event last = page.get(page.size() - 1);
+            nextCursor = new EventCursor(last.getStartDate(), last.getId()).encode();
+        }
+        return new EventPageDTO(items, nextCursor);
+    }
+
+    @Override
+    public EventSearchResultDTO searchEvents(String query, List<String> tags, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        int offset = windowOffset(pageNumber, pageSize, "Search");
+
+        EventSearchIndex.SearchResult result;
+        try {
+            result = searchIndex.search(query, tags, offset, pageSize, MAX_TAG_FACETS);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        // volgorde van het index aanhouden; events die net verwijderd zijn vallen weg
+        Map<UUID, Event> eventsById = new HashMap<>();
+        for (Event event : eventDAL.findAllById(result.ids())) {
+            eventsById.put(event.getId(), event);
+        }
+        List<Event> ranked = result.ids().stream()
+                .map(eventsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+
+        return new EventSearchResultDTO(mapToDTOs(ranked), result.totalHits(), pageNumber, pageSize, result.tagCounts());
+    }
+
+    // page eerst begrenzen: page * size kan anders overlopen naar een negatieve offset die de check omzeilt
+    private static int windowOffset(int pageNumber, int pageSize, String results) {
+        if (pageNumber > MAX_SEARCH_WINDOW / pageSize || (long) pageNumber * pageSize + pageSize > MAX_SEARCH_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    results + " results are limited to the first " + MAX_SEARCH_WINDOW + " hits");
+        }
+        return pageNumber * pageSize;
+    }
+
+    @Override
+    public List<EventResponseDTO> getUpcomingEvents(int hours, int limit) {
+        long maxHours = upcomingWheel.getHorizon().toHours();
+        if (hours < 1 || hours > maxHours) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "hours must be between 1 and " + maxHours);
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // alleen uit het time-wheel, geen database query
+        return upcomingWheel.upcoming(LocalDateTime.now(), Duration.ofHours(hours), pageSize);
+    }
+
+    @Override
+    public EventNearbyResultDTO getNearbyEvents(double latitude, double longitude, double radiusKm, int page, int size) {
+        validateCoordinates(latitude, longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_NEARBY_RADIUS_KM)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "radiusKm must be between 0 and " + MAX_NEARBY_RADIUS_KM);
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        int offset = windowOffset(pageNumber, pageSize, "Nearby");
+
+        EventGeoIndex.NearbyResult result = geoIndex.nearby(latitude, longitude, radiusKm, offset, pageSize);
+
+        List<UUID> ids = result.hits().stream().map(EventGeoIndex.Hit::id).collect(Collectors.toList());
+        Map<UUID, EventResponseDTO> dtosById = new HashMap<>();
+        for (EventResponseDTO dto : mapToDTOs(eventDAL.findAllById(ids))) {
+            dtosById.put(dto.getId(), dto);
+        }
+        // volgorde (afstand) van het index aanhouden; events die net verwijderd zijn vallen weg
+        List<NearbyEventDTO> items = new ArrayList<>();
+        for (EventGeoIndex.Hit hit : result.hits()) {
+            EventResponseDTO dto = dtosById.get(hit.id());
+            if (dto != null) {
+                items.add(new NearbyEventDTO(dto, hit.distanceKm()));
+            }
+        }
+        return new EventNearbyResultDTO(items, result.totalHits(), pageNumber, pageSize);
     }
 
     @Override
@@ -47,11 +188,16 @@ public class EventServiceImpl implements EventService {
         logger.info("[EventServiceImpl] Received EventCreateDTO: {}", createDTO);
         logger.info("[EventServiceImpl] OrganizerId from DTO: {}", createDTO.getOrganizerId());
 
+        validateOptionalCoordinates(createDTO.getLatitude(), createDTO.getLongitude());
+        validateMaxAttendees(createDTO.getMaxAttendees());
+
         Event event = new Event();
         event.setId(UUID.randomUUID());
         event.setTitle(createDTO.getTitle());
         event.setDescription(createDTO.getDescription());
         event.setLocation(createDTO.getLocation());
+        event.setLatitude(createDTO.getLatitude());
+        event.setLongitude(createDTO.getLongitude());
         event.setStartDate(createDTO.getStartDate());
         event.setEndDate(createDTO.getEndDate());
         event.setCategory(createDTO.getCategory());
@@ -59,27 +205,56 @@ public class EventServiceImpl implements EventService {
         event.setPrivate(createDTO.isPrivate());
         event.setOrganizerId(createDTO.getOrganizerId());
         event.setImageUrl(createDTO.getImageUrl());
+        event.setMaxAttendees(createDTO.getMaxAttendees());
         event.setStatus(Event.EventStatus.UPCOMING);
         event.setCreatedAt(LocalDateTime.now());
 
         logger.info("[EventServiceImpl] Event object before save: {}", event);
         logger.info("[EventServiceImpl] OrganizerId in Event object before save: {}", event.getOrganizerId());
 
-        Event saved = eventDAL.save(event);
+        // event en berichten in één transactie; de outbox relay publiceert ze na de commit
+        Event saved = transactionTemplate.execute(status -> {
+            Event created = eventDAL.save(event);
+            eventPublisher.publishEventCreated(created);
+            if (created.getMaxAttendees() != null) {
+                eventPublisher.publishEventCapacityChanged(created.getId(), created.getMaxAttendees());
+            }
+            eventPublisher.publishEventCacheInvalidation(created.getId());
+            return created;
+        });
         logger.info("[EventServiceImpl] Saved Event object: {}", saved);
         logger.info("[EventServiceImpl] OrganizerId in Saved Event object: {}", saved.getOrganizerId());
 
-        // publiceer het nieuwe event naar de eventbus
-        eventPublisher.publishEventCreated(saved);
+        indexUpdater.indexEvent(saved, saved.getTags());
+        eventCache.invalidate(saved.getId());
 
         return saved;
     }
 
     @Override
     public Optional<Event> updateEvent(EventUpdateDTO updateDTO) {
+        Event saved = transactionTemplate.execute(status -> applyUpdate(updateDTO));
+        if (saved == null) return Optional.empty();
+
+        List<String> tags = updateDTO.getTags() != null
+                ? updateDTO.getTags()
+                : eventDAL.findTagsByEventIds(List.of(saved.getId())).stream().map(EventTagView::getTag).toList();
+        indexUpdater.indexEvent(saved, tags);
+        // pas na de commit, anders kan een gelijktijdige read de oude versie opnieuw in de cache zetten
+        eventCache.invalidate(saved.getId());
+        return Optional.of(saved);
+    }
+
+    // null als het event niet bestaat; de berichten gaan via de outbox mee in dezelfde transactie
+    private Event applyUpdate(EventUpdateDTO updateDTO) {
         Optional<Event> optional = eventDAL.findById(updateDTO.getId());
-        if (optional.isEmpty()) return Optional.empty();
+        if (optional.isEmpty()) return null;
         Event event = optional.get();
+        if (updateDTO.getLatitude() != null || updateDTO.getLongitude() != null) {
+            validateOptionalCoordinates(updateDTO.getLatitude(), updateDTO.getLongitude());
+            event.setLatitude(updateDTO.getLatitude());
+            event.setLongitude(updateDTO.getLongitude());
+        }
 
         if (updateDTO.getTitle() != null)       event.setTitle(updateDTO.getTitle());
         if (updateDTO.getDescription() != null) event.setDescription(updateDTO.getDescription());
@@ -89,28 +264,69 @@ public class EventServiceImpl implements EventService {
         if (updateDTO.getCategory() != null)    event.setCategory(updateDTO.getCategory());
         if (updateDTO.getTags() != null)        event.setTags(updateDTO.getTags());
         if (updateDTO.getPrivate() != null)     event.setPrivate(updateDTO.getPrivate());
+        boolean capacityChanged = updateDTO.getMaxAttendees() != null
+                && !updateDTO.getMaxAttendees().equals(event.getMaxAttendees());
+        if (capacityChanged) {
+            validateMaxAttendees(updateDTO.getMaxAttendees());
+            event.setMaxAttendees(updateDTO.getMaxAttendees());
+        }
 
         event.setUpdatedAt(LocalDateTime.now());
-        return Optional.of(eventDAL.save(event));
+        Event saved = eventDAL.save(event);
+        eventPublisher.publishEventCacheInvalidation(saved.getId());
+        if (capacityChanged) {
+            // rsvpservice handhaaft de capaciteit en promoveert de wachtlijst als er plekken bij komen
+            eventPublisher.publishEventCapacityChanged(saved.getId(), saved.getMaxAttendees());
+        }
+        return saved;
     }
 
     @Override
     public void deleteEventById(UUID id) {
-        eventDAL.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            eventDAL.deleteById(id);
+            eventPublisher.publishEventCacheInvalidation(id);
+        });
+        indexUpdater.removeEvent(id);
+        eventCache.invalidate(id);
     }
 
-    private EventResponseDTO mapToDTO(Event event) {
-        EventResponseDTO dto = new EventResponseDTO();
-        dto.setId(event.getId());
-        dto.setTitle(event.getTitle());
-        dto.setDescription(event.getDescription());
-        dto.setLocation(event.getLocation());
-        dto.setStartDate(event.getStartDate());
-        dto.setEndDate(event.getEndDate());
-        dto.setCategory(event.getCategory());
-        dto.setTags(event.getTags());
-        dto.setPrivate(event.isPrivate());
-        dto.setOrganizerId(event.getOrganizerId());
-        return dto;
+    private static void validateOptionalCoordinates(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) return;
+        if (latitude == null || longitude == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "latitude and longitude must be given together");
+        }
+        validateCoordinates(latitude, longitude);
+    }
+
+    private static void validateMaxAttendees(Integer maxAttendees) {
+        if (maxAttendees != null && maxAttendees < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxAttendees must be at least 1");
+        }
+    }
+
+    private static void validateCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coordinates out of range");
+        }
+    }
+
+    // Lijstweergaven laden de tags voor alle events in één keer, zodat de mapping
+    // geen lazy collectie per event hoeft aan te raken (N+1)
+    private List<EventResponseDTO> mapToDTOs(List<Event> events) {
+        if (events.isEmpty()) return new ArrayList<>();
+
+        Map<UUID, List<String>> tagsByEvent = new HashMap<>();
+        List<UUID> ids = events.stream().map(Event::getId).collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += TAG_LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + TAG_LOOKUP_CHUNK_SIZE, ids.size()));
+            for (EventTagView row : eventDAL.findTagsByEventIds(chunk)) {
+                tagsByEvent.computeIfAbsent(row.getEventId(), k -> new ArrayList<>()).add(row.getTag());
+            }
+        }
+
+        return events.stream()
+                .map(event -> EventMapper.toResponseDTO(event, tagsByEvent.getOrDefault(event.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,51 @@
+package com.horizon.eventservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Begrensde in-process cache voor event detailweergaven. Caffeine gebruikt W-TinyLFU, dus populaire
+ * events blijven staan terwijl eenmalige reads er snel weer uit gaan. De TTL begrenst hoe lang een
+ * replica oude data kan tonen als een invalidatie-broadcast verloren gaat.
+ */
+@Component
+public class EventCache {
+
+    public static final String CACHE_NAME = "events.by-id";
+
+    private final Cache<UUID, EventResponseDTO> eventsById;
+
+    public EventCache(MeterRegistry meterRegistry,
+                      @Value("${horizon.events.cache.max-size:10000}") long maxSize,
+                      @Value("${horizon.events.cache.ttl:5m}") Duration ttl) {
+        this.eventsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache_gets{result=hit|miss}, cache_load_duration, cache_evictions, cache_size in Prometheus
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsById, CACHE_NAME);
+    }
+
+    /**
+     * Read-through: bij een miss laadt de loader het event, gelijktijdige misses op dezelfde id
+     * wachten op die ene load. Geeft de loader null terug (event bestaat niet) dan wordt er niets gecached.
+     */
+    public Optional<EventResponseDTO> get(UUID id, Function<UUID, EventResponseDTO> loader) {
+        return Optional.ofNullable(eventsById.get(id, loader));
+    }
+
+    public void invalidate(UUID id) {
+        eventsById.invalidate(id);
+    }
+}
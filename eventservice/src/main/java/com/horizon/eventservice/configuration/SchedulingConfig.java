@@ -0,0 +1,12 @@
+package com.horizon.eventservice.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Uit te zetten met horizon.scheduling.enabled=false (tests roepen de jobs zelf aan)
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "horizon.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
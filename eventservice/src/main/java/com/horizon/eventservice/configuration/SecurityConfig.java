@@ -16,6 +16,10 @@ public class SecurityConfig {
         http
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(HttpMethod.GET, "/events").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/events/page").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/events/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/events/nearby").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/events/upcoming").permitAll()
                         .requestMatchers("/actuator/prometheus").permitAll()
                         .requestMatchers("/public/**").permitAll()
                         .anyRequest().authenticated()
@@ -4,9 +4,14 @@ import com.horizon.eventservice.DTO.*;
 import com.horizon.eventservice.model.Event;
 import com.horizon.eventservice.Interface.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +20,8 @@ import java.util.UUID;
 @RequestMapping("/events")
 public class EventsController {
 
+    private static final String DEPRECATION_HEADER = "Deprecation";
+
     @Autowired
     private EventService eventService;
 
@@ -25,10 +32,83 @@ public class EventsController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    /**
+     * @deprecated de oorspronkelijke lijst van alle events. Geeft nu hoogstens één pagina (max. size, hoogstens 200)
+     * terug; als er meer zijn wijst de {@code Link} header met rel="next" naar het vervolg op /events/page, met
+     * dezelfde filters. Gebruik /events/page.
+     */
+    @Deprecated
     @GetMapping
-    public ResponseEntity<List<EventResponseDTO>> getAllEvents() {
-        List<EventResponseDTO> events = eventService.getAllEvents();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<List<EventResponseDTO>> getAllEvents(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Event.EventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean isPrivate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            HttpServletRequest request) {
+        EventPageDTO page = eventService.getEvents(filter(category, status, from, to, isPrivate), after, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(DEPRECATION_HEADER, "true")
+                .header(HttpHeaders.LINK, "</events/page>; rel=\"successor-version\"");
+        if (page.getNextCursor() != null) {
+            UriComponentsBuilder next = UriComponentsBuilder.fromPath("/events/page");
+            request.getParameterMap().forEach((name, values) -> next.queryParam(name, (Object[]) values));
+            next.replaceQueryParam("after", page.getNextCursor());
+            response.header(HttpHeaders.LINK, "<" + next.encode().build().toUriString() + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    // Eén pagina van max. size (hoogstens 200) events, op (startDate, id); nextCursor als ?after= voor de volgende
+    @GetMapping("/page")
+    public ResponseEntity<EventPageDTO> getEventsPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Event.EventStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Boolean isPrivate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(eventService.getEvents(filter(category, status, from, to, isPrivate), after, size));
+    }
+
+    private static EventFilterDTO filter(String category, Event.EventStatus status, LocalDateTime from,
+                                         LocalDateTime to, Boolean isPrivate) {
+        EventFilterDTO filter = new EventFilterDTO();
+        filter.setCategory(category);
+        filter.setStatus(status);
+        filter.setFrom(from);
+        filter.setTo(to);
+        filter.setPrivate(isPrivate);
+        return filter;
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<EventSearchResultDTO> searchEvents(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(eventService.searchEvents(q, tag, page, size));
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<List<EventResponseDTO>> getUpcomingEvents(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(eventService.getUpcomingEvents(hours, limit));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<EventNearbyResultDTO> getNearbyEvents(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(eventService.getNearbyEvents(lat, lon, radiusKm, page, size));
     }
 
     @PostMapping
@@ -0,0 +1,31 @@
+package com.horizon.eventservice.eventbus;
+
+import com.horizon.eventservice.cache.EventCache;
+import com.horizon.eventservice.search.EventIndexUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EventCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCacheInvalidationListener.class);
+
+    private final EventCache eventCache;
+    private final EventIndexUpdater indexUpdater;
+
+    public EventCacheInvalidationListener(EventCache eventCache, EventIndexUpdater indexUpdater) {
+        this.eventCache = eventCache;
+        this.indexUpdater = indexUpdater;
+    }
+
+    // Elke replica heeft een eigen anonieme queue, dus iedere instantie krijgt elke invalidatie
+    @RabbitListener(queues = "#{eventCacheInvalidationQueue.name}")
+    public void handleInvalidation(EventCacheInvalidationMessage message) {
+        logger.debug("Invalidating cached event {}", message.getId());
+        eventCache.invalidate(message.getId());
+        // zoek- en geo index zijn ook lokaal per replica, dus die halen het event opnieuw uit de database
+        indexUpdater.reloadEvent(message.getId());
+    }
+}
@@ -0,0 +1,33 @@
+package com.horizon.eventservice.eventbus;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Broadcast naar alle eventservice replicas dat een event is aangemaakt, gewijzigd of verwijderd,
+ * zodat ze hun lokale cache entry weggooien en hun lokale indexen bijwerken.
+ */
+public class EventCacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID id;
+
+    @JsonCreator
+    public EventCacheInvalidationMessage(@JsonProperty("id") UUID id) {
+        this.id = id;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "EventCacheInvalidationMessage{" +
+                "id=" + id +
+                '}';
+    }
+}
@@ -1,15 +1,25 @@
 package com.horizon.eventservice.eventbus;
 
+import com.horizon.eventbus.message.EventCapacityChangedMessage;
+import com.horizon.eventbus.message.EventCompletedMessage;
+import com.horizon.eventbus.message.EventCreatedMessage;
+import com.horizon.eventbus.outbox.OutboxPublisher;
 import com.horizon.eventservice.model.Event;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Alle berichten van eventservice. Ze gaan via de outbox, dus elke methode moet binnen de transactie van de
+ * bijbehorende write aangeroepen worden; OutboxRelay publiceert ze na de commit.
+ */
 @Service
 public class EventPublisher {
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
 
-    public EventPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public EventPublisher(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishEventCreated(Event event) {
@@ -17,10 +27,34 @@ public class EventPublisher {
                 event.getId(), event.getTitle(), event.getStartDate(), event.getCreatedAt(),
                 event.getOrganizerId()
         );
-        rabbitTemplate.convertAndSend(
+        outboxPublisher.enqueue(
                 RabbitMQConfig.EXCHANGE,
                 RabbitMQConfig.ROUTING_KEY_EVENT_CREATED,
                 message
         );
     }
+
+    public void publishEventCompleted(UUID eventId, LocalDateTime endDate) {
+        outboxPublisher.enqueue(
+                RabbitMQConfig.EXCHANGE,
+                RabbitMQConfig.ROUTING_KEY_EVENT_COMPLETED,
+                new EventCompletedMessage(eventId, endDate)
+        );
+    }
+
+    public void publishEventCapacityChanged(UUID eventId, Integer maxAttendees) {
+        outboxPublisher.enqueue(
+                RabbitMQConfig.EXCHANGE,
+                RabbitMQConfig.ROUTING_KEY_EVENT_CAPACITY_CHANGED,
+                new EventCapacityChangedMessage(eventId, maxAttendees)
+        );
+    }
+
+    public void publishEventCacheInvalidation(UUID eventId) {
+        outboxPublisher.enqueue(
+                RabbitMQConfig.EXCHANGE,
+                RabbitMQConfig.ROUTING_KEY_EVENT_CACHE_INVALIDATE,
+                new EventCacheInvalidationMessage(eventId)
+        );
+    }
 }
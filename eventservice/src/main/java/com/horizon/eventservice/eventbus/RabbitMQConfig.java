@@ -1,42 +1,36 @@
 package com.horizon.eventservice.eventbus;
 
+import com.horizon.eventbus.EventbusTopology;
 import org.springframework.amqp.core.*;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+// Exchanges, MessageConverter en consumer metrics komen uit de eventbus library (EventbusAutoConfiguration)
 @Configuration
 public class RabbitMQConfig {
-    public static final String EXCHANGE = "horizon.exchange.events";
-    public static final String QUEUE_EVENT_CREATED = "horizon.queue.event.created";
-    public static final String ROUTING_KEY_EVENT_CREATED = "event.created";
+    public static final String EXCHANGE = EventbusTopology.EVENTS_EXCHANGE;
+    public static final String QUEUE_EVENT_CREATED = EventbusTopology.QUEUE_EVENT_CREATED;
+    public static final String ROUTING_KEY_EVENT_CREATED = EventbusTopology.ROUTING_KEY_EVENT_CREATED;
+    public static final String ROUTING_KEY_EVENT_COMPLETED = EventbusTopology.ROUTING_KEY_EVENT_COMPLETED;
+    public static final String ROUTING_KEY_EVENT_CAPACITY_CHANGED = EventbusTopology.ROUTING_KEY_EVENT_CAPACITY_CHANGED;
+    public static final String ROUTING_KEY_EVENT_CACHE_INVALIDATE = EventbusTopology.ROUTING_KEY_EVENT_CACHE_INVALIDATE;
 
     @Bean
-    TopicExchange exchange() {
-        return ExchangeBuilder
-                .topicExchange(EXCHANGE)
-                .durable(true)
-                .build();
+    Declarables eventCreatedQueue() {
+        return EventbusTopology.durableQueue(QUEUE_EVENT_CREATED, EXCHANGE, ROUTING_KEY_EVENT_CREATED);
     }
 
+    // Niet-durable, exclusieve queue per replica (naam door de broker gegenereerd) voor cache invalidaties
     @Bean
-    Queue queueEventCreated() {
-        return QueueBuilder
-                .durable(QUEUE_EVENT_CREATED)
-                .build();
+    Queue eventCacheInvalidationQueue() {
+        return new AnonymousQueue();
     }
 
     @Bean
-    Binding bindingEventCreated(Queue queueEventCreated, TopicExchange exchange) {
+    Binding bindingEventCacheInvalidation(Queue eventCacheInvalidationQueue, TopicExchange eventsExchange) {
         return BindingBuilder
-                .bind(queueEventCreated)
-                .to(exchange)
-                .with(ROUTING_KEY_EVENT_CREATED);
-    }
-
-    @Bean
-    MessageConverter jsonConverter() {
-        return new Jackson2JsonMessageConverter();
+                .bind(eventCacheInvalidationQueue)
+                .to(eventsExchange)
+                .with(ROUTING_KEY_EVENT_CACHE_INVALIDATE);
     }
 }
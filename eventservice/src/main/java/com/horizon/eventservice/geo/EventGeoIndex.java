@@ -0,0 +1,172 @@
+package com.horizon.eventservice.geo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory ruimtelijk index voor events met coördinaten: een vast grid van cellen van
+ * cellSizeDegrees x cellSizeDegrees. Een nearby query bekijkt alleen de cellen binnen de
+ * bounding box van de straal i.p.v. alle events. Wordt bij het opstarten gevuld en daarna
+ * bijgehouden bij create/update/delete (zie EventIndexUpdater).
+ */
+@Component
+public class EventGeoIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = Math.toRadians(EARTH_RADIUS_KM);
+
+    // dichtstbijzijnde eerst, bij gelijke afstand op id zodat pagina's stabiel zijn
+    private static final Comparator<Hit> BY_DISTANCE =
+            Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::id);
+
+    private final double cellSizeDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final Map<Long, Map<UUID, GeoPoint>> cells = new ConcurrentHashMap<>();
+    private final Map<UUID, GeoPoint> positions = new ConcurrentHashMap<>();
+
+    public EventGeoIndex(@Value("${horizon.events.geo.cell-size-degrees:0.1}") double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    public record GeoPoint(UUID id, double latitude, double longitude) {
+    }
+
+    public record Hit(UUID id, double distanceKm) {
+    }
+
+    public record NearbyResult(List<Hit> hits, long totalHits) {
+    }
+
+    public void put(UUID id, double latitude, double longitude) {
+        GeoPoint point = new GeoPoint(id, latitude, longitude);
+        positions.compute(id, (key, previous) -> {
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            // in compute, zodat een gelijktijdige removeFromCell de cel niet net tussendoor weggooit
+            cells.compute(cellKey(latitude, longitude), (k, cell) -> {
+                Map<UUID, GeoPoint> target = cell != null ? cell : new ConcurrentHashMap<>();
+                target.put(id, point);
+                return target;
+            });
+            return point;
+        });
+    }
+
+    public void remove(UUID id) {
+        positions.computeIfPresent(id, (key, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    public void clear() {
+        positions.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Events binnen radiusKm van (latitude, longitude), op afstand gesorteerd. Alleen de eerste
+     * offset + limit hits worden gesorteerd bijgehouden, totalHits telt alle matches.
+     *
+     * @throws IllegalArgumentException als offset of limit negatief is of samen niet in een int passen
+     */
+    public NearbyResult nearby(double latitude, double longitude, double radiusKm, int offset, int limit) {
+        if (offset < 0 || limit < 0 || offset > Integer.MAX_VALUE - limit) {
+            throw new IllegalArgumentException("offset and limit must be non-negative and fit the window");
+        }
+        int window = offset + limit;
+        // max-heap: de verste van de huidige top staat bovenaan en wordt als eerste verdrongen
+        PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, window), BY_DISTANCE.reversed());
+        long totalHits = 0;
+
+        double deltaLat = radiusKm / KM_PER_DEGREE_LAT;
+        int minLatCell = latIndex(Math.max(-90, latitude - deltaLat));
+        int maxLatCell = latIndex(Math.min(90, latitude + deltaLat));
+
+        int minLonCell = 0;
+        int lonCellSpan = lonCells;
+        double deltaLon = longitudeDelta(latitude, radiusKm, deltaLat);
+        if (!Double.isNaN(deltaLon)) {
+            minLonCell = (int) Math.floor((longitude - deltaLon + 180) / cellSizeDegrees);
+            int maxLonCell = (int) Math.floor((longitude + deltaLon + 180) / cellSizeDegrees);
+            lonCellSpan = Math.min(lonCells, maxLonCell - minLonCell + 1);
+        }
+
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            for (int i = 0; i < lonCellSpan; i++) {
+                // floorMod zodat een straal over de datumgrens (180°) heen ook de cellen aan de andere kant pakt
+                Map<UUID, GeoPoint> cell = cells.get((long) latCell * lonCells + Math.floorMod(minLonCell + i, lonCells));
+                if (cell == null) continue;
+                for (GeoPoint point : cell.values()) {
+                    double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                    if (distance > radiusKm) continue;
+                    totalHits++;
+                    if (window == 0) continue;
+                    Hit hit = new Hit(point.id(), distance);
+                    if (top.size() < window) {
+                        top.add(hit);
+                    } else if (BY_DISTANCE.compare(hit, top.peek()) < 0) {
+                        top.poll();
+                        top.add(hit);
+                    }
+                }
+            }
+        }
+
+        List<Hit> sorted = new ArrayList<>(top);
+        sorted.sort(BY_DISTANCE);
+        List<Hit> page = offset >= sorted.size() ? List.of() : sorted.subList(offset, sorted.size());
+        return new NearbyResult(page, totalHits);
+    }
+
+    // Haversine, goed genoeg voor afstanden van meters tot honderden kilometers
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Halve breedte van de bounding box in lengtegraden; NaN als de box een pool raakt (alle lengtegraden)
+    private static double longitudeDelta(double latitude, double radiusKm, double deltaLat) {
+        if (latitude - deltaLat <= -90 || latitude + deltaLat >= 90) {
+            return Double.NaN;
+        }
+        double ratio = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        return ratio >= 1 ? Double.NaN : Math.toDegrees(Math.asin(ratio));
+    }
+
+    private void removeFromCell(GeoPoint point) {
+        cells.computeIfPresent(cellKey(point.latitude(), point.longitude()), (key, cell) -> {
+            cell.remove(point.id());
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        int lonCell = Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), lonCells);
+        return (long) latIndex(latitude) * lonCells + lonCell;
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSizeDegrees)));
+    }
+}
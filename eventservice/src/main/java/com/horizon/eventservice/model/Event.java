@@ -6,6 +6,15 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        // keyset paginatie van de feed op (startDate, id), met en zonder filter
+        @Index(name = "idx_event_start_id", columnList = "startDate, id"),
+        @Index(name = "idx_event_category_start_id", columnList = "category, startDate, id"),
+        @Index(name = "idx_event_status_start_id", columnList = "status, startDate, id"),
+        @Index(name = "idx_event_private_start_id", columnList = "isPrivate, startDate, id"),
+        // scheduler die afgelopen events op COMPLETED zet
+        @Index(name = "idx_event_status_end", columnList = "status, endDate")
+})
 public class Event {
 
     @Id
@@ -19,6 +28,10 @@ public class Event {
 
     private String location;
 
+    // WGS84 coördinaten, optioneel; zonder coördinaten komt een event niet in /events/nearby
+    private Double latitude;
+    private Double longitude;
+
     private LocalDateTime startDate;
     private LocalDateTime endDate;
 
@@ -69,6 +82,12 @@ public class Event {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public LocalDateTime getStartDate() { return startDate; }
     public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
 
@@ -0,0 +1,70 @@
+package com.horizon.eventservice.scheduling;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.eventbus.EventPublisher;
+import com.horizon.eventservice.model.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Zet events waarvan de endDate verstreken is in batches van UPCOMING op COMPLETED, met één UPDATE
+ * per batch, en publiceert per event een event.completed message.
+ */
+@Component
+public class EventCompletionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCompletionScheduler.class);
+
+    private final EventDAL eventDAL;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public EventCompletionScheduler(EventDAL eventDAL,
+                                    EventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${horizon.events.completion.batch-size:500}") int batchSize) {
+        this.eventDAL = eventDAL;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${horizon.events.completion.interval:PT1M}",
+            fixedDelayString = "${horizon.events.completion.interval:PT1M}")
+    public int completeEndedEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        int completed = 0;
+        List<Event> batch;
+        do {
+            batch = transactionTemplate.execute(status -> completeBatch(now));
+            completed += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (completed > 0) {
+            logger.info("Marked {} events as COMPLETED", completed);
+        }
+        return completed;
+    }
+
+    private List<Event> completeBatch(LocalDateTime now) {
+        List<Event> ended = eventDAL.findByStatusAndEndDateLessThanEqualOrderByEndDateAsc(
+                Event.EventStatus.UPCOMING, now, Limit.of(batchSize));
+        if (!ended.isEmpty()) {
+            eventDAL.updateStatus(ended.stream().map(Event::getId).toList(), Event.EventStatus.COMPLETED, now);
+            // via de outbox in dezelfde transactie: consumers zien het bericht pas na de commit, en nooit zonder
+            for (Event event : ended) {
+                eventPublisher.publishEventCompleted(event.getId(), event.getEndDate());
+            }
+        }
+        return ended;
+    }
+}
@@ -0,0 +1,141 @@
+package com.horizon.eventservice.search;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DAL.EventTagView;
+import com.horizon.eventservice.Interface.EventMapper;
+import com.horizon.eventservice.geo.EventGeoIndex;
+import com.horizon.eventservice.model.Event;
+import com.horizon.eventservice.upcoming.UpcomingEventWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Houdt de lokale read-side indexen (zoekindex, geo index en upcoming wiel) van deze replica gelijk aan de database.
+ * Bij het opstarten worden ze in batches opnieuw opgebouwd, op id gepagineerd zodat er nooit meer
+ * dan één batch events tegelijk in het geheugen staat. Wijzigingen van andere replicas komen binnen
+ * via de invalidatie-broadcast en worden met {@link #reloadEvent(UUID)} uit de database gehaald.
+ */
+@Component
+public class EventIndexUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventIndexUpdater.class);
+
+    private final EventDAL eventDAL;
+    private final EventSearchIndex searchIndex;
+    private final EventGeoIndex geoIndex;
+    private final UpcomingEventWheel upcomingWheel;
+    private final int batchSize;
+
+    public EventIndexUpdater(EventDAL eventDAL,
+                             EventSearchIndex searchIndex,
+                             EventGeoIndex geoIndex,
+                             UpcomingEventWheel upcomingWheel,
+                             @Value("${horizon.events.search.rebuild-batch-size:500}") int batchSize) {
+        this.eventDAL = eventDAL;
+        this.searchIndex = searchIndex;
+        this.geoIndex = geoIndex;
+        this.upcomingWheel = upcomingWheel;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() throws IOException {
+        long started = System.currentTimeMillis();
+        int indexed = 0;
+
+        searchIndex.startRebuild();
+        geoIndex.clear();
+        List<Event> batch = eventDAL.findAllByOrderByIdAsc(Limit.of(batchSize));
+        while (!batch.isEmpty()) {
+            searchIndex.addAll(batch, loadTags(batch));
+            batch.forEach(this::updateGeoIndex);
+            indexed += batch.size();
+            if (batch.size() < batchSize) break;
+            UUID lastId = batch.get(batch.size() - 1).getId();
+            batch = eventDAL.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+        }
+        searchIndex.commitRebuild();
+        advanceUpcomingWheel();
+
+        logger.info("Rebuilt event indexes with {} events ({} with coordinates) in {} ms",
+                indexed, geoIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    // Het wiel kent alleen de komende horizon; bij elke tick wordt alleen het nieuwe stuk geladen
+    @Scheduled(initialDelayString = "${horizon.events.upcoming.tick:PT1M}",
+            fixedDelayString = "${horizon.events.upcoming.tick:PT1M}")
+    public void advanceUpcomingWheel() {
+        UpcomingEventWheel.LoadWindow window = upcomingWheel.advance(LocalDateTime.now());
+        if (window == null) return;
+
+        List<Event> starting = eventDAL.findByStatusAndStartDateGreaterThanEqualAndStartDateLessThan(
+                Event.EventStatus.UPCOMING, window.from(), window.until());
+        Map<UUID, List<String>> tagsByEvent = starting.isEmpty() ? Map.of() : loadTags(starting);
+        for (Event event : starting) {
+            upcomingWheel.put(EventMapper.toResponseDTO(event, tagsByEvent.getOrDefault(event.getId(), new ArrayList<>())));
+        }
+        logger.debug("Loaded {} upcoming events starting between {} and {}", starting.size(), window.from(), window.until());
+    }
+
+    // Fouten worden gelogd en niet doorgegooid: de write naar de database is dan al gelukt
+    public void indexEvent(Event event, List<String> tags) {
+        updateGeoIndex(event);
+        if (event.getStatus() == Event.EventStatus.UPCOMING) {
+            upcomingWheel.put(EventMapper.toResponseDTO(event, tags));
+        } else {
+            upcomingWheel.remove(event.getId());
+        }
+        try {
+            searchIndex.index(event, tags);
+        } catch (RuntimeException e) {
+            logger.warn("Could not update search index for event {}", event.getId(), e);
+        }
+    }
+
+    public void removeEvent(UUID id) {
+        geoIndex.remove(id);
+        upcomingWheel.remove(id);
+        try {
+            searchIndex.remove(id);
+        } catch (RuntimeException e) {
+            logger.warn("Could not remove event {} from search index", id, e);
+        }
+    }
+
+    public void reloadEvent(UUID id) {
+        eventDAL.findWithTagsById(id).ifPresentOrElse(
+                event -> indexEvent(event, event.getTags()),
+                () -> removeEvent(id));
+    }
+
+    private void updateGeoIndex(Event event) {
+        if (event.getLatitude() != null && event.getLongitude() != null) {
+            geoIndex.put(event.getId(), event.getLatitude(), event.getLongitude());
+        } else {
+            geoIndex.remove(event.getId());
+        }
+    }
+
+    private Map<UUID, List<String>> loadTags(List<Event> events) {
+        List<UUID> ids = events.stream().map(Event::getId).toList();
+        Map<UUID, List<String>> tagsByEvent = new HashMap<>();
+        for (EventTagView row : eventDAL.findTagsByEventIds(ids)) {
+            tagsByEvent.computeIfAbsent(row.getEventId(), k -> new ArrayList<>()).add(row.getTag());
+        }
+        return tagsByEvent;
+    }
+}
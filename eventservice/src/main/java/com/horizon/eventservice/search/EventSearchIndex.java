@@ -0,0 +1,297 @@
+package com.horizon.eventservice.search;
+
+import com.horizon.eventservice.model.Event;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Lucene index op lokale schijf over title, description, location, category en tags.
+ * Het index wordt bij elke start opnieuw opgebouwd uit de database (zie {@link EventIndexUpdater})
+ * en daarna incrementeel bijgehouden; de database blijft de bron van waarheid.
+ * Het heap-gebruik wordt begrensd door de RAM buffer van de IndexWriter, de segmenten zelf
+ * worden via mmap gelezen en vallen onder de OS page cache.
+ */
+@Component
+public class EventSearchIndex implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchIndex.class);
+
+    static final String FIELD_ID = "id";
+    static final String FIELD_TITLE = "title";
+    static final String FIELD_DESCRIPTION = "description";
+    static final String FIELD_LOCATION = "location";
+    static final String FIELD_CATEGORY = "category";
+    static final String FIELD_TAGS = "tags";
+    static final String FIELD_TAG_EXACT = "tag_exact";
+    static final String FIELD_TAG_FACET = "tag_facet";
+
+    // title telt het zwaarst mee in de ranking, description het minst
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            FIELD_TITLE, 3.0f,
+            FIELD_TAGS, 2.0f,
+            FIELD_CATEGORY, 1.5f,
+            FIELD_LOCATION, 1.0f,
+            FIELD_DESCRIPTION, 1.0f
+    );
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Path indexPath;
+    private final boolean temporaryIndexPath;
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // tussen startRebuild en commitRebuild; zoekopdrachten zien zolang de searcher van daarvoor
+    private volatile boolean rebuilding;
+
+    public EventSearchIndex(@Value("${horizon.events.search.index-dir:}") String indexDir,
+                            @Value("${horizon.events.search.ram-buffer-mb:16}") double ramBufferMb) throws IOException {
+        this.temporaryIndexPath = indexDir == null || indexDir.isBlank();
+        this.indexPath = temporaryIndexPath
+                ? Files.createTempDirectory("horizon-events-index")
+                : Files.createDirectories(Path.of(indexDir));
+        this.directory = new MMapDirectory(indexPath);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                // wordt toch bij elke start herbouwd, dus een oud index op dezelfde plek negeren
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(ramBufferMb);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+        logger.info("Event search index at {} (RAM buffer {} MB)", indexPath, ramBufferMb);
+    }
+
+    public record SearchResult(List<UUID> ids, long totalHits, Map<String, Integer> tagCounts) {
+    }
+
+    /**
+     * Vervangt de volledige inhoud van het index. Wordt per batch aangeroepen vanuit de rebuild,
+     * pas na {@link #commitRebuild()} worden de nieuwe documenten zichtbaar voor zoekopdrachten.
+     * Tot dan verversen {@link #index} en {@link #remove} de searcher niet: dat zou het gewiste of half
+     * herbouwde index publiceren. Hun wijzigingen staan wel in de writer en worden met de rebuild zichtbaar.
+     */
+    public void startRebuild() throws IOException {
+        rebuilding = true;
+        writer.deleteAll();
+    }
+
+    public void addAll(Collection<Event> events, Map<UUID, List<String>> tagsByEvent) throws IOException {
+        List<Document> documents = new ArrayList<>(events.size());
+        for (Event event : events) {
+            documents.add(toDocument(event, tagsByEvent.getOrDefault(event.getId(), List.of())));
+        }
+        writer.addDocuments(documents);
+    }
+
+    public void commitRebuild() throws IOException {
+        try {
+            writer.commit();
+        } finally {
+            rebuilding = false;
+        }
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    public void index(Event event, List<String> tags) {
+        try {
+            writer.updateDocument(new Term(FIELD_ID, event.getId().toString()), toDocument(event, tags));
+            refreshUnlessRebuilding();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(UUID eventId) {
+        try {
+            writer.deleteDocuments(new Term(FIELD_ID, eventId.toString()));
+            refreshUnlessRebuilding();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void refreshUnlessRebuilding() throws IOException {
+        if (!rebuilding) {
+            searcherManager.maybeRefresh();
+        }
+    }
+
+    /**
+     * Zoekt op relevantie. Een lege query matcht alles, tags filteren zonder de score te beïnvloeden.
+     * Tag facets worden geteld over alle matches, niet alleen over de opgevraagde pagina.
+     *
+     * @throws IllegalArgumentException als de query geen geldige query syntax is, of offset of limit negatief is
+     */
+    public SearchResult search(String queryText, Collection<String> tags, int offset, int limit, int maxFacets) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        Query query = buildQuery(queryText, tags);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.search(
+                        searcher, query, Math.max(1, offset + limit), new FacetsCollectorManager());
+                TopDocs topDocs = result.topDocs();
+                FacetsCollector facetsCollector = result.facetsCollector();
+
+                List<UUID> ids = new ArrayList<>();
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    Document document = searcher.storedFields().document(scoreDocs[i].doc, Set.of(FIELD_ID));
+                    ids.add(UUID.fromString(document.get(FIELD_ID)));
+                }
+
+                long totalHits = 0;
+                for (FacetsCollector.MatchingDocs matchingDocs : facetsCollector.getMatchingDocs()) {
+                    totalHits += matchingDocs.totalHits;
+                }
+                return new SearchResult(ids, totalHits, countTags(facetsCollector, maxFacets));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query buildQuery(String queryText, Collection<String> tags) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        if (queryText == null || queryText.isBlank()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        } else {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                    FIELD_BOOSTS.keySet().toArray(new String[0]), analyzer, FIELD_BOOSTS);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            try {
+                builder.add(parser.parse(queryText), BooleanClause.Occur.MUST);
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+            }
+        }
+        if (tags != null) {
+            for (String tag : tags) {
+                builder.add(new TermQuery(new Term(FIELD_TAG_EXACT, normalizeTag(tag))), BooleanClause.Occur.FILTER);
+            }
+        }
+        return builder.build();
+    }
+
+    // Telt per segment op ordinal en zet pas aan het eind om naar tag strings
+    private Map<String, Integer> countTags(FacetsCollector facetsCollector, int maxFacets) throws IOException {
+        Map<String, Integer> counts = new HashMap<>();
+        for (FacetsCollector.MatchingDocs matchingDocs : facetsCollector.getMatchingDocs()) {
+            if (matchingDocs.bits == null) continue;
+            DocIdSetIterator hits = matchingDocs.bits.iterator();
+            if (hits == null) continue;
+            SortedSetDocValues tagValues = DocValues.getSortedSet(matchingDocs.context.reader(), FIELD_TAG_FACET);
+            int[] ordCounts = new int[(int) tagValues.getValueCount()];
+            for (int doc = hits.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = hits.nextDoc()) {
+                if (!tagValues.advanceExact(doc)) continue;
+                for (int i = 0; i < tagValues.docValueCount(); i++) {
+                    ordCounts[(int) tagValues.nextOrd()]++;
+                }
+            }
+            for (int ord = 0; ord < ordCounts.length; ord++) {
+                if (ordCounts[ord] > 0) {
+                    counts.merge(tagValues.lookupOrd(ord).utf8ToString(), ordCounts[ord], Integer::sum);
+                }
+            }
+        }
+
+        Map<String, Integer> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxFacets)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private Document toDocument(Event event, List<String> tags) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, event.getId().toString(), Field.Store.YES));
+        addText(document, FIELD_TITLE, event.getTitle());
+        addText(document, FIELD_DESCRIPTION, event.getDescription());
+        addText(document, FIELD_LOCATION, event.getLocation());
+        addText(document, FIELD_CATEGORY, event.getCategory());
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag == null || tag.isBlank()) continue;
+                String normalized = normalizeTag(tag);
+                addText(document, FIELD_TAGS, tag);
+                document.add(new StringField(FIELD_TAG_EXACT, normalized, Field.Store.NO));
+                document.add(new SortedSetDocValuesField(FIELD_TAG_FACET, new BytesRef(normalized)));
+            }
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static String normalizeTag(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        if (temporaryIndexPath) {
+            try (var files = Files.walk(indexPath)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
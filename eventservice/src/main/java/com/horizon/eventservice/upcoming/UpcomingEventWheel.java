@@ -0,0 +1,156 @@
+package com.horizon.eventservice.upcoming;
+
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-wheel met de events die binnen de komende horizon (standaard 24 uur) beginnen, als kant-en-klare
+ * response DTO's. Elk slot bevat de events van één tijdsbucket; bij elke tick schuift het wiel door,
+ * worden verlopen slots leeggemaakt en wordt alleen het nieuwe stuk aan het eind uit de database geladen.
+ * GET /events/upcoming leest alleen uit het wiel en raakt de database niet.
+ */
+@Component
+public class UpcomingEventWheel {
+
+    private static final Comparator<EventResponseDTO> BY_START =
+            Comparator.comparing(EventResponseDTO::getStartDate).thenComparing(EventResponseDTO::getId);
+
+    private final long bucketSeconds;
+    private final int slotCount;
+    private final Duration horizon;
+    private final List<Map<UUID, EventResponseDTO>> slots;
+    private final Map<UUID, Long> bucketOfEvent = new ConcurrentHashMap<>();
+
+    // [currentBucket, loadedUntilBucket) is het deel van de tijdlijn dat het wiel volledig kent
+    private volatile long currentBucket = Long.MIN_VALUE;
+    private volatile long loadedUntilBucket = Long.MIN_VALUE;
+
+    public UpcomingEventWheel(@Value("${horizon.events.upcoming.horizon:PT24H}") Duration horizon,
+                              @Value("${horizon.events.upcoming.bucket:PT15M}") Duration bucket) {
+        this.horizon = horizon;
+        this.bucketSeconds = bucket.toSeconds();
+        // één extra slot voor de bucket waar "nu" middenin zit
+        this.slotCount = (int) (horizon.toSeconds() / bucketSeconds) + 1;
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public record LoadWindow(LocalDateTime from, LocalDateTime until) {
+    }
+
+    public Duration getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Schuift het wiel door naar now en geeft het tijdvak terug dat nog uit de database geladen
+     * moet worden (null als er niets nieuws is). De aanroeper stopt die events er met {@link #put} in.
+     */
+    public synchronized LoadWindow advance(LocalDateTime now) {
+        long nowBucket = bucketOf(now);
+        long targetUntil = nowBucket + slotCount;
+
+        if (currentBucket == Long.MIN_VALUE || nowBucket - currentBucket >= slotCount) {
+            // eerste keer of zo ver achter dat het hele wiel verlopen is: alles opnieuw
+            clearAll();
+            currentBucket = nowBucket;
+            loadedUntilBucket = targetUntil;
+            return new LoadWindow(now, startOf(targetUntil));
+        }
+
+        for (long bucket = currentBucket; bucket < nowBucket; bucket++) {
+            clearSlot(bucket);
+        }
+        currentBucket = nowBucket;
+        if (loadedUntilBucket >= targetUntil) {
+            return null;
+        }
+        LoadWindow window = new LoadWindow(startOf(loadedUntilBucket), startOf(targetUntil));
+        loadedUntilBucket = targetUntil;
+        return window;
+    }
+
+    /**
+     * Zet een event in het wiel, of haalt het eruit als het (niet meer) binnen het bekende tijdvak valt.
+     */
+    public synchronized void put(EventResponseDTO event) {
+        remove(event.getId());
+        if (event.getStartDate() == null) return;
+        long bucket = bucketOf(event.getStartDate());
+        if (bucket < currentBucket || bucket >= loadedUntilBucket) return;
+        slots.get(slotIndex(bucket)).put(event.getId(), event);
+        bucketOfEvent.put(event.getId(), bucket);
+    }
+
+    public synchronized void remove(UUID id) {
+        Long bucket = bucketOfEvent.remove(id);
+        if (bucket != null) {
+            slots.get(slotIndex(bucket)).remove(id);
+        }
+    }
+
+    /**
+     * Events die tussen now en now + within beginnen, op starttijd gesorteerd. Lock-vrij: slots
+     * worden bucket voor bucket gelezen en per bucket gesorteerd, tot er genoeg events zijn.
+     */
+    public List<EventResponseDTO> upcoming(LocalDateTime now, Duration within, int limit) {
+        LocalDateTime until = now.plus(within);
+        long lastBucket = Math.min(bucketOf(until), loadedUntilBucket - 1);
+        List<EventResponseDTO> result = new ArrayList<>();
+        for (long bucket = bucketOf(now); bucket <= lastBucket && result.size() < limit; bucket++) {
+            List<EventResponseDTO> inBucket = new ArrayList<>();
+            for (EventResponseDTO event : slots.get(slotIndex(bucket)).values()) {
+                // een slot kan bij een late tick nog events van een eerdere ronde bevatten
+                if (!event.getStartDate().isBefore(now) && !event.getStartDate().isAfter(until)) {
+                    inBucket.add(event);
+                }
+            }
+            inBucket.sort(BY_START);
+            for (EventResponseDTO event : inBucket) {
+                if (result.size() == limit) break;
+                result.add(event);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return bucketOfEvent.size();
+    }
+
+    private void clearSlot(long bucket) {
+        Map<UUID, EventResponseDTO> slot = slots.get(slotIndex(bucket));
+        slot.keySet().forEach(bucketOfEvent::remove);
+        slot.clear();
+    }
+
+    private void clearAll() {
+        slots.forEach(Map::clear);
+        bucketOfEvent.clear();
+    }
+
+    private long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+    }
+
+    private LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * bucketSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private int slotIndex(long bucket) {
+        return (int) Math.floorMod(bucket, (long) slotCount);
+    }
+}
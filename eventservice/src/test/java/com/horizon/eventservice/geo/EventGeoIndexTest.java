@@ -0,0 +1,94 @@
+package com.horizon.eventservice.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventGeoIndexTest {
+
+    private final EventGeoIndex index = new EventGeoIndex(0.1);
+
+    @Test
+    void nearby_shouldMatchLinearScan() {
+        Random random = new Random(42);
+        List<EventGeoIndex.GeoPoint> points = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            EventGeoIndex.GeoPoint point = new EventGeoIndex.GeoPoint(UUID.randomUUID(),
+                    51 + random.nextDouble() * 2, 4 + random.nextDouble() * 3);
+            points.add(point);
+            index.put(point.id(), point.latitude(), point.longitude());
+        }
+
+        double lat = 51.44, lon = 5.47, radius = 25;
+        List<UUID> expected = points.stream()
+                .filter(p -> EventGeoIndex.distanceKm(lat, lon, p.latitude(), p.longitude()) <= radius)
+                .sorted(Comparator.comparingDouble(p -> EventGeoIndex.distanceKm(lat, lon, p.latitude(), p.longitude())))
+                .map(EventGeoIndex.GeoPoint::id)
+                .toList();
+
+        EventGeoIndex.NearbyResult result = index.nearby(lat, lon, radius, 0, 1000);
+
+        assertEquals(expected.size(), result.totalHits());
+        assertEquals(expected.subList(0, Math.min(1000, expected.size())),
+                result.hits().stream().map(EventGeoIndex.Hit::id).toList());
+    }
+
+    @Test
+    void nearby_shouldPaginateInDistanceOrder() {
+        for (int i = 1; i <= 5; i++) {
+            index.put(UUID.randomUUID(), 52.0 + i * 0.01, 5.0);
+        }
+
+        List<EventGeoIndex.Hit> firstPage = index.nearby(52.0, 5.0, 10, 0, 2).hits();
+        List<EventGeoIndex.Hit> lastPage = index.nearby(52.0, 5.0, 10, 4, 2).hits();
+
+        assertEquals(2, firstPage.size());
+        assertTrue(firstPage.get(0).distanceKm() < firstPage.get(1).distanceKm());
+        assertEquals(1, lastPage.size());
+        assertTrue(lastPage.get(0).distanceKm() > firstPage.get(1).distanceKm());
+    }
+
+    @Test
+    void nearby_shouldRejectNegativeOrOverflowingWindow() {
+        index.put(UUID.randomUUID(), 52.0, 5.0);
+
+        assertThrows(IllegalArgumentException.class, () -> index.nearby(52.0, 5.0, 10, -20, 20));
+        assertThrows(IllegalArgumentException.class, () -> index.nearby(52.0, 5.0, 10, Integer.MAX_VALUE, 20));
+    }
+
+    @Test
+    void nearby_shouldFindEventsAcrossTheDateLine() {
+        UUID east = UUID.randomUUID();
+        UUID west = UUID.randomUUID();
+        index.put(east, -17.0, 179.95);
+        index.put(west, -17.0, -179.95);
+
+        EventGeoIndex.NearbyResult result = index.nearby(-17.0, 179.99, 20, 0, 10);
+
+        assertEquals(2, result.totalHits());
+        assertEquals(east, result.hits().get(0).id());
+    }
+
+    @Test
+    void put_shouldMoveAndRemoveEvents() {
+        UUID id = UUID.randomUUID();
+        index.put(id, 52.37, 4.90); // Amsterdam
+        index.put(id, 51.92, 4.48); // Rotterdam
+
+        assertEquals(0, index.nearby(52.37, 4.90, 5, 0, 10).totalHits());
+        assertEquals(1, index.nearby(51.92, 4.48, 5, 0, 10).totalHits());
+
+        index.remove(id);
+
+        assertEquals(0, index.nearby(51.92, 4.48, 5, 0, 10).totalHits());
+        assertEquals(0, index.size());
+    }
+}
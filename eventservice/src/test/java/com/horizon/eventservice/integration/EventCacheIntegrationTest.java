@@ -0,0 +1,110 @@
+package com.horizon.eventservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.horizon.eventbus.outbox.OutboxDAL;
+import com.horizon.eventbus.outbox.OutboxMessage;
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventUpdateDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventservice.eventbus.EventCacheInvalidationMessage;
+import com.horizon.eventservice.eventbus.RabbitMQConfig;
+import com.horizon.eventservice.model.Event;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventCacheIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OutboxDAL outboxDAL;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+    private UUID eventId;
+
+    @BeforeEach
+    void setUp() {
+        eventDAL.deleteAll();
+        outboxDAL.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Event event = new Event();
+        event.setTitle("cached-event");
+        event.setStartDate(LocalDateTime.now().plusDays(1));
+        event.setTags(new ArrayList<>());
+        eventId = eventDAL.save(event).getId();
+    }
+
+    @Test
+    void getEventById_shouldServeRepeatedReadsFromCache() {
+        eventService.getEventById(eventId);
+
+        statistics.clear();
+        eventService.getEventById(eventId);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateEvent_shouldInvalidateAndBroadcast() throws IOException {
+        eventService.getEventById(eventId);
+
+        EventUpdateDTO update = new EventUpdateDTO();
+        update.setId(eventId);
+        update.setTitle("renamed");
+        eventService.updateEvent(update);
+
+        assertEquals("renamed", eventService.getEventById(eventId).orElseThrow().getTitle());
+        // de broadcast naar andere replicas gaat via de outbox, in dezelfde transactie als de update
+        OutboxMessage broadcast = outboxDAL.findAll().stream()
+                .filter(m -> m.getRoutingKey().equals(RabbitMQConfig.ROUTING_KEY_EVENT_CACHE_INVALIDATE))
+                .findFirst().orElseThrow();
+        assertEquals(RabbitMQConfig.EXCHANGE, broadcast.getExchange());
+        assertEquals(eventId, objectMapper.readValue(broadcast.getPayload(), EventCacheInvalidationMessage.class).getId());
+    }
+
+    @Test
+    void deleteEventById_shouldInvalidate() {
+        eventService.getEventById(eventId);
+
+        eventService.deleteEventById(eventId);
+
+        assertTrue(eventService.getEventById(eventId).isEmpty());
+    }
+}
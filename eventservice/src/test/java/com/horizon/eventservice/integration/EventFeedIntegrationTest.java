@@ -0,0 +1,211 @@
+package com.horizon.eventservice.integration;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventFilterDTO;
+import com.horizon.eventservice.DTO.EventPageDTO;
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventservice.model.Event;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EventFeedIntegrationTest {
+
+    // de database vergelijkt ids als unsigned bytes, UUID.compareTo signed: de hex string volgt de database
+    private static final Comparator<UUID> BY_ID = Comparator.comparing(UUID::toString);
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 6, 1, 20, 0);
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        eventDAL.deleteAll();
+    }
+
+    @Test
+    void getEvents_shouldPageThroughEqualStartDatesWithoutGapsOrDuplicates() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(save(START, event -> { }));
+        }
+        ids.add(save(START.plusDays(1), event -> { }));
+        ids.sort(BY_ID);
+        // de vijf op dezelfde tijd op id, de latere als laatste
+        UUID later = eventDAL.findAll().stream().filter(e -> e.getStartDate().equals(START.plusDays(1)))
+                .findFirst().orElseThrow().getId();
+        ids.remove(later);
+        ids.add(later);
+
+        assertEquals(ids, readAll(new EventFilterDTO(), 2));
+    }
+
+    @Test
+    void getEvents_shouldIncludeEventsWithoutStartDateFirst() {
+        UUID dated = save(START, event -> { });
+        UUID undatedA = save(null, event -> { });
+        UUID undatedB = save(null, event -> { });
+        List<UUID> undated = new ArrayList<>(List.of(undatedA, undatedB));
+        undated.sort(BY_ID);
+
+        assertEquals(List.of(undated.get(0), undated.get(1), dated), readAll(new EventFilterDTO(), 1));
+
+        // een datumfilter sluit events zonder datum uit
+        EventFilterDTO from = new EventFilterDTO();
+        from.setFrom(START.minusDays(1));
+        assertEquals(List.of(dated), readAll(from, 1));
+    }
+
+    @Test
+    void getEvents_shouldApplyEachFilter() {
+        UUID music = save(START, event -> event.setCategory("music"));
+        UUID cancelled = save(START.plusDays(1), event -> event.setStatus(Event.EventStatus.CANCELLED));
+        UUID privateEvent = save(START.plusDays(2), event -> event.setPrivate(true));
+        UUID late = save(START.plusDays(10), event -> { });
+
+        EventFilterDTO category = new EventFilterDTO();
+        category.setCategory("music");
+        assertEquals(List.of(music), readAll(category, 10));
+
+        EventFilterDTO status = new EventFilterDTO();
+        status.setStatus(Event.EventStatus.CANCELLED);
+        assertEquals(List.of(cancelled), readAll(status, 10));
+
+        EventFilterDTO isPrivate = new EventFilterDTO();
+        isPrivate.setPrivate(true);
+        assertEquals(List.of(privateEvent), readAll(isPrivate, 10));
+
+        EventFilterDTO range = new EventFilterDTO();
+        range.setFrom(START.plusDays(1));
+        range.setTo(START.plusDays(10));
+        assertEquals(List.of(cancelled, privateEvent), readAll(range, 1));
+
+        EventFilterDTO to = new EventFilterDTO();
+        to.setTo(START.plusDays(1));
+        assertEquals(List.of(music), readAll(to, 10));
+        assertEquals(4, readAll(new EventFilterDTO(), 10).size());
+        assertEquals(late, readAll(new EventFilterDTO(), 10).get(3));
+    }
+
+    @Test
+    void getEvents_shouldCapThePageSize() {
+        for (int i = 0; i < 205; i++) {
+            save(START.plusMinutes(i), event -> { });
+        }
+
+        EventPageDTO capped = eventService.getEvents(new EventFilterDTO(), null, 10_000);
+        assertEquals(200, capped.getItems().size());
+        assertNotNull(capped.getNextCursor());
+        assertEquals(5, eventService.getEvents(new EventFilterDTO(), capped.getNextCursor(), 10_000).getItems().size());
+        assertEquals(1, eventService.getEvents(new EventFilterDTO(), null, 0).getItems().size());
+    }
+
+    @Test
+    void getEventsPage_shouldReturnAPageWithCursorInTheBody() throws Exception {
+        save(START, event -> { });
+        save(START.plusDays(1), event -> { });
+
+        String cursor = eventService.getEvents(new EventFilterDTO(), null, 1).getNextCursor();
+        mockMvc.perform(get("/events/page").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(cursor));
+        mockMvc.perform(get("/events/page").param("size", "1").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        mockMvc.perform(get("/events/page").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllEvents_shouldStayAListAndLinkToTheNextPageWithTheSameFilters() throws Exception {
+        UUID first = save(START, event -> event.setCategory("music"));
+        UUID second = save(START.plusDays(1), event -> event.setCategory("music"));
+        save(START.plusDays(2), event -> event.setCategory("sports"));
+
+        EventFilterDTO music = new EventFilterDTO();
+        music.setCategory("music");
+        String cursor = eventService.getEvents(music, null, 1).getNextCursor();
+        mockMvc.perform(get("/events").param("category", "music").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().stringValues(HttpHeaders.LINK, hasItem("</events/page>; rel=\"successor-version\"")))
+                .andExpect(header().stringValues(HttpHeaders.LINK,
+                        hasItem("</events/page?category=music&size=1&after=" + cursor + ">; rel=\"next\"")))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(first.toString()));
+
+        // de laatste pagina heeft geen rel="next"
+        mockMvc.perform(get("/events").param("category", "music").param("size", "1").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.LINK, contains(startsWith("</events/page>;"))))
+                .andExpect(jsonPath("$[0].id").value(second.toString()));
+    }
+
+    private List<UUID> readAll(EventFilterDTO filter, int size) {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            EventPageDTO page = eventService.getEvents(filter, cursor, size);
+            page.getItems().stream().map(EventResponseDTO::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private UUID save(LocalDateTime startDate, Consumer<Event> customizer) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setTitle("feed-event");
+        event.setStartDate(startDate);
+        event.setStatus(Event.EventStatus.UPCOMING);
+        event.setOrganizerId(UUID.randomUUID());
+        customizer.accept(event);
+        return eventDAL.save(event).getId();
+    }
+}
@@ -0,0 +1,135 @@
+package com.horizon.eventservice.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventCreateDTO;
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventbus.message.EventCompletedMessage;
+import com.horizon.eventbus.outbox.OutboxDAL;
+import com.horizon.eventbus.outbox.OutboxMessage;
+import com.horizon.eventservice.eventbus.RabbitMQConfig;
+import com.horizon.eventservice.model.Event;
+import com.horizon.eventservice.scheduling.EventCompletionScheduler;
+import com.horizon.eventservice.search.EventIndexUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventLifecycleIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private EventIndexUpdater indexUpdater;
+
+    @Autowired
+    private EventCompletionScheduler completionScheduler;
+
+    @Autowired
+    private OutboxDAL outboxDAL;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        eventDAL.deleteAll();
+        outboxDAL.deleteAll();
+        indexUpdater.rebuildOnStartup();
+    }
+
+    @Test
+    void completeEndedEvents_shouldTransitionOnlyEndedUpcomingEvents() throws IOException {
+        UUID ended = save(Event.EventStatus.UPCOMING, LocalDateTime.now().minusHours(1));
+        UUID running = save(Event.EventStatus.UPCOMING, LocalDateTime.now().plusHours(1));
+        UUID cancelled = save(Event.EventStatus.CANCELLED, LocalDateTime.now().minusHours(1));
+
+        assertEquals(1, completionScheduler.completeEndedEvents());
+        assertEquals(0, completionScheduler.completeEndedEvents());
+
+        assertEquals(Event.EventStatus.COMPLETED, eventDAL.findById(ended).orElseThrow().getStatus());
+        assertEquals(Event.EventStatus.UPCOMING, eventDAL.findById(running).orElseThrow().getStatus());
+        assertEquals(Event.EventStatus.CANCELLED, eventDAL.findById(cancelled).orElseThrow().getStatus());
+        // event.completed staat in de outbox van dezelfde transactie, alleen voor het afgelopen event
+        List<OutboxMessage> queued = outboxDAL.findAll().stream()
+                .filter(m -> m.getRoutingKey().equals(RabbitMQConfig.ROUTING_KEY_EVENT_COMPLETED))
+                .toList();
+        assertEquals(1, queued.size());
+        assertEquals(RabbitMQConfig.EXCHANGE, queued.get(0).getExchange());
+        assertEquals(EventCompletedMessage.class.getName(), queued.get(0).getTypeId());
+        assertEquals(ended, objectMapper.readValue(queued.get(0).getPayload(), EventCompletedMessage.class).getId());
+    }
+
+    @Test
+    void getUpcomingEvents_shouldServeCreatedEventsFromTheWheel() {
+        UUID inThreeHours = create(LocalDateTime.now().plusHours(3));
+        UUID inOneHour = create(LocalDateTime.now().plusHours(1));
+        create(LocalDateTime.now().plusHours(30));
+        create(LocalDateTime.now().minusHours(1));
+
+        assertEquals(List.of(inOneHour, inThreeHours), ids(eventService.getUpcomingEvents(24, 10)));
+        assertEquals(List.of(inOneHour), ids(eventService.getUpcomingEvents(2, 10)));
+    }
+
+    @Test
+    void getUpcomingEvents_shouldFollowDeletes() {
+        UUID id = create(LocalDateTime.now().plusHours(1));
+
+        eventService.deleteEventById(id);
+
+        assertEquals(List.of(), eventService.getUpcomingEvents(24, 10));
+    }
+
+    @Test
+    void getUpcomingEvents_shouldRejectHoursBeyondHorizon() {
+        assertThrows(ResponseStatusException.class, () -> eventService.getUpcomingEvents(25, 10));
+    }
+
+    private UUID save(Event.EventStatus status, LocalDateTime endDate) {
+        Event event = new Event();
+        event.setTitle("lifecycle-event");
+        event.setStatus(status);
+        event.setStartDate(endDate.minusHours(2));
+        event.setEndDate(endDate);
+        return eventDAL.save(event).getId();
+    }
+
+    private UUID create(LocalDateTime startDate) {
+        EventCreateDTO dto = new EventCreateDTO();
+        dto.setTitle("upcoming-event");
+        dto.setStartDate(startDate);
+        return eventService.createEvent(dto).getId();
+    }
+
+    private static List<UUID> ids(List<EventResponseDTO> events) {
+        return events.stream().map(EventResponseDTO::getId).toList();
+    }
+}
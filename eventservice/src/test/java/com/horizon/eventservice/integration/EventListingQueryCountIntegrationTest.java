@@ -0,0 +1,140 @@
+package com.horizon.eventservice.integration;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventFilterDTO;
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventservice.model.Event;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventListingQueryCountIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        eventDAL.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getEvents_shouldExecuteSameNumberOfStatementsRegardlessOfEventCount() {
+        seedEvents(1);
+        long statementsForOneEvent = countStatements(() -> assertEquals(1, firstPage().size()));
+
+        seedEvents(24);
+        long statementsForManyEvents = countStatements(() -> assertEquals(25, firstPage().size()));
+
+        // events + één batch voor de tags; attendees/waitlist/allowedUsers worden nooit geladen
+        assertEquals(2, statementsForOneEvent);
+        assertEquals(statementsForOneEvent, statementsForManyEvents);
+    }
+
+    @Test
+    void getEvents_shouldExecuteSameNumberOfStatementsRegardlessOfPageSize() {
+        seedEvents(25);
+
+        long statementsForSmallPage = countStatements(
+                () -> assertEquals(1, eventService.getEvents(new EventFilterDTO(), null, 1).getItems().size()));
+        long statementsForLargePage = countStatements(
+                () -> assertEquals(25, eventService.getEvents(new EventFilterDTO(), null, 50).getItems().size()));
+
+        assertEquals(2, statementsForSmallPage);
+        assertEquals(statementsForSmallPage, statementsForLargePage);
+    }
+
+    @Test
+    void getEventById_shouldLoadTagsInSingleStatement() {
+        seedEvents(1);
+        UUID id = eventDAL.findAll().get(0).getId();
+
+        List<EventResponseDTO> result = new ArrayList<>();
+        long statements = countStatements(() -> result.add(eventService.getEventById(id).orElseThrow()));
+
+        assertEquals(1, statements);
+        assertEquals(List.of("tag-a", "tag-b"), result.get(0).getTags());
+    }
+
+    @Test
+    void getEvents_shouldMapTagsToTheirOwnEvent() {
+        Event withTags = newEvent(0);
+        Event withoutTags = newEvent(1);
+        withoutTags.setTags(new ArrayList<>());
+        UUID withTagsId = eventDAL.save(withTags).getId();
+        UUID withoutTagsId = eventDAL.save(withoutTags).getId();
+
+        List<EventResponseDTO> events = firstPage();
+
+        EventResponseDTO first = events.stream().filter(e -> e.getId().equals(withTagsId)).findFirst().orElseThrow();
+        EventResponseDTO second = events.stream().filter(e -> e.getId().equals(withoutTagsId)).findFirst().orElseThrow();
+        assertEquals(List.of("tag-a", "tag-b"), first.getTags());
+        assertEquals(List.of(), second.getTags());
+    }
+
+    private List<EventResponseDTO> firstPage() {
+        return eventService.getEvents(new EventFilterDTO(), null, 200).getItems();
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedEvents(int count) {
+        List<Event> events = new ArrayList<>();
+        long offset = eventDAL.count();
+        for (int i = 0; i < count; i++) {
+            events.add(newEvent(offset + i));
+        }
+        eventDAL.saveAll(events);
+    }
+
+    private Event newEvent(long index) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setTitle("listing-event-" + index);
+        event.setStartDate(LocalDateTime.now().plusDays(index + 1));
+        event.setStatus(Event.EventStatus.UPCOMING);
+        event.setTags(new ArrayList<>(List.of("tag-a", "tag-b")));
+        event.setAttendees(new ArrayList<>(List.of(UUID.randomUUID())));
+        event.setWaitlist(new ArrayList<>(List.of(UUID.randomUUID())));
+        event.setOrganizerId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,111 @@
+package com.horizon.eventservice.integration;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventCreateDTO;
+import com.horizon.eventservice.DTO.EventNearbyResultDTO;
+import com.horizon.eventservice.DTO.EventUpdateDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventservice.search.EventIndexUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventNearbyIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private EventIndexUpdater indexUpdater;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        eventDAL.deleteAll();
+        indexUpdater.rebuildOnStartup();
+    }
+
+    @Test
+    void getNearbyEvents_shouldReturnEventsWithinRadiusSortedByDistance() {
+        UUID eindhoven = create("Eindhoven", 51.4416, 5.4697);
+        UUID veldhoven = create("Veldhoven", 51.4184, 5.4048);
+        create("Amsterdam", 52.3676, 4.9041);
+        create("Zonder locatie", null, null);
+
+        EventNearbyResultDTO result = eventService.getNearbyEvents(51.4416, 5.4697, 10, 0, 20);
+
+        assertEquals(2, result.getTotalHits());
+        assertEquals(List.of(eindhoven, veldhoven),
+                result.getItems().stream().map(item -> item.getEvent().getId()).toList());
+        assertEquals(0.0, result.getItems().get(0).getDistanceKm(), 0.001);
+    }
+
+    @Test
+    void updateEvent_shouldMoveEventInIndex() {
+        UUID id = create("Verhuist", 52.3676, 4.9041);
+
+        EventUpdateDTO update = new EventUpdateDTO();
+        update.setId(id);
+        update.setLatitude(51.4416);
+        update.setLongitude(5.4697);
+        eventService.updateEvent(update);
+
+        assertEquals(0, eventService.getNearbyEvents(52.3676, 4.9041, 10, 0, 20).getTotalHits());
+        assertEquals(1, eventService.getNearbyEvents(51.4416, 5.4697, 10, 0, 20).getTotalHits());
+    }
+
+    @Test
+    void getNearbyEvents_shouldRejectInvalidInput() {
+        assertThrows(ResponseStatusException.class, () -> eventService.getNearbyEvents(91, 0, 10, 0, 20));
+        assertThrows(ResponseStatusException.class, () -> eventService.getNearbyEvents(52, 5, 0, 0, 20));
+        assertThrows(ResponseStatusException.class, () -> create("Half", 52.0, null));
+    }
+
+    @Test
+    void getNearbyEvents_shouldRejectPagesBeyondTheWindowWithoutOverflowing() {
+        create("Dichtbij", 52.0, 5.0);
+
+        // 107374183 * 20 loopt over naar een negatieve offset
+        for (int page : new int[] {107374183, Integer.MAX_VALUE, 50}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> eventService.getNearbyEvents(52.0, 5.0, 10, page, 20));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        assertEquals(0, eventService.getNearbyEvents(52.0, 5.0, 10, 49, 20).getItems().size());
+    }
+
+    private UUID create(String title, Double latitude, Double longitude) {
+        EventCreateDTO dto = new EventCreateDTO();
+        dto.setTitle(title);
+        dto.setStartDate(LocalDateTime.now().plusDays(1));
+        dto.setLatitude(latitude);
+        dto.setLongitude(longitude);
+        return eventService.createEvent(dto).getId();
+    }
+}
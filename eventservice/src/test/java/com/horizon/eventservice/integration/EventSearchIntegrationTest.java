@@ -0,0 +1,146 @@
+package com.horizon.eventservice.integration;
+
+import com.horizon.eventservice.DAL.EventDAL;
+import com.horizon.eventservice.DTO.EventCreateDTO;
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import com.horizon.eventservice.DTO.EventSearchResultDTO;
+import com.horizon.eventservice.DTO.EventUpdateDTO;
+import com.horizon.eventservice.Interface.EventService;
+import com.horizon.eventservice.model.Event;
+import com.horizon.eventservice.search.EventIndexUpdater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventSearchIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventDAL eventDAL;
+
+    @Autowired
+    private EventIndexUpdater indexUpdater;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        eventDAL.deleteAll();
+        indexUpdater.rebuildOnStartup();
+    }
+
+    @Test
+    void searchEvents_shouldRankTitleMatchesFirstAndCountTags() {
+        UUID inDescription = create("Borrel", "Na afloop jazz in de kroeg", List.of("drinks"));
+        UUID inTitle = create("Jazz avond", "Live muziek", List.of("music", "drinks"));
+
+        EventSearchResultDTO result = eventService.searchEvents("jazz", null, 0, 20);
+
+        assertEquals(2, result.getTotalHits());
+        assertEquals(List.of(inTitle, inDescription), ids(result));
+        assertEquals(2, result.getTagFacets().get("drinks"));
+        assertEquals(1, result.getTagFacets().get("music"));
+    }
+
+    @Test
+    void searchEvents_shouldFilterOnTagAndPaginate() {
+        for (int i = 0; i < 5; i++) {
+            create("Hackathon " + i, "Bouw iets", List.of("Tech"));
+        }
+        create("Hackathon zonder tag", "Bouw iets", List.of());
+
+        EventSearchResultDTO firstPage = eventService.searchEvents("hackathon", List.of("tech"), 0, 2);
+        EventSearchResultDTO lastPage = eventService.searchEvents("hackathon", List.of("tech"), 2, 2);
+
+        assertEquals(5, firstPage.getTotalHits());
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals(1, lastPage.getItems().size());
+    }
+
+    @Test
+    void searchEvents_shouldFollowUpdatesAndDeletes() {
+        UUID id = create("Pubquiz", "Vragen", List.of());
+
+        EventUpdateDTO update = new EventUpdateDTO();
+        update.setId(id);
+        update.setTitle("Filmavond");
+        eventService.updateEvent(update);
+
+        assertEquals(0, eventService.searchEvents("pubquiz", null, 0, 20).getTotalHits());
+        assertEquals(List.of(id), ids(eventService.searchEvents("filmavond", null, 0, 20)));
+
+        eventService.deleteEventById(id);
+
+        assertEquals(0, eventService.searchEvents("filmavond", null, 0, 20).getTotalHits());
+    }
+
+    @Test
+    void rebuild_shouldIndexEventsAlreadyInDatabase() throws IOException {
+        Event event = new Event();
+        event.setTitle("Klimmen");
+        event.setTags(new ArrayList<>(List.of("sport")));
+        UUID id = eventDAL.save(event).getId();
+
+        indexUpdater.rebuildOnStartup();
+
+        EventSearchResultDTO result = eventService.searchEvents(null, List.of("sport"), 0, 20);
+        assertEquals(List.of(id), ids(result));
+    }
+
+    @Test
+    void searchEvents_shouldRejectPagesBeyondTheWindowWithoutOverflowing() {
+        create("Jazz in het park", "Live jazz", List.of("muziek"));
+
+        // 107374183 * 20 loopt over naar een negatieve offset
+        for (int page : new int[] {107374183, Integer.MAX_VALUE, 50}) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> eventService.searchEvents("jazz", null, page, 20));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+        // de laatste pagina binnen het venster mag wel
+        assertEquals(0, eventService.searchEvents("jazz", null, 49, 20).getItems().size());
+    }
+
+    @Test
+    void searchEvents_shouldRejectInvalidQuery() {
+        assertThrows(ResponseStatusException.class, () -> eventService.searchEvents("title:(", null, 0, 20));
+    }
+
+    private UUID create(String title, String description, List<String> tags) {
+        EventCreateDTO dto = new EventCreateDTO();
+        dto.setTitle(title);
+        dto.setDescription(description);
+        dto.setStartDate(LocalDateTime.now().plusDays(1));
+        dto.setTags(new ArrayList<>(tags));
+        return eventService.createEvent(dto).getId();
+    }
+
+    private static List<UUID> ids(EventSearchResultDTO result) {
+        return result.getItems().stream().map(EventResponseDTO::getId).toList();
+    }
+}
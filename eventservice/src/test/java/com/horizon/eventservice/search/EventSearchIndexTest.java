@@ -0,0 +1,65 @@
+package com.horizon.eventservice.search;
+
+import com.horizon.eventservice.model.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventSearchIndexTest {
+
+    private final EventSearchIndex index = new EventSearchIndex("", 16);
+
+    EventSearchIndexTest() throws IOException {
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.destroy();
+    }
+
+    @Test
+    void rebuild_shouldKeepServingThePreviousIndexUntilCommitted() throws IOException {
+        Event kept = event("kept concert");
+        Event deleted = event("deleted concert");
+        rebuild(List.of(kept, deleted));
+
+        index.startRebuild();
+        // wijzigingen tijdens de rebuild mogen het gewiste index niet zichtbaar maken
+        Event created = event("created concert");
+        index.index(created, List.of());
+        index.remove(kept.getId());
+        index.addAll(List.of(kept), Map.of());
+        assertEquals(Set.of(kept.getId(), deleted.getId()), hits("concert"));
+
+        index.commitRebuild();
+        assertEquals(Set.of(kept.getId(), created.getId()), hits("concert"));
+
+        // daarna weer direct zichtbaar
+        index.remove(created.getId());
+        assertEquals(Set.of(kept.getId()), hits("concert"));
+    }
+
+    private void rebuild(List<Event> events) throws IOException {
+        index.startRebuild();
+        index.addAll(events, Map.of());
+        index.commitRebuild();
+    }
+
+    private Set<UUID> hits(String query) {
+        return Set.copyOf(index.search(query, null, 0, 10, 0).ids());
+    }
+
+    private static Event event(String title) {
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        event.setTitle(title);
+        return event;
+    }
+}
@@ -0,0 +1,88 @@
+package com.horizon.eventservice.upcoming;
+
+import com.horizon.eventservice.DTO.EventResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpcomingEventWheelTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    private final UpcomingEventWheel wheel = new UpcomingEventWheel(Duration.ofHours(24), Duration.ofMinutes(15));
+
+    @Test
+    void advance_shouldOnlyRequestTheNewSliceOfTheHorizon() {
+        UpcomingEventWheel.LoadWindow first = wheel.advance(T0);
+        assertEquals(T0, first.from());
+        assertTrue(first.until().isAfter(T0.plusHours(24)));
+
+        assertNull(wheel.advance(T0.plusMinutes(5)));
+
+        UpcomingEventWheel.LoadWindow next = wheel.advance(T0.plusHours(1));
+        assertEquals(first.until(), next.from());
+        assertEquals(first.until().plusHours(1), next.until());
+    }
+
+    @Test
+    void upcoming_shouldReturnEventsInStartOrderWithinWindow() {
+        wheel.advance(T0);
+        EventResponseDTO later = event(T0.plusHours(3));
+        EventResponseDTO sooner = event(T0.plusMinutes(20));
+        EventResponseDTO tomorrow = event(T0.plusHours(23));
+        wheel.put(later);
+        wheel.put(sooner);
+        wheel.put(tomorrow);
+        wheel.put(event(T0.plusHours(30))); // buiten de horizon
+
+        assertEquals(List.of(sooner, later, tomorrow), wheel.upcoming(T0, Duration.ofHours(24), 10));
+        assertEquals(List.of(sooner, later), wheel.upcoming(T0, Duration.ofHours(4), 10));
+        assertEquals(List.of(sooner), wheel.upcoming(T0, Duration.ofHours(24), 1));
+        assertEquals(3, wheel.size());
+    }
+
+    @Test
+    void advance_shouldDropEventsThatHaveStarted() {
+        wheel.advance(T0);
+        EventResponseDTO started = event(T0.plusMinutes(10));
+        EventResponseDTO pending = event(T0.plusHours(2));
+        wheel.put(started);
+        wheel.put(pending);
+
+        wheel.advance(T0.plusMinutes(30));
+
+        assertEquals(List.of(pending), wheel.upcoming(T0.plusMinutes(30), Duration.ofHours(24), 10));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void put_shouldMoveRescheduledEvent() {
+        wheel.advance(T0);
+        EventResponseDTO event = event(T0.plusHours(1));
+        wheel.put(event);
+
+        EventResponseDTO rescheduled = event(T0.plusHours(5));
+        rescheduled.setId(event.getId());
+        wheel.put(rescheduled);
+
+        assertEquals(List.of(rescheduled), wheel.upcoming(T0, Duration.ofHours(24), 10));
+        assertEquals(1, wheel.size());
+
+        wheel.remove(event.getId());
+        assertEquals(0, wheel.size());
+    }
+
+    private static EventResponseDTO event(LocalDateTime startDate) {
+        EventResponseDTO dto = new EventResponseDTO();
+        dto.setId(UUID.randomUUID());
+        dto.setStartDate(startDate);
+        return dto;
+    }
+}
@@ -0,0 +1,207 @@
+package com.horizon.rsvpservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Latency (p50/p99 via SampleTime) van de queries achter de RSVP endpoints, met en zonder de indexes uit
+ * V2__rsvp_access_path_indexes. "none" forceert met IGNORE INDEX een full scan, zoals het schema er zonder
+ * indexes uitzag; zo hoeft een tabel van 10M rijen niet opnieuw geïndexeerd te worden tussen de runs.
+ *
+ * Lokale MySQL als stand-in:
+ *   docker run -d -p 3310:3306 -e MYSQL_ROOT_PASSWORD=bench -e MYSQL_DATABASE=rsvpservice_bench mysql:8.0
+ *   BENCH_JDBC_URL=jdbc:mysql://localhost:3310/rsvpservice_bench BENCH_DB_PASSWORD=bench gradle jmh
+ *
+ * De eerste run past de migraties toe en seedt BENCH_ROWS (standaard 10M) RSVPs: 100 per event en 10 per
+ * gebruiker. Volgende runs hergebruiken de data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+public class RsvpQueryBenchmark {
+
+    private static final int RSVPS_PER_EVENT = 100;
+    private static final int RSVPS_PER_USER = 10;
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final String[] STATUSES = {"ATTENDING", "ATTENDING", "ATTENDING", "ATTENDING", "ATTENDING",
+            "ATTENDING", "MAYBE", "MAYBE", "NOT_ATTENDING", "WAITLISTED"};
+    private static final String NO_INDEXES = "IGNORE INDEX (idx_rsvp_event_status, idx_rsvp_user, uk_rsvp_event_user)";
+
+    @Param({"none", "migrated"})
+    public String indexes;
+
+    private Connection connection;
+    private long rows;
+    private int eventCount;
+    private int userCount;
+
+    private PreparedStatement byEvent;
+    private PreparedStatement byUser;
+    private PreparedStatement byEventAndUser;
+    private PreparedStatement byEventAndStatus;
+    private PreparedStatement countByEventAndStatus;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = env("BENCH_JDBC_URL", "jdbc:mysql://localhost:3310/rsvpservice_bench");
+        String user = env("BENCH_DB_USER", "root");
+        String password = env("BENCH_DB_PASSWORD", "bench");
+        rows = Long.parseLong(env("BENCH_ROWS", "10000000"));
+        eventCount = (int) (rows / RSVPS_PER_EVENT);
+        userCount = (int) (rows / RSVPS_PER_USER);
+
+        Flyway.configure().dataSource(url, user, password).load().migrate();
+        String options = "rewriteBatchedStatements=true&useSSL=false&allowPublicKeyRetrieval=true";
+        connection = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + options, user, password);
+        seedIfNeeded();
+
+        String hint = "none".equals(indexes) ? NO_INDEXES : "";
+        // Dezelfde queries als RsvpRepository; per endpoint in het commentaar
+        // GET /rsvps/event/{eventId}
+        byEvent = connection.prepareStatement("SELECT * FROM rsvps " + hint + " WHERE event_id = ?");
+        // GET /rsvps/user/{userId}
+        byUser = connection.prepareStatement("SELECT * FROM rsvps " + hint + " WHERE user_id = ?");
+        // GET /rsvps/event/{eventId}/user/{userId}, en de duplicate check bij POST/PUT
+        byEventAndUser = connection.prepareStatement("SELECT * FROM rsvps " + hint + " WHERE event_id = ? AND user_id = ?");
+        // GET /rsvps/event/{eventId}/status/{status}
+        byEventAndStatus = connection.prepareStatement("SELECT * FROM rsvps " + hint + " WHERE event_id = ? AND status = ?");
+        // backfill van event_capacity en rsvp_counters
+        countByEventAndStatus = connection.prepareStatement("SELECT COUNT(*) FROM rsvps " + hint + " WHERE event_id = ? AND status = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int findByEventId() throws SQLException {
+        byEvent.setBytes(1, eventId(randomEvent()));
+        return drain(byEvent);
+    }
+
+    @Benchmark
+    public int findByUserId() throws SQLException {
+        byUser.setString(1, userId(ThreadLocalRandom.current().nextInt(userCount)));
+        return drain(byUser);
+    }
+
+    @Benchmark
+    public int findByEventIdAndUserId() throws SQLException {
+        // rsvp i = k * eventCount + e hoort bij event e en gebruiker (e * 100 + k) % userCount
+        int event = randomEvent();
+        int k = ThreadLocalRandom.current().nextInt(RSVPS_PER_EVENT);
+        byEventAndUser.setBytes(1, eventId(event));
+        byEventAndUser.setString(2, userId((int) (((long) event * RSVPS_PER_EVENT + k) % userCount)));
+        return drain(byEventAndUser);
+    }
+
+    @Benchmark
+    public int findByEventIdAndStatus() throws SQLException {
+        byEventAndStatus.setBytes(1, eventId(randomEvent()));
+        byEventAndStatus.setString(2, "ATTENDING");
+        return drain(byEventAndStatus);
+    }
+
+    @Benchmark
+    public int countByEventIdAndStatus() throws SQLException {
+        countByEventAndStatus.setBytes(1, eventId(randomEvent()));
+        countByEventAndStatus.setString(2, "ATTENDING");
+        return drain(countByEventAndStatus);
+    }
+
+    private void seedIfNeeded() throws SQLException {
+        long existing;
+        try (PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM rsvps");
+             ResultSet rs = count.executeQuery()) {
+            rs.next();
+            existing = rs.getLong(1);
+        }
+        if (existing >= rows) {
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT IGNORE INTO rsvps (event_id, user_id, user_display_name, status, created_at, waitlisted_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (long i = existing; i < rows; i++) {
+                int event = (int) (i % eventCount);
+                int k = (int) (i / eventCount);
+                String user = userId((int) (((long) event * RSVPS_PER_EVENT + k) % userCount));
+                String status = STATUSES[k % STATUSES.length];
+                insert.setBytes(1, eventId(event));
+                insert.setString(2, user);
+                insert.setString(3, user);
+                insert.setString(4, status);
+                insert.setTimestamp(5, now);
+                insert.setTimestamp(6, "WAITLISTED".equals(status) ? now : null);
+                insert.addBatch();
+                if ((i + 1) % SEED_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        // statistieken bijwerken, anders kiest de optimizer na een grote seed soms alsnog een scan
+        try (PreparedStatement analyze = connection.prepareStatement("ANALYZE TABLE rsvps")) {
+            analyze.execute();
+        }
+    }
+
+    private int randomEvent() {
+        return ThreadLocalRandom.current().nextInt(eventCount);
+    }
+
+    // zelfde opslag als Hibernate voor een UUID op MySQL: BINARY(16)
+    private static byte[] eventId(int event) {
+        UUID id = new UUID(0x5EEDL, event);
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static String userId(int user) {
+        return "bench-user-" + user;
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
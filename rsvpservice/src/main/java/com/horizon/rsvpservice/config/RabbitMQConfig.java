@@ -1,44 +1,92 @@
 package com.horizon.rsvpservice.config;
 
-import org.springframework.amqp.core.*;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.eventbus.retry.RetryTopology;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+// Exchanges, MessageConverter, consumer metrics en retry routing komen uit de eventbus library (EventbusAutoConfiguration)
 @Configuration
 public class RabbitMQConfig {
 
     // Exchange to listen to
-    public static final String USERS_EXCHANGE_NAME = "horizon.users.exchange"; // Must match UserService exchange
+    public static final String USERS_EXCHANGE_NAME = EventbusTopology.USERS_EXCHANGE;
 
     // Queue for RsvpService to consume user events
     public static final String RSVP_USER_EVENTS_QUEUE_NAME = "rsvp.service.user.updates.queue"; // From UserEventListener
 
     // Routing keys to bind for
-    public static final String USER_REGISTERED_ROUTING_KEY = "user.registered";
-    public static final String USER_PROFILE_UPDATED_ROUTING_KEY = "user.profile.updated";
+    public static final String USER_REGISTERED_ROUTING_KEY = EventbusTopology.ROUTING_KEY_USER_REGISTERED;
+    public static final String USER_PROFILE_UPDATED_ROUTING_KEY = EventbusTopology.ROUTING_KEY_USER_PROFILE_UPDATED;
+
+    // __TypeId__ waarmee userservice publiceert (Jackson2JsonMessageConverter zet de klassenaam). De LEGACY ids
+    // stammen van voor de eventbus library en kunnen nog in de outbox of op de queue staan.
+    public static final String USER_REGISTERED_TYPE_ID = UserRegisteredEvent.class.getName();
+    public static final String USER_PROFILE_UPDATED_TYPE_ID = UserProfileUpdatedEvent.class.getName();
+    public static final String LEGACY_USER_REGISTERED_TYPE_ID = "com.horizon.userservice.event.UserRegisteredEvent";
+    public static final String LEGACY_USER_PROFILE_UPDATED_TYPE_ID = "com.horizon.userservice.event.UserProfileUpdatedEvent";
+
+    public static final String USER_EVENTS_CONTAINER_FACTORY = "userEventsBatchContainerFactory";
+
+    // Capaciteit van events, gepubliceerd door eventservice
+    public static final String EVENTS_EXCHANGE_NAME = EventbusTopology.EVENTS_EXCHANGE;
+    public static final String RSVP_EVENT_CAPACITY_QUEUE_NAME = "rsvp.service.event.capacity.queue";
+    public static final String EVENT_CAPACITY_CHANGED_ROUTING_KEY = EventbusTopology.ROUTING_KEY_EVENT_CAPACITY_CHANGED;
 
     @Bean
-    TopicExchange usersExchange() {
-        // This declares the exchange. If already declared by UserService with same properties, it's idempotent.
-        // It's good practice for consumers to also declare to ensure robustness, 
-        // or have a central way of defining shared infrastructure.
-        return new TopicExchange(USERS_EXCHANGE_NAME);
+    Declarables rsvpUserEventsQueue() {
+        return EventbusTopology.durableQueue(RSVP_USER_EVENTS_QUEUE_NAME, USERS_EXCHANGE_NAME,
+                USER_REGISTERED_ROUTING_KEY, USER_PROFILE_UPDATED_ROUTING_KEY);
     }
 
     @Bean
-    Queue rsvpUserEventsQueue() {
-        // Durable queue (true by default)
-        return new Queue(RSVP_USER_EVENTS_QUEUE_NAME);
+    Declarables rsvpEventCapacityQueue() {
+        return EventbusTopology.durableQueue(RSVP_EVENT_CAPACITY_QUEUE_NAME, EVENTS_EXCHANGE_NAME,
+                EVENT_CAPACITY_CHANGED_ROUTING_KEY);
     }
 
+    // Gooit een listener, dan gaat het bericht (of de batch) via de vertragingsqueues opnieuw naar de listener en
+    // daarna naar de parking lot, in plaats van meteen weer vooraan de queue
     @Bean
-    Binding userRegisteredBinding(Queue rsvpUserEventsQueue, TopicExchange usersExchange) {
-        return BindingBuilder.bind(rsvpUserEventsQueue).to(usersExchange).with(USER_REGISTERED_ROUTING_KEY);
+    Declarables rsvpUserEventsRetryQueues(RetryTopology retryTopology) {
+        return retryTopology.declare(RSVP_USER_EVENTS_QUEUE_NAME);
     }
 
     @Bean
-    Binding userProfileUpdatedBinding(Queue rsvpUserEventsQueue, TopicExchange usersExchange) {
-        return BindingBuilder.bind(rsvpUserEventsQueue).to(usersExchange).with(USER_PROFILE_UPDATED_ROUTING_KEY);
+    Declarables rsvpEventCapacityRetryQueues(RetryTopology retryTopology) {
+        return retryTopology.declare(RSVP_EVENT_CAPACITY_QUEUE_NAME);
+    }
+
+    // Levert tot batch-size berichten tegelijk aan UserEventListener; een kleinere batch zodra er receive-timeout
+    // lang niets binnenkomt. De hele batch wordt pas na verwerking geackt. Bij een achterstand schaalt de container
+    // van concurrency naar max-concurrency consumers.
+    @Bean(USER_EVENTS_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory userEventsBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${horizon.rsvp.user-events.batch-size:500}") int batchSize,
+            @Value("${horizon.rsvp.user-events.receive-timeout:1s}") Duration receiveTimeout,
+            @Value("${horizon.rsvp.user-events.concurrency:1}") int concurrency,
+            @Value("${horizon.rsvp.user-events.max-concurrency:4}") int maxConcurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeout.toMillis());
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        return factory;
     }
 
     // Future: If NotificationService is added, it would have a similar configuration for its own queue
@@ -1,5 +1,6 @@
 package com.horizon.rsvpservice.controller;
 
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
 import com.horizon.rsvpservice.model.Rsvp;
 import com.horizon.rsvpservice.model.RsvpStatus;
 import com.horizon.rsvpservice.service.RsvpService;
@@ -29,6 +30,18 @@ public class RsvpController {
         return ResponseEntity.ok(rsvpService.createRsvp(eventId, userId, status, displayName));
     }
 
+    // Idempotent: opnieuw versturen (bv. een retry na een timeout) geeft dezelfde RSVP terug i.p.v. een 409
+    @PutMapping("/event/{eventId}/me")
+    public ResponseEntity<Rsvp> upsertMyRsvp(
+            @PathVariable UUID eventId,
+            @RequestParam RsvpStatus status,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String userId = jwt.getSubject();
+        String displayName = jwt.getClaimAsString("preferred_username");
+        return ResponseEntity.ok(rsvpService.upsertRsvp(eventId, userId, status, displayName));
+    }
+
     @PutMapping("/{rsvpId}")
     public ResponseEntity<Rsvp> updateRsvp(
             @PathVariable Long rsvpId,
@@ -77,4 +90,10 @@ public class RsvpController {
             @PathVariable RsvpStatus status) {
         return ResponseEntity.ok(rsvpService.countRsvpsByEventAndStatus(eventId, status));
     }
-} 
\ No newline at end of file
+
+    // alle drie de aantallen in één read uit rsvp_counters, zonder COUNT over rsvps
+    @GetMapping("/event/{eventId}/summary")
+    public ResponseEntity<RsvpSummaryDTO> getRsvpSummary(@PathVariable UUID eventId) {
+        return ResponseEntity.ok(rsvpService.getRsvpSummary(eventId));
+    }
+}
@@ -0,0 +1,18 @@
+package com.horizon.rsvpservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RsvpSummaryDTO {
+    private UUID eventId;
+    private long attending;
+    private long notAttending;
+    private long maybe;
+    private long waitlisted;
+}
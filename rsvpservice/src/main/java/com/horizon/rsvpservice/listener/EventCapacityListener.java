@@ -0,0 +1,29 @@
+package com.horizon.rsvpservice.listener;
+
+import com.horizon.rsvpservice.config.RabbitMQConfig;
+import com.horizon.eventbus.message.EventCapacityChangedMessage;
+import com.horizon.rsvpservice.service.RsvpService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EventCapacityListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventCapacityListener.class);
+
+    private final RsvpService rsvpService;
+
+    @RabbitListener(queues = RabbitMQConfig.RSVP_EVENT_CAPACITY_QUEUE_NAME)
+    public void handleEventCapacityChanged(EventCapacityChangedMessage event) {
+        if (event == null || event.getId() == null) {
+            LOGGER.warn("Received incomplete EventCapacityChangedMessage: {}", event);
+            return;
+        }
+        LOGGER.info("Capacity of event {} is now {}", event.getId(), event.getMaxAttendees());
+        rsvpService.applyEventCapacity(event.getId(), event.getMaxAttendees());
+    }
+}
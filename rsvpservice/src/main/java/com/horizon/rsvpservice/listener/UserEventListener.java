@@ -1,18 +1,36 @@
 package com.horizon.rsvpservice.listener;
 
-import com.horizon.rsvpservice.event.UserRegisteredEvent;
-import com.horizon.rsvpservice.event.UserProfileUpdatedEvent;
-import com.horizon.rsvpservice.model.Rsvp;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.rsvpservice.config.RabbitMQConfig;
 import com.horizon.rsvpservice.repository.RsvpRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Enige consumer van de user events queue; verwerkt in batches (zie RabbitMQConfig.USER_EVENTS_CONTAINER_FACTORY).
+ * Het type van elk bericht volgt uit de __TypeId__ header van userservice (of de routing key als die ontbreekt),
+ * zodat een bericht nooit als het verkeerde type wordt gelezen; ook de klassenamen van voor de eventbus library
+ * worden nog herkend. Binnen een batch telt alleen de nieuwste display name per keycloakId (op event time);
+ * die worden samen in één transactie weggeschreven, en alleen over een oudere naam heen.
+ */
 @Component
 public class UserEventListener {
 
@@ -20,88 +38,156 @@ public class UserEventListener {
 
     public static final String RSVP_USER_EVENTS_QUEUE = "rsvp.service.user.updates.queue"; // As per plan
 
+    static final String PROCESSING_TIMER = "rsvp.user-events.processing";
+    static final String SKIPPED_COUNTER = "rsvp.user-events.skipped";
+    static final String DISPLAY_NAME_ROWS_SUMMARY = "rsvp.display-name.rows";
+    static final String BATCH_TIMER = "rsvp.user-events.batch";
+    static final String BATCH_MESSAGES_SUMMARY = "rsvp.user-events.batch.messages";
+    static final String BATCH_USERS_SUMMARY = "rsvp.user-events.batch.users";
+
+    private static final Map<String, Class<?>> USER_EVENT_TYPE_IDS = Map.of(
+            RabbitMQConfig.USER_REGISTERED_TYPE_ID, UserRegisteredEvent.class,
+            RabbitMQConfig.USER_PROFILE_UPDATED_TYPE_ID, UserProfileUpdatedEvent.class,
+            RabbitMQConfig.LEGACY_USER_REGISTERED_TYPE_ID, UserRegisteredEvent.class,
+            RabbitMQConfig.LEGACY_USER_PROFILE_UPDATED_TYPE_ID, UserProfileUpdatedEvent.class);
+    private static final Map<String, Class<?>> TYPES_BY_ROUTING_KEY = Map.of(
+            RabbitMQConfig.USER_REGISTERED_ROUTING_KEY, UserRegisteredEvent.class,
+            RabbitMQConfig.USER_PROFILE_UPDATED_ROUTING_KEY, UserProfileUpdatedEvent.class);
+
     private final RsvpRepository rsvpRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final EventbusCodec eventbusCodec;
 
     @Autowired
-    public UserEventListener(RsvpRepository rsvpRepository) {
+    public UserEventListener(RsvpRepository rsvpRepository, MeterRegistry meterRegistry,
+                             TransactionTemplate transactionTemplate, EventbusCodec eventbusCodec) {
         this.rsvpRepository = rsvpRepository;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = transactionTemplate;
+        this.eventbusCodec = eventbusCodec;
     }
 
-    @RabbitListener(queues = RSVP_USER_EVENTS_QUEUE)
-    public void handleUserRegisteredEvent(UserRegisteredEvent event) {
-        LOGGER.info("Received UserRegisteredEvent: {}", event);
-        if (event == null || event.getKeycloakId() == null || event.getUsername() == null) {
-            LOGGER.warn("Received incomplete UserRegisteredEvent: {}", event);
+    @RabbitListener(queues = RSVP_USER_EVENTS_QUEUE, containerFactory = RabbitMQConfig.USER_EVENTS_CONTAINER_FACTORY)
+    public void onUserEvents(List<Message> messages) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Map<String, PendingDisplayName> latest = new LinkedHashMap<>();
+        for (Message message : messages) {
+            Object payload = convert(message);
+            Long version = eventTime(message);
+            switch (payload) {
+                case UserRegisteredEvent event -> collect(latest, event.getKeycloakId(), displayNameFrom(event), version, event);
+                case UserProfileUpdatedEvent event -> collect(latest, event.getKeycloakId(), displayNameFrom(event), version, event);
+                case null -> { } // al geteld als skipped
+                default -> skip("unsupported-type", message, null);
+            }
+        }
+
+        // gaat dit mis, dan wordt de hele batch vertraagd opnieuw afgeleverd (retry topologie); de updates zijn idempotent
+        transactionTemplate.executeWithoutResult(status ->
+                latest.forEach((keycloakId, pending) -> propagateDisplayName(keycloakId, pending)));
+
+        sample.stop(meterRegistry.timer(BATCH_TIMER));
+        meterRegistry.summary(BATCH_MESSAGES_SUMMARY).record(messages.size());
+        meterRegistry.summary(BATCH_USERS_SUMMARY).record(latest.size());
+        LOGGER.info("Processed {} user events, updated displayName for {} users.", messages.size(), latest.size());
+    }
+
+    // de nieuwste event time wint; zonder event time (oudere producer) geldt de volgorde van de queue
+    private void collect(Map<String, PendingDisplayName> latest, String keycloakId, String displayName, Long version,
+                         Object event) {
+        if (displayName == null) {
             return;
         }
+        PendingDisplayName pending = new PendingDisplayName(displayName, version, event.getClass().getSimpleName());
+        latest.merge(keycloakId, pending, (current, next) ->
+                current.version() != null && next.version() != null && current.version() > next.version() ? current : next);
+    }
 
-        String keycloakId = event.getKeycloakId();
-        String displayName = event.getUsername(); // Username from event is the displayName
-
-        List<Rsvp> rsvps = rsvpRepository.findByUserId(keycloakId);
-        if (rsvps != null && !rsvps.isEmpty()) {
-            LOGGER.info("Found {} RSVPs for user {} to update displayName.", rsvps.size(), keycloakId);
-            for (Rsvp rsvp : rsvps) {
-                rsvp.setUserDisplayName(displayName);
-                rsvpRepository.save(rsvp);
+    private static Long eventTime(Message message) {
+        Object header = message.getMessageProperties().getHeader(EventbusTopology.EVENT_TIME_HEADER);
+        return header instanceof Number number ? number.longValue() : null;
+    }
+
+    // __TypeId__ van userservice, anders de routing key; null (en geteld) als het bericht niet te lezen is
+    private Object convert(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        try {
+            String typeId = properties.getHeader(DefaultJackson2JavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+            Class<?> type = typeId != null
+                    ? USER_EVENT_TYPE_IDS.get(typeId)
+                    : TYPES_BY_ROUTING_KEY.get(properties.getReceivedRoutingKey());
+            if (type == null) {
+                skip("unknown-type", message, null);
+                return null;
             }
-            LOGGER.info("Finished updating displayNames for user {} from UserRegisteredEvent.", keycloakId);
-        } else {
-            LOGGER.info("No existing RSVPs found for user {} upon registration event.", keycloakId);
+            return eventbusCodec.decode(message, type);
+        } catch (MessageConversionException e) {
+            skip("unreadable", message, e);
+            return null;
+        }
+    }
+
+    // Een onbruikbaar bericht wordt overgeslagen i.p.v. de hele batch eindeloos opnieuw aan te bieden
+    private void skip(String reason, Message message, Exception cause) {
+        meterRegistry.counter(SKIPPED_COUNTER, "reason", reason).increment();
+        MessageProperties properties = message.getMessageProperties();
+        LOGGER.warn("Skipping user event ({}): routingKey={}, typeId={}", reason, properties.getReceivedRoutingKey(),
+                properties.getHeader(DefaultJackson2JavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME), cause);
+    }
+
+    // null als het event geen (bruikbare) display name bevat
+    private static String displayNameFrom(UserRegisteredEvent event) {
+        LOGGER.debug("Received UserRegisteredEvent: {}", event);
+        if (event == null || event.getKeycloakId() == null || event.getUsername() == null) {
+            LOGGER.warn("Received incomplete UserRegisteredEvent: {}", event);
+            return null;
         }
+        return event.getUsername(); // Username from event is the displayName
     }
 
-    // To listen to multiple event types on the same queue, you might need separate methods
-    // or a generic Message<T> handler with type checking if all events are sent with type headers.
-    // For simplicity with @RabbitListener, distinct methods with specific event types are common if a MessageConverter is configured.
-    // If UserProfileUpdatedEvent is also sent to the same queue without specific type handling by the message converter,
-    // you might need a single method that takes a generic Object or Message and then does instanceof checks.
-    // However, if the JSON serializer can distinguish them, two methods might work if they have different GSON/Jackson mappings.
-
-    // Assuming the default Spring AMQP message converter can distinguish based on type if they are distinct on the wire.
-    // If not, a single method handling Object and then checking `instanceof` is safer.
-    // Let's try with two distinct methods first. This relies on message type information being present
-    // for the converter, or that their JSON structures are uniquely identifiable by the converter.
-
-    @RabbitListener(queues = RSVP_USER_EVENTS_QUEUE) // Listening on the same queue
-    public void handleUserProfileUpdatedEvent(UserProfileUpdatedEvent event) {
-        LOGGER.info("Received UserProfileUpdatedEvent: {}", event);
+    private static String displayNameFrom(UserProfileUpdatedEvent event) {
+        LOGGER.debug("Received UserProfileUpdatedEvent: {}", event);
         if (event == null || event.getKeycloakId() == null || event.getUpdatedFields() == null || event.getUpdatedFields().isEmpty()) {
             LOGGER.warn("Received incomplete or empty UserProfileUpdatedEvent: {}", event);
-            return;
+            return null;
         }
 
         String keycloakId = event.getKeycloakId();
         Map<String, Object> updatedFields = event.getUpdatedFields();
 
-        if (updatedFields.containsKey("username")) {
-            Object usernameUpdateObj = updatedFields.get("username");
-            if (usernameUpdateObj instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, String> usernameMap = (Map<String, String>) usernameUpdateObj;
-                String newUsername = usernameMap.get("newValue");
-
-                if (newUsername != null) {
-                    LOGGER.info("Username updated for user {}. New username: {}", keycloakId, newUsername);
-                    List<Rsvp> rsvps = rsvpRepository.findByUserId(keycloakId);
-                    if (rsvps != null && !rsvps.isEmpty()) {
-                        LOGGER.info("Found {} RSVPs for user {} to update displayName.", rsvps.size(), keycloakId);
-                        for (Rsvp rsvp : rsvps) {
-                            rsvp.setUserDisplayName(newUsername);
-                            rsvpRepository.save(rsvp);
-                        }
-                        LOGGER.info("Finished updating displayNames for user {} from UserProfileUpdatedEvent.", keycloakId);
-                    } else {
-                        LOGGER.info("No RSVPs found for user {} to update displayName from UserProfileUpdatedEvent.", keycloakId);
-                    }
-                } else {
-                    LOGGER.warn("New username is null in UserProfileUpdatedEvent for user {}.", keycloakId);
-                }
-            } else {
-                LOGGER.warn("Username update field is not in the expected format (Map) for user {}. Received: {}", keycloakId, usernameUpdateObj);
-            }
-        } else {
-            LOGGER.info("UserProfileUpdatedEvent for user {} did not contain a username update.", keycloakId);
+        if (!updatedFields.containsKey("username")) {
+            LOGGER.debug("UserProfileUpdatedEvent for user {} did not contain a username update.", keycloakId);
+            return null;
+        }
+        Object usernameUpdateObj = updatedFields.get("username");
+        if (!(usernameUpdateObj instanceof Map)) {
+            LOGGER.warn("Username update field is not in the expected format (Map) for user {}. Received: {}", keycloakId, usernameUpdateObj);
+            return null;
         }
+        @SuppressWarnings("unchecked")
+        Map<String, String> usernameMap = (Map<String, String>) usernameUpdateObj;
+        String newUsername = usernameMap.get("newValue");
+        if (newUsername == null) {
+            LOGGER.warn("New username is null in UserProfileUpdatedEvent for user {}.", keycloakId);
+        }
+        return newUsername;
+    }
+
+    // Eén bulk UPDATE i.p.v. een load + save per RSVP; verwerkingstijd (histogram) en rijen per event type
+    private void propagateDisplayName(String keycloakId, PendingDisplayName pending) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int updated = pending.version() != null
+                ? rsvpRepository.updateDisplayNameByUserIdIfNewer(keycloakId, pending.displayName(), pending.version(), LocalDateTime.now())
+                : rsvpRepository.updateDisplayNameByUserId(keycloakId, pending.displayName(), LocalDateTime.now());
+        sample.stop(Timer.builder(PROCESSING_TIMER)
+                .tag("type", pending.type())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        meterRegistry.summary(DISPLAY_NAME_ROWS_SUMMARY, "type", pending.type()).record(updated);
+    }
+
+    private record PendingDisplayName(String displayName, Long version, String type) {
     }
-} 
\ No newline at end of file
+}
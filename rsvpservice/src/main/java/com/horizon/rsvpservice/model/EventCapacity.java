@@ -0,0 +1,35 @@
+package com.horizon.rsvpservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Capaciteit van een event zoals eventservice die publiceert, plus het aantal toegelaten (ATTENDING) RSVPs.
+ * Alle RSVP writes voor een event locken eerst deze rij, zodat toelaten, annuleren en promoveren van de
+ * wachtlijst per event serieel gebeuren en er nooit meer dan maxAttendees deelnemers zijn.
+ */
+@Entity
+@Table(name = "event_capacity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventCapacity {
+    @Id
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    // null = geen maximum (of nog niet ontvangen van eventservice)
+    @Column(name = "max_attendees")
+    private Integer maxAttendees;
+
+    @Column(nullable = false)
+    private int attending;
+
+    public boolean hasRoom() {
+        return maxAttendees == null || attending < maxAttendees;
+    }
+}
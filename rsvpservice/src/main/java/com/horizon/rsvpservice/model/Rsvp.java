@@ -9,7 +9,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "rsvps")
+// Het schema wordt door Flyway beheerd (db/migration); deze annotaties houden het H2 test schema gelijk
+@Table(name = "rsvps", indexes = {
+        @Index(name = "idx_rsvp_event_status", columnList = "event_id, status, waitlisted_at"),
+        @Index(name = "idx_rsvp_user", columnList = "user_id")
+}, uniqueConstraints = {
+        // één RSVP per gebruiker per event, ook als twee requests tegelijk binnenkomen
+        @UniqueConstraint(name = "uk_rsvp_event_user", columnNames = {"event_id", "user_id"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +34,11 @@ public class Rsvp {
     @Column(name = "user_display_name", nullable = true)
     private String userDisplayName;
 
+    // event time (EventbusTopology.EVENT_TIME_HEADER) van de user event die de display name zette;
+    // een ouder event dat later binnenkomt overschrijft de naam niet meer
+    @Column(name = "display_name_version")
+    private Long displayNameVersion;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private RsvpStatus status;
@@ -34,6 +46,10 @@ public class Rsvp {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    // volgorde van de wachtlijst (FIFO), alleen gezet zolang de status WAITLISTED is
+    @Column(name = "waitlisted_at")
+    private LocalDateTime waitlistedAt;
+
     @Column
     private LocalDateTime updatedAt;
 
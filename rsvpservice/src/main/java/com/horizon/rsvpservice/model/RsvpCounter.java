@@ -0,0 +1,36 @@
+package com.horizon.rsvpservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.util.UUID;
+
+/**
+ * Gedenormaliseerd aantal RSVPs per event en status, zodat attendance reads geen COUNT over rsvps nodig hebben.
+ * Wordt alleen via RsvpCounterBatchRepository opgehoogd (rsvp_count = rsvp_count + delta), nooit read-modify-write.
+ */
+@Entity
+@Table(name = "rsvp_counters")
+@IdClass(RsvpCounterId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RsvpCounter {
+    // als tekst opgeslagen zodat de batch upsert de UUID zonder dialect-specifieke conversie kan binden
+    @Id
+    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(name = "event_id", length = 36, nullable = false)
+    private UUID eventId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private RsvpStatus status;
+
+    @Column(name = "rsvp_count", nullable = false)
+    private long count;
+}
@@ -0,0 +1,16 @@
+package com.horizon.rsvpservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RsvpCounterId implements Serializable {
+    private UUID eventId;
+    private RsvpStatus status;
+}
@@ -3,5 +3,7 @@ package com.horizon.rsvpservice.model;
 public enum RsvpStatus {
     ATTENDING,
     NOT_ATTENDING,
-    MAYBE
+    MAYBE,
+    // ATTENDING gevraagd terwijl het event vol zat; wordt automatisch gepromoveerd als er een plek vrijkomt
+    WAITLISTED
 } 
\ No newline at end of file
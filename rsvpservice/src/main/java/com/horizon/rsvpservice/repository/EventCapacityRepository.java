@@ -0,0 +1,31 @@
+package com.horizon.rsvpservice.repository;
+
+import com.horizon.rsvpservice.model.EventCapacity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EventCapacityRepository extends JpaRepository<EventCapacity, UUID> {
+
+    // SELECT ... FOR UPDATE: blijft gelockt tot het einde van de transactie
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from EventCapacity c where c.eventId = :eventId")
+    Optional<EventCapacity> lockByEventId(@Param("eventId") UUID eventId);
+
+    // Maakt de rij aan of raakt de bestaande aan, en houdt in beide gevallen een exclusive record lock vast.
+    // Geen SELECT ... FOR UPDATE op een ontbrekende key vooraf: InnoDB zet daar een gap lock, waarna twee
+    // eerste RSVPs voor hetzelfde event op elkaars insert wachten en deadlocken.
+    @Modifying
+    @Query(value = "INSERT INTO event_capacity (event_id, attending) VALUES (:eventId, 0) "
+            + "ON DUPLICATE KEY UPDATE attending = attending",
+            nativeQuery = true)
+    void insertOrLock(@Param("eventId") UUID eventId);
+}
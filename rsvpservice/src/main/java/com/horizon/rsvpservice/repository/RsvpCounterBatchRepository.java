@@ -0,0 +1,13 @@
+package com.horizon.rsvpservice.repository;
+
+import com.horizon.rsvpservice.model.RsvpCounterId;
+
+import java.util.Map;
+
+public interface RsvpCounterBatchRepository {
+    // telt de deltas in één JDBC batch op bij de bestaande tellers, ontbrekende rijen worden aangemaakt
+    void incrementAll(Map<RsvpCounterId, Long> deltas);
+
+    // voor de backfill: bestaande tellers blijven staan, zodat twee replicas die tegelijk starten niet dubbel tellen
+    void insertMissing(Map<RsvpCounterId, Long> counts);
+}
@@ -0,0 +1,46 @@
+package com.horizon.rsvpservice.repository;
+
+import com.horizon.rsvpservice.model.RsvpCounterId;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Spring Data pikt deze implementatie op via de "Impl" suffix van RsvpCounterBatchRepository
+public class RsvpCounterBatchRepositoryImpl implements RsvpCounterBatchRepository {
+
+    // atomisch optellen in de database, zodat meerdere replicas tegelijk kunnen flushen
+    private static final String UPSERT_SQL =
+            "INSERT INTO rsvp_counters (event_id, status, rsvp_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE rsvp_count = rsvp_count + ?";
+
+    private static final String INSERT_IGNORE_SQL =
+            "INSERT IGNORE INTO rsvp_counters (event_id, status, rsvp_count) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RsvpCounterBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void incrementAll(Map<RsvpCounterId, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> rows.add(new Object[]{id.getEventId().toString(), id.getStatus().name(), delta, delta}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+    }
+
+    @Override
+    public void insertMissing(Map<RsvpCounterId, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(counts.size());
+        counts.forEach((id, count) -> rows.add(new Object[]{id.getEventId().toString(), id.getStatus().name(), count}));
+        jdbcTemplate.batchUpdate(INSERT_IGNORE_SQL, rows);
+    }
+}
@@ -0,0 +1,14 @@
+package com.horizon.rsvpservice.repository;
+
+import com.horizon.rsvpservice.model.RsvpCounter;
+import com.horizon.rsvpservice.model.RsvpCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RsvpCounterRepository extends JpaRepository<RsvpCounter, RsvpCounterId>, RsvpCounterBatchRepository {
+    List<RsvpCounter> findByEventId(UUID eventId);
+}
@@ -2,9 +2,15 @@ package com.horizon.rsvpservice.repository;
 
 import com.horizon.rsvpservice.model.Rsvp;
 import com.horizon.rsvpservice.model.RsvpStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,4 +22,37 @@ public interface RsvpRepository extends JpaRepository<Rsvp, Long> {
     Optional<Rsvp> findByEventIdAndUserId(UUID eventId, String userId);
     List<Rsvp> findByEventIdAndStatus(UUID eventId, RsvpStatus status);
     long countByEventIdAndStatus(UUID eventId, RsvpStatus status);
+
+    // om het event te kunnen locken voordat de RSVP zelf wordt geladen
+    @Query("select r.eventId from Rsvp r where r.id = :id")
+    Optional<UUID> findEventIdById(@Param("id") Long id);
+
+    // wachtlijst in FIFO volgorde; id als tiebreaker bij gelijke timestamps
+    List<Rsvp> findByEventIdAndStatusOrderByWaitlistedAtAscIdAsc(UUID eventId, RsvpStatus status, Limit limit);
+
+    // één UPDATE voor alle RSVPs van een gebruiker; rijen die de naam al hebben worden niet aangeraakt
+    // Alleen rijen met een oudere (of nog geen) versie: renames die door gelijktijdige consumers of een vertraagde
+    // retry in de verkeerde volgorde binnenkomen laten de nieuwste naam staan. Hetzelfde bericht opnieuw is een no-op.
+    @Transactional
+    @Modifying
+    @Query("update Rsvp r set r.userDisplayName = :displayName, r.displayNameVersion = :version, r.updatedAt = :updatedAt " +
+            "where r.userId = :userId and (r.displayNameVersion is null or r.displayNameVersion < :version)")
+    int updateDisplayNameByUserIdIfNewer(@Param("userId") String userId,
+                                         @Param("displayName") String displayName,
+                                         @Param("version") long version,
+                                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Voor berichten zonder event time (van voor de header): nooit over een naam heen die al een versie heeft
+    @Transactional
+    @Modifying
+    @Query("update Rsvp r set r.userDisplayName = :displayName, r.updatedAt = :updatedAt " +
+            "where r.userId = :userId and r.displayNameVersion is null " +
+            "and (r.userDisplayName is null or r.userDisplayName <> :displayName)")
+    int updateDisplayNameByUserId(@Param("userId") String userId,
+                                  @Param("displayName") String displayName,
+                                  @Param("updatedAt") LocalDateTime updatedAt);
+
+    // backfill en reconcile van rsvp_counters
+    @Query("select r.eventId, r.status, count(r) from Rsvp r group by r.eventId, r.status")
+    List<Object[]> countGroupedByEventAndStatus();
 } 
\ No newline at end of file
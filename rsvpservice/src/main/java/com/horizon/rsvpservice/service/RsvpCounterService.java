@@ -0,0 +1,15 @@
+package com.horizon.rsvpservice.service;
+
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
+import com.horizon.rsvpservice.model.RsvpStatus;
+
+import java.util.UUID;
+
+public interface RsvpCounterService {
+    // wordt pas na een geslaagde commit meegeteld, een rollback laat de tellers ongemoeid
+    void recordChange(UUID eventId, RsvpStatus oldStatus, RsvpStatus newStatus);
+    RsvpSummaryDTO getSummary(UUID eventId);
+    void flush();
+    // telt rsvps na en corrigeert tellers die blijvend afwijken
+    void reconcile();
+}
@@ -1,5 +1,6 @@
 package com.horizon.rsvpservice.service;
 
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
 import com.horizon.rsvpservice.model.Rsvp;
 import com.horizon.rsvpservice.model.RsvpStatus;
 
@@ -8,6 +9,7 @@ import java.util.UUID;
 
 public interface RsvpService {
     Rsvp createRsvp(UUID eventId, String userId, RsvpStatus status, String userDisplayName);
+    Rsvp upsertRsvp(UUID eventId, String userId, RsvpStatus status, String userDisplayName);
     Rsvp updateRsvp(Long rsvpId, RsvpStatus status);
     void deleteRsvp(Long rsvpId);
     Rsvp getRsvp(Long rsvpId);
@@ -16,4 +18,6 @@ public interface RsvpService {
     Rsvp getRsvpByEventAndUser(UUID eventId, String userId);
     List<Rsvp> getRsvpsByEventAndStatus(UUID eventId, RsvpStatus status);
     long countRsvpsByEventAndStatus(UUID eventId, RsvpStatus status);
+    RsvpSummaryDTO getRsvpSummary(UUID eventId);
+    void applyEventCapacity(UUID eventId, Integer maxAttendees);
 } 
\ No newline at end of file
@@ -0,0 +1,207 @@
+package com.horizon.rsvpservice.service.impl;
+
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
+import com.horizon.rsvpservice.model.RsvpCounter;
+import com.horizon.rsvpservice.model.RsvpCounterId;
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.RsvpCounterRepository;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Houdt per event en status bij hoeveel RSVPs er zijn. Wijzigingen komen eerst in een LongAdder per
+ * (event, status), zodat veel gelijktijdige RSVPs op één populair event niet op één teller wachten,
+ * en worden periodiek als één JDBC batch bij rsvp_counters opgeteld. Reads lezen de (max. 3) rijen van
+ * het event en tellen de nog niet geflushte deltas van deze replica erbij op.
+ * <p>
+ * Een crash tussen commit en flush verliest deltas, een flush waarvan de commit wel slaagde maar niet
+ * bevestigd werd telt ze dubbel. {@link #reconcile()} telt daarom periodiek rsvps na en corrigeert
+ * afwijkingen die niet vanzelf verdwijnen.
+ */
+@Service
+public class RsvpCounterServiceImpl implements RsvpCounterService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RsvpCounterServiceImpl.class);
+
+    private final RsvpCounterRepository counterRepository;
+    private final RsvpRepository rsvpRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<RsvpCounterId, LongAdder> pending = new ConcurrentHashMap<>();
+    // Adders die bij de vorige flush zijn weggehaald; een increment die net op zo'n adder landde
+    // wordt bij de volgende flush alsnog meegenomen
+    private List<Map.Entry<RsvpCounterId, LongAdder>> retired = new ArrayList<>();
+    // afwijkingen van de vorige reconcile, pas bij een tweede gelijke waarneming wordt er gecorrigeerd
+    private Map<RsvpCounterId, Long> suspectedDrift = new HashMap<>();
+
+    public RsvpCounterServiceImpl(RsvpCounterRepository counterRepository, RsvpRepository rsvpRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.rsvpRepository = rsvpRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void recordChange(UUID eventId, RsvpStatus oldStatus, RsvpStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        Runnable apply = () -> {
+            if (oldStatus != null) add(new RsvpCounterId(eventId, oldStatus), -1);
+            if (newStatus != null) add(new RsvpCounterId(eventId, newStatus), 1);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    @Override
+    public RsvpSummaryDTO getSummary(UUID eventId) {
+        Map<RsvpStatus, Long> counts = new EnumMap<>(RsvpStatus.class);
+        for (RsvpCounter counter : counterRepository.findByEventId(eventId)) {
+            counts.put(counter.getStatus(), counter.getCount());
+        }
+        for (RsvpStatus status : RsvpStatus.values()) {
+            LongAdder local = pending.get(new RsvpCounterId(eventId, status));
+            if (local != null) {
+                counts.merge(status, local.sum(), Long::sum);
+            }
+        }
+        return new RsvpSummaryDTO(eventId,
+                Math.max(0, counts.getOrDefault(RsvpStatus.ATTENDING, 0L)),
+                Math.max(0, counts.getOrDefault(RsvpStatus.NOT_ATTENDING, 0L)),
+                Math.max(0, counts.getOrDefault(RsvpStatus.MAYBE, 0L)),
+                Math.max(0, counts.getOrDefault(RsvpStatus.WAITLISTED, 0L)));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${horizon.rsvp.counters.flush-interval:PT1S}")
+    public synchronized void flush() {
+        Map<RsvpCounterId, Long> deltas = new HashMap<>();
+        for (Map.Entry<RsvpCounterId, LongAdder> entry : retired) {
+            collect(deltas, entry.getKey(), entry.getValue().sumThenReset());
+        }
+        retired = new ArrayList<>();
+
+        for (Map.Entry<RsvpCounterId, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                collect(deltas, entry.getKey(), delta);
+            } else if (pending.remove(entry.getKey(), entry.getValue())) {
+                // geen wijzigingen sinds de vorige flush: adder opruimen zodat de map niet blijft groeien
+                retired.add(entry);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            // één transactie: faalt een deel van de batch, dan is niets opgeteld en mag alles terug
+            transactionTemplate.executeWithoutResult(status -> counterRepository.incrementAll(deltas));
+        } catch (DataAccessException e) {
+            // terugzetten, de volgende flush probeert het opnieuw
+            deltas.forEach(this::add);
+            LOGGER.warn("Could not flush {} RSVP counter deltas, will retry", deltas.size(), e);
+        }
+    }
+
+    /**
+     * Vergelijkt alle tellers met een COUNT over rsvps. Een afwijking kan ook een delta zijn die een andere
+     * replica nog niet geflusht heeft; die is binnen een flush interval weg. Alleen wat bij twee opeenvolgende
+     * controles precies zo afwijkt wordt gecorrigeerd, als delta zodat gelijktijdige flushes niet verloren gaan.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${horizon.rsvp.counters.reconcile-interval:PT10M}",
+            fixedDelayString = "${horizon.rsvp.counters.reconcile-interval:PT10M}")
+    public synchronized void reconcile() {
+        flush();
+        Map<RsvpCounterId, Long> drift = new HashMap<>();
+        Map<RsvpCounterId, Long> actual = countRsvps();
+        for (RsvpCounter counter : counterRepository.findAll()) {
+            RsvpCounterId id = new RsvpCounterId(counter.getEventId(), counter.getStatus());
+            Long count = actual.remove(id);
+            collect(drift, id, (count == null ? 0 : count) - counter.getCount());
+        }
+        actual.forEach((id, count) -> collect(drift, id, count));
+
+        Map<RsvpCounterId, Long> corrections = new HashMap<>();
+        drift.forEach((id, delta) -> {
+            if (delta.equals(suspectedDrift.get(id))) {
+                corrections.put(id, delta);
+            }
+        });
+        corrections.keySet().forEach(drift::remove);
+        suspectedDrift = drift;
+        if (corrections.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> counterRepository.incrementAll(corrections));
+        LOGGER.warn("Corrected {} drifted RSVP counters: {}", corrections.size(), corrections);
+    }
+
+    /**
+     * Eenmalig bij de eerste start met tellers: de bestaande RSVPs tellen. Loopt er al een replica met
+     * tellers, dan is de tabel niet leeg en gebeurt er niets.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (counterRepository.count() > 0) {
+            return;
+        }
+        Map<RsvpCounterId, Long> counts = countRsvps();
+        counterRepository.insertMissing(counts);
+        LOGGER.info("Backfilled {} RSVP counters from existing RSVPs", counts.size());
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    private Map<RsvpCounterId, Long> countRsvps() {
+        Map<RsvpCounterId, Long> counts = new HashMap<>();
+        for (Object[] row : rsvpRepository.countGroupedByEventAndStatus()) {
+            counts.put(new RsvpCounterId((UUID) row[0], (RsvpStatus) row[1]), (Long) row[2]);
+        }
+        return counts;
+    }
+
+    private void add(RsvpCounterId id, long delta) {
+        pending.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+    }
+
+    private static void collect(Map<RsvpCounterId, Long> deltas, RsvpCounterId id, long delta) {
+        if (delta != 0) {
+            deltas.merge(id, delta, Long::sum);
+        }
+    }
+}
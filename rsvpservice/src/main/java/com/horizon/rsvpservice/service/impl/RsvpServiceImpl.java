@@ -1,16 +1,25 @@
 package com.horizon.rsvpservice.service.impl;
 
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
+import com.horizon.rsvpservice.model.EventCapacity;
 import com.horizon.rsvpservice.model.Rsvp;
 import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.EventCapacityRepository;
 import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpCounterService;
 import com.horizon.rsvpservice.service.RsvpService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,7 +27,11 @@ import java.util.UUID;
 @Service
 @RequiredArgsConstructor
 public class RsvpServiceImpl implements RsvpService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RsvpServiceImpl.class);
+
     private final RsvpRepository rsvpRepository;
+    private final EventCapacityRepository capacityRepository;
+    private final RsvpCounterService rsvpCounterService;
 
     @Override
     @Transactional
@@ -26,36 +39,75 @@ public class RsvpServiceImpl implements RsvpService {
         if (eventId == null || userId == null || userId.trim().isEmpty() || status == null) {
             throw new IllegalArgumentException("Event ID, User ID, and Status cannot be null or empty.");
         }
+        rejectWaitlistedStatus(status);
+
+        // eerst de capaciteit locken: daarmee is ook de check op een bestaande RSVP niet meer racy
+        EventCapacity capacity = lockCapacity(eventId);
 
         Optional<Rsvp> existingRsvp = rsvpRepository.findByEventIdAndUserId(eventId, userId);
         if (existingRsvp.isPresent()) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "User has already RSVP'd to this event.");
         }
+        return insertRsvp(eventId, userId, status, userDisplayName, capacity);
+    }
 
-        Rsvp rsvp = new Rsvp();
-        rsvp.setEventId(eventId);
-        rsvp.setUserId(userId);
-        rsvp.setUserDisplayName(userDisplayName);
-        rsvp.setStatus(status);
-        return rsvpRepository.save(rsvp);
+    @Override
+    @Transactional
+    public Rsvp upsertRsvp(UUID eventId, String userId, RsvpStatus status, String userDisplayName) {
+        if (eventId == null || userId == null || userId.trim().isEmpty() || status == null) {
+            throw new IllegalArgumentException("Event ID, User ID, and Status cannot be null or empty.");
+        }
+        rejectWaitlistedStatus(status);
+
+        EventCapacity capacity = lockCapacity(eventId);
+        Optional<Rsvp> existingRsvp = rsvpRepository.findByEventIdAndUserId(eventId, userId);
+        if (existingRsvp.isEmpty()) {
+            return insertRsvp(eventId, userId, status, userDisplayName, capacity);
+        }
+        Rsvp rsvp = existingRsvp.get();
+        if (userDisplayName != null) {
+            rsvp.setUserDisplayName(userDisplayName);
+        }
+        return changeStatus(rsvp, status, capacity);
     }
 
     @Override
     @Transactional
     public Rsvp updateRsvp(Long rsvpId, RsvpStatus status) {
+        rejectWaitlistedStatus(status);
+        UUID eventId = rsvpRepository.findEventIdById(rsvpId)
+                .orElseThrow(() -> new EntityNotFoundException("RSVP not found with id: " + rsvpId));
+        EventCapacity capacity = lockCapacity(eventId);
+        // pas na de lock laden, een promotie in een andere transactie kan de status net hebben gewijzigd
         Rsvp rsvp = rsvpRepository.findById(rsvpId)
                 .orElseThrow(() -> new EntityNotFoundException("RSVP not found with id: " + rsvpId));
-        rsvp.setStatus(status);
-        return rsvpRepository.save(rsvp);
+        return changeStatus(rsvp, status, capacity);
     }
 
     @Override
     @Transactional
     public void deleteRsvp(Long rsvpId) {
-        if (!rsvpRepository.existsById(rsvpId)) {
-            throw new EntityNotFoundException("RSVP not found with id: " + rsvpId);
+        UUID eventId = rsvpRepository.findEventIdById(rsvpId)
+                .orElseThrow(() -> new EntityNotFoundException("RSVP not found with id: " + rsvpId));
+        EventCapacity capacity = lockCapacity(eventId);
+        // laden i.p.v. existsById, de tellers moeten weten welke status er verdwijnt
+        Rsvp rsvp = rsvpRepository.findById(rsvpId)
+                .orElseThrow(() -> new EntityNotFoundException("RSVP not found with id: " + rsvpId));
+        rsvpRepository.delete(rsvp);
+        rsvpCounterService.recordChange(eventId, rsvp.getStatus(), null);
+        if (rsvp.getStatus() == RsvpStatus.ATTENDING) {
+            capacity.setAttending(capacity.getAttending() - 1);
+            promoteFromWaitlist(capacity);
         }
-        rsvpRepository.deleteById(rsvpId);
+    }
+
+    @Override
+    @Transactional
+    public void applyEventCapacity(UUID eventId, Integer maxAttendees) {
+        EventCapacity capacity = lockCapacity(eventId);
+        capacity.setMaxAttendees(maxAttendees);
+        // bij een lager maximum blijven bestaande deelnemers staan, er wordt alleen niemand meer toegelaten
+        promoteFromWaitlist(capacity);
     }
 
     @Override
@@ -88,6 +140,102 @@ public class RsvpServiceImpl implements RsvpService {
 
     @Override
     public long countRsvpsByEventAndStatus(UUID eventId, RsvpStatus status) {
-        return rsvpRepository.countByEventIdAndStatus(eventId, status);
+        RsvpSummaryDTO summary = rsvpCounterService.getSummary(eventId);
+        return switch (status) {
+            case ATTENDING -> summary.getAttending();
+            case NOT_ATTENDING -> summary.getNotAttending();
+            case MAYBE -> summary.getMaybe();
+            case WAITLISTED -> summary.getWaitlisted();
+        };
+    }
+
+    @Override
+    public RsvpSummaryDTO getRsvpSummary(UUID eventId) {
+        return rsvpCounterService.getSummary(eventId);
+    }
+
+    // saveAndFlush zodat een schending van uk_rsvp_event_user hier als 409 eindigt en niet pas bij de commit
+    private Rsvp insertRsvp(UUID eventId, String userId, RsvpStatus status, String userDisplayName, EventCapacity capacity) {
+        Rsvp rsvp = new Rsvp();
+        rsvp.setEventId(eventId);
+        rsvp.setUserId(userId);
+        rsvp.setUserDisplayName(userDisplayName);
+        applyStatus(rsvp, status, capacity);
+        Rsvp saved;
+        try {
+            saved = rsvpRepository.saveAndFlush(rsvp);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "User has already RSVP'd to this event.", e);
+        }
+        rsvpCounterService.recordChange(eventId, null, saved.getStatus());
+        return saved;
+    }
+
+    // Moet onder de lock van de capaciteitsrij worden aangeroepen
+    private Rsvp changeStatus(Rsvp rsvp, RsvpStatus status, EventCapacity capacity) {
+        RsvpStatus oldStatus = rsvp.getStatus();
+        if (oldStatus == status || (oldStatus == RsvpStatus.WAITLISTED && status == RsvpStatus.ATTENDING)) {
+            // al deelnemer, of staat al op de wachtlijst en behoudt zijn plek
+            return rsvpRepository.save(rsvp);
+        }
+        if (oldStatus == RsvpStatus.ATTENDING) {
+            capacity.setAttending(capacity.getAttending() - 1);
+        }
+        applyStatus(rsvp, status, capacity);
+        Rsvp saved = rsvpRepository.save(rsvp);
+        rsvpCounterService.recordChange(rsvp.getEventId(), oldStatus, saved.getStatus());
+        if (oldStatus == RsvpStatus.ATTENDING) {
+            promoteFromWaitlist(capacity);
+        }
+        return saved;
+    }
+
+    // Eerst schrijven, dan lezen: de insert (of no-op update) lockt de rij al, de locking read laadt hem alleen.
+    // Events met RSVPs van voor de capaciteitstabel zijn door V3 gevuld, een nieuwe rij begint dus op 0.
+    private EventCapacity lockCapacity(UUID eventId) {
+        capacityRepository.insertOrLock(eventId);
+        return capacityRepository.lockByEventId(eventId)
+                .orElseThrow(() -> new IllegalStateException("Capacity row for event " + eventId + " missing after insert"));
+    }
+
+    // ATTENDING alleen als er plek is, anders achteraan de wachtlijst
+    private static void applyStatus(Rsvp rsvp, RsvpStatus requested, EventCapacity capacity) {
+        if (requested == RsvpStatus.ATTENDING && !capacity.hasRoom()) {
+            rsvp.setStatus(RsvpStatus.WAITLISTED);
+            rsvp.setWaitlistedAt(LocalDateTime.now());
+            return;
+        }
+        if (requested == RsvpStatus.ATTENDING) {
+            capacity.setAttending(capacity.getAttending() + 1);
+        }
+        rsvp.setStatus(requested);
+        rsvp.setWaitlistedAt(null);
+    }
+
+    private void promoteFromWaitlist(EventCapacity capacity) {
+        if (!capacity.hasRoom()) {
+            return;
+        }
+        Limit limit = capacity.getMaxAttendees() == null
+                ? Limit.unlimited()
+                : Limit.of(capacity.getMaxAttendees() - capacity.getAttending());
+        List<Rsvp> promoted = rsvpRepository.findByEventIdAndStatusOrderByWaitlistedAtAscIdAsc(
+                capacity.getEventId(), RsvpStatus.WAITLISTED, limit);
+        for (Rsvp rsvp : promoted) {
+            rsvp.setStatus(RsvpStatus.ATTENDING);
+            rsvp.setWaitlistedAt(null);
+            capacity.setAttending(capacity.getAttending() + 1);
+            rsvpCounterService.recordChange(capacity.getEventId(), RsvpStatus.WAITLISTED, RsvpStatus.ATTENDING);
+        }
+        if (!promoted.isEmpty()) {
+            rsvpRepository.saveAll(promoted);
+            LOGGER.info("Promoted {} RSVPs from the waitlist of event {}", promoted.size(), capacity.getEventId());
+        }
+    }
+
+    private static void rejectWaitlistedStatus(RsvpStatus status) {
+        if (status == RsvpStatus.WAITLISTED) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "WAITLISTED is assigned automatically when an event is full.");
+        }
     }
-} 
\ No newline at end of file
+}
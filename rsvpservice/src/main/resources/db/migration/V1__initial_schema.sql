@@ -0,0 +1,50 @@
+-- Schema zoals Hibernate (ddl-auto=update) het tot nu toe aanmaakte. Bestaande databases worden door
+-- spring.flyway.baseline-on-migrate op versie 0 gezet, dus ook daar draait dit script: alles is idempotent en
+-- vult alleen aan wat een oudere database nog mist (tabellen van na de RSVP tellers, waitlisted_at, de index).
+-- uk_rsvp_event_user komt pas in V2, na het opruimen van dubbele RSVPs.
+
+CREATE TABLE IF NOT EXISTS rsvps (
+    created_at        DATETIME(6)  NOT NULL,
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    updated_at        DATETIME(6),
+    waitlisted_at     DATETIME(6),
+    event_id          BINARY(16)   NOT NULL,
+    status            ENUM ('ATTENDING','MAYBE','NOT_ATTENDING','WAITLISTED') NOT NULL,
+    user_display_name VARCHAR(255),
+    user_id           VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- databases van voor de wachtlijst hebben nog geen waitlisted_at
+SET @add_waitlisted_at = (
+    SELECT IF(COUNT(*) = 0, 'ALTER TABLE rsvps ADD COLUMN waitlisted_at DATETIME(6)', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'rsvps' AND column_name = 'waitlisted_at'
+);
+PREPARE add_waitlisted_at FROM @add_waitlisted_at;
+EXECUTE add_waitlisted_at;
+DEALLOCATE PREPARE add_waitlisted_at;
+
+SET @add_event_status_index = (
+    SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_rsvp_event_status ON rsvps (event_id, status)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'rsvps' AND index_name = 'idx_rsvp_event_status'
+);
+PREPARE add_event_status_index FROM @add_event_status_index;
+EXECUTE add_event_status_index;
+DEALLOCATE PREPARE add_event_status_index;
+
+CREATE TABLE IF NOT EXISTS rsvp_counters (
+    rsvp_count BIGINT   NOT NULL,
+    status     ENUM ('ATTENDING','MAYBE','NOT_ATTENDING','WAITLISTED') NOT NULL,
+    event_id   CHAR(36) NOT NULL,
+    PRIMARY KEY (status, event_id)
+) ENGINE = InnoDB;
+
+-- V3 vult de tabel voor bestaande RSVPs, daarna maakt de eerste RSVP write de rij aan (RsvpServiceImpl.lockCapacity)
+CREATE TABLE IF NOT EXISTS event_capacity (
+    attending     INT        NOT NULL,
+    max_attendees INT,
+    event_id      BINARY(16) NOT NULL,
+    PRIMARY KEY (event_id)
+) ENGINE = InnoDB;
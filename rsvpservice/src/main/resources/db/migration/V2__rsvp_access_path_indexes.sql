@@ -0,0 +1,73 @@
+-- Eén index per access path van RsvpRepository:
+--   findByEventId, findByEventIdAndUserId  -> uk_rsvp_event_user (event_id, user_id)
+--   findByEventIdAndStatus, countByEventIdAndStatus,
+--   wachtlijst op volgorde                 -> idx_rsvp_event_status (event_id, status, waitlisted_at), covering voor de count
+--   findByUserId, display name updates     -> idx_rsvp_user (user_id)
+-- Elke DDL kijkt eerst in information_schema, zodat het script op elke eerdere staat van de database werkt.
+
+-- In één ALTER zodat een grote tabel maar één keer wordt herbouwd. ddl-auto=update paste bestaande enum
+-- kolommen niet aan, dus databases van voor de wachtlijst kennen WAITLISTED nog niet.
+SET @rsvps_indexes = (
+    SELECT CONCAT('ALTER TABLE rsvps MODIFY status ENUM (''ATTENDING'',''MAYBE'',''NOT_ATTENDING'',''WAITLISTED'') NOT NULL',
+                  IF(SUM(index_name = 'idx_rsvp_event_status') > 0, ', DROP INDEX idx_rsvp_event_status', ''),
+                  ', ADD INDEX idx_rsvp_event_status (event_id, status, waitlisted_at)',
+                  IF(SUM(index_name = 'idx_rsvp_user') > 0, '', ', ADD INDEX idx_rsvp_user (user_id)'))
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'rsvps'
+);
+PREPARE rsvps_indexes FROM @rsvps_indexes;
+EXECUTE rsvps_indexes;
+DEALLOCATE PREPARE rsvps_indexes;
+
+-- Tellers worden per event gelezen, dus event_id vooraan in de primary key
+SET @counters_key = (
+    SELECT CONCAT('ALTER TABLE rsvp_counters MODIFY status ENUM (''ATTENDING'',''MAYBE'',''NOT_ATTENDING'',''WAITLISTED'') NOT NULL',
+                  CASE
+                      WHEN SUM(seq_in_index = 1 AND column_name = 'event_id') > 0 THEN ''
+                      WHEN COUNT(*) > 0 THEN ', DROP PRIMARY KEY, ADD PRIMARY KEY (event_id, status)'
+                      ELSE ', ADD PRIMARY KEY (event_id, status)'
+                  END)
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'rsvp_counters' AND index_name = 'PRIMARY'
+);
+PREPARE counters_key FROM @counters_key;
+EXECUTE counters_key;
+DEALLOCATE PREPARE counters_key;
+
+-- Hibernate kon uk_rsvp_event_user niet toevoegen als er al dubbele RSVPs waren: oudste houden, dan alsnog toevoegen.
+-- Eerst de tellers en het aantal deelnemers corrigeren voor de rijen die verdwijnen (DISTINCT: een rij kan
+-- meerdere oudere dubbelen hebben). Een lege tellertabel wordt later uit rsvps gevuld en hoeft niets.
+CREATE TEMPORARY TABLE removed_duplicate_rsvps AS
+SELECT DISTINCT newer.id, newer.event_id, newer.status
+FROM rsvps newer
+    JOIN rsvps older ON newer.event_id = older.event_id AND newer.user_id = older.user_id AND newer.id > older.id;
+
+UPDATE rsvp_counters counters
+    JOIN (SELECT BIN_TO_UUID(event_id) AS event_uuid, status, COUNT(*) AS removed
+          FROM removed_duplicate_rsvps
+          GROUP BY event_id, status) removed
+        ON counters.event_id = removed.event_uuid AND counters.status = removed.status
+SET counters.rsvp_count = GREATEST(counters.rsvp_count - removed.removed, 0);
+
+UPDATE event_capacity capacity
+    JOIN (SELECT event_id, COUNT(*) AS removed
+          FROM removed_duplicate_rsvps
+          WHERE status = 'ATTENDING'
+          GROUP BY event_id) removed
+        ON capacity.event_id = removed.event_id
+SET capacity.attending = GREATEST(capacity.attending - removed.removed, 0);
+
+DELETE rsvps
+FROM rsvps
+    JOIN removed_duplicate_rsvps removed ON rsvps.id = removed.id;
+
+DROP TEMPORARY TABLE removed_duplicate_rsvps;
+
+SET @add_unique_key = (
+    SELECT IF(COUNT(*) = 0, 'ALTER TABLE rsvps ADD CONSTRAINT uk_rsvp_event_user UNIQUE (event_id, user_id)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'rsvps' AND index_name = 'uk_rsvp_event_user'
+);
+PREPARE add_unique_key FROM @add_unique_key;
+EXECUTE add_unique_key;
+DEALLOCATE PREPARE add_unique_key;
@@ -0,0 +1,7 @@
+-- Elk event met RSVPs krijgt een capaciteitsrij met het huidige aantal deelnemers. RsvpServiceImpl.lockCapacity
+-- telt dan niet meer zelf bij de eerste write: die maakt een ontbrekende rij met 0 deelnemers aan.
+-- IGNORE: bestaande rijen (al gevuld bij een eerdere write) blijven staan.
+INSERT IGNORE INTO event_capacity (event_id, attending)
+SELECT event_id, SUM(status = 'ATTENDING')
+FROM rsvps
+GROUP BY event_id;
@@ -0,0 +1,3 @@
+-- Event time van de user event die user_display_name zette, zodat een oudere rename die later binnenkomt
+-- de nieuwere naam niet overschrijft. Bestaande rijen houden NULL: de eerstvolgende rename wint altijd.
+ALTER TABLE rsvps ADD COLUMN display_name_version BIGINT;
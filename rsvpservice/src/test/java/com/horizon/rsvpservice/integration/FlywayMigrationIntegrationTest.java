@@ -0,0 +1,147 @@
+package com.horizon.rsvpservice.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// De migraties zijn MySQL specifiek (het test profile draait H2 zonder Flyway), dus hier tegen een echte MySQL.
+// Elke test krijgt een eigen schema in een eerdere staat van de database en migreert zoals de service dat doet.
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationIntegrationTest {
+
+    private static final String EVENT = "6f1c2d3e-4a5b-4c6d-8e7f-90a1b2c3d4e5";
+    private static final AtomicInteger SCHEMAS = new AtomicInteger();
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        String schema = "migration_" + SCHEMAS.incrementAndGet();
+        JdbcTemplate root = new JdbcTemplate(dataSource(mysql.getJdbcUrl()));
+        root.execute("CREATE DATABASE " + schema);
+        jdbc = new JdbcTemplate(dataSource(mysql.getJdbcUrl().replace("/" + mysql.getDatabaseName(), "/" + schema)));
+    }
+
+    @Test
+    void migrate_shouldCreateFullSchemaOnEmptyDatabase() {
+        migrate();
+
+        assertEquals(List.of("idx_rsvp_event_status", "idx_rsvp_user", "uk_rsvp_event_user"), rsvpIndexes());
+        assertEquals("event_id", counterKeyColumns().get(0));
+        assertEquals(0, count("SELECT COUNT(*) FROM event_capacity"));
+    }
+
+    @Test
+    void migrate_shouldUpgradeDatabaseFromBeforeCountersAndWaitlist() {
+        // zoals ddl-auto=update het vóór de RSVP tellers aanmaakte: geen waitlisted_at, geen indexes, geen WAITLISTED
+        jdbc.execute("""
+                CREATE TABLE rsvps (
+                    created_at DATETIME(6) NOT NULL, id BIGINT NOT NULL AUTO_INCREMENT, updated_at DATETIME(6),
+                    event_id BINARY(16) NOT NULL, status ENUM ('ATTENDING','MAYBE','NOT_ATTENDING') NOT NULL,
+                    user_display_name VARCHAR(255), user_id VARCHAR(255) NOT NULL, PRIMARY KEY (id)) ENGINE = InnoDB""");
+        insertRsvp("alice", "ATTENDING");
+        insertRsvp("alice", "MAYBE");
+        insertRsvp("bob", "ATTENDING");
+
+        migrate();
+
+        assertEquals(List.of("idx_rsvp_event_status", "idx_rsvp_user", "uk_rsvp_event_user"), rsvpIndexes());
+        assertEquals(1, count("SELECT COUNT(*) FROM information_schema.columns WHERE table_schema = DATABASE()"
+                + " AND table_name = 'rsvps' AND column_name = 'waitlisted_at'"));
+        // de oudste RSVP van alice blijft
+        assertEquals(2, count("SELECT COUNT(*) FROM rsvps"));
+        assertEquals(2, count("SELECT COUNT(*) FROM rsvps WHERE status = 'ATTENDING'"));
+        // V3: de bestaande deelnemers tellen mee voor de capaciteit
+        assertEquals(2, count("SELECT attending FROM event_capacity"));
+        assertEquals("event_id", counterKeyColumns().get(0));
+    }
+
+    @Test
+    void migrate_shouldCorrectCountersAndCapacityForRemovedDuplicates() {
+        // staat na de tellers en de wachtlijst, met dubbele RSVPs omdat de unique key nooit is toegevoegd
+        jdbc.execute("""
+                CREATE TABLE rsvps (
+                    created_at DATETIME(6) NOT NULL, id BIGINT NOT NULL AUTO_INCREMENT, updated_at DATETIME(6),
+                    waitlisted_at DATETIME(6), event_id BINARY(16) NOT NULL,
+                    status ENUM ('ATTENDING','MAYBE','NOT_ATTENDING','WAITLISTED') NOT NULL,
+                    user_display_name VARCHAR(255), user_id VARCHAR(255) NOT NULL, PRIMARY KEY (id)) ENGINE = InnoDB""");
+        jdbc.execute("CREATE INDEX idx_rsvp_event_status ON rsvps (event_id, status)");
+        jdbc.execute("""
+                CREATE TABLE rsvp_counters (
+                    rsvp_count BIGINT NOT NULL, status ENUM ('ATTENDING','MAYBE','NOT_ATTENDING','WAITLISTED') NOT NULL,
+                    event_id CHAR(36) NOT NULL, PRIMARY KEY (status, event_id)) ENGINE = InnoDB""");
+        jdbc.execute("""
+                CREATE TABLE event_capacity (
+                    attending INT NOT NULL, max_attendees INT, event_id BINARY(16) NOT NULL,
+                    PRIMARY KEY (event_id)) ENGINE = InnoDB""");
+        insertRsvp("alice", "ATTENDING");
+        insertRsvp("alice", "ATTENDING");
+        insertRsvp("alice", "ATTENDING");
+        insertRsvp("bob", "ATTENDING");
+        insertRsvp("bob", "MAYBE");
+        jdbc.update("INSERT INTO rsvp_counters (rsvp_count, status, event_id) VALUES (4, 'ATTENDING', ?), (1, 'MAYBE', ?)",
+                EVENT, EVENT);
+        jdbc.update("INSERT INTO event_capacity (attending, max_attendees, event_id) VALUES (4, 10, UUID_TO_BIN(?))", EVENT);
+
+        migrate();
+
+        assertEquals(2, count("SELECT COUNT(*) FROM rsvps"));
+        assertEquals(2, count("SELECT rsvp_count FROM rsvp_counters WHERE status = 'ATTENDING'"));
+        assertEquals(0, count("SELECT rsvp_count FROM rsvp_counters WHERE status = 'MAYBE'"));
+        assertEquals(2, count("SELECT attending FROM event_capacity"));
+        assertEquals(List.of("event_id", "status"), counterKeyColumns());
+    }
+
+    // dezelfde instellingen als spring.flyway.* in application.properties
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(jdbc.getDataSource())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private void insertRsvp(String userId, String status) {
+        jdbc.update("INSERT INTO rsvps (created_at, event_id, status, user_id) VALUES (NOW(6), UUID_TO_BIN(?), ?, ?)",
+                EVENT, status, userId);
+    }
+
+    private List<String> rsvpIndexes() {
+        return jdbc.queryForList("SELECT DISTINCT index_name FROM information_schema.statistics"
+                + " WHERE table_schema = DATABASE() AND table_name = 'rsvps' AND index_name <> 'PRIMARY'"
+                + " ORDER BY index_name", String.class);
+    }
+
+    private List<String> counterKeyColumns() {
+        return jdbc.queryForList("SELECT column_name FROM information_schema.statistics"
+                + " WHERE table_schema = DATABASE() AND table_name = 'rsvp_counters' AND index_name = 'PRIMARY'"
+                + " ORDER BY seq_in_index", String.class);
+    }
+
+    private long count(String sql) {
+        Long result = jdbc.queryForObject(sql, Long.class);
+        assertTrue(result != null);
+        return result;
+    }
+
+    // root: alleen die mag de extra schema's aanmaken (MySQLContainer zet hetzelfde wachtwoord voor root)
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, "root", mysql.getPassword());
+    }
+}
@@ -0,0 +1,187 @@
+package com.horizon.rsvpservice.integration;
+
+import com.horizon.rsvpservice.model.EventCapacity;
+import com.horizon.rsvpservice.model.Rsvp;
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.EventCapacityRepository;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Draait op H2 (test profile); de capaciteitsrij wordt met SELECT ... FOR UPDATE gelockt, net als op MySQL
+@SpringBootTest
+@ActiveProfiles("test")
+class RsvpCapacityConcurrencyIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 2000;
+    private static final int CAPACITY = 50;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private RsvpService rsvpService;
+
+    @Autowired
+    private RsvpRepository rsvpRepository;
+
+    @Autowired
+    private EventCapacityRepository capacityRepository;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        rsvpRepository.deleteAll();
+        capacityRepository.deleteAll();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentAttendingRsvps_shouldNeverExceedCapacity() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.applyEventCapacity(eventId, CAPACITY);
+
+        List<Callable<Rsvp>> tasks = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            String userId = "user-" + i;
+            tasks.add(() -> rsvpService.createRsvp(eventId, userId, RsvpStatus.ATTENDING, userId));
+        }
+
+        runSimultaneously(tasks);
+
+        assertEquals(CAPACITY, rsvpRepository.countByEventIdAndStatus(eventId, RsvpStatus.ATTENDING));
+        assertEquals(REQUESTS - CAPACITY, rsvpRepository.countByEventIdAndStatus(eventId, RsvpStatus.WAITLISTED));
+        assertEquals(CAPACITY, capacityRepository.findById(eventId).orElseThrow().getAttending());
+    }
+
+    @Test
+    void concurrentCancellations_shouldPromoteWaitlistInFifoOrder() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.applyEventCapacity(eventId, CAPACITY);
+        for (int i = 0; i < CAPACITY + 100; i++) {
+            rsvpService.createRsvp(eventId, "user-" + i, RsvpStatus.ATTENDING, null);
+        }
+        List<Rsvp> waitlist = waitlistInOrder(eventId);
+        List<Rsvp> attending = rsvpRepository.findByEventIdAndStatus(eventId, RsvpStatus.ATTENDING);
+
+        // helft annuleert, helft verandert naar NOT_ATTENDING, terwijl er nog nieuwe aanmeldingen binnenkomen
+        int cancellations = 30;
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < cancellations; i++) {
+            Long rsvpId = attending.get(i).getId();
+            if (i % 2 == 0) {
+                tasks.add(() -> {
+                    rsvpService.deleteRsvp(rsvpId);
+                    return null;
+                });
+            } else {
+                tasks.add(() -> rsvpService.updateRsvp(rsvpId, RsvpStatus.NOT_ATTENDING));
+            }
+        }
+        for (int i = 0; i < 200; i++) {
+            String userId = "late-user-" + i;
+            tasks.add(() -> rsvpService.createRsvp(eventId, userId, RsvpStatus.ATTENDING, null));
+        }
+        runSimultaneously(tasks);
+
+        assertEquals(CAPACITY, rsvpRepository.countByEventIdAndStatus(eventId, RsvpStatus.ATTENDING));
+        assertEquals(CAPACITY, capacityRepository.findById(eventId).orElseThrow().getAttending());
+        // de eerste 30 van de oorspronkelijke wachtlijst zijn doorgeschoven, niet de late aanmeldingen
+        for (int i = 0; i < waitlist.size(); i++) {
+            RsvpStatus expected = i < cancellations ? RsvpStatus.ATTENDING : RsvpStatus.WAITLISTED;
+            assertEquals(expected, rsvpRepository.findById(waitlist.get(i).getId()).orElseThrow().getStatus());
+        }
+    }
+
+    @Test
+    void concurrentDuplicateRsvps_shouldCreateOnlyOne() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        List<Callable<Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(() -> {
+                try {
+                    return rsvpService.createRsvp(eventId, "same-user", RsvpStatus.ATTENDING, null);
+                } catch (ResponseStatusException e) {
+                    conflicts.incrementAndGet();
+                    return null;
+                }
+            });
+        }
+        runSimultaneously(tasks);
+
+        assertEquals(1, rsvpRepository.findByEventId(eventId).size());
+        assertEquals(99, conflicts.get());
+    }
+
+    @Test
+    void raisingCapacity_shouldPromoteWaitlistedRsvps() {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.applyEventCapacity(eventId, 2);
+        for (int i = 0; i < 5; i++) {
+            rsvpService.createRsvp(eventId, "user-" + i, RsvpStatus.ATTENDING, null);
+        }
+
+        rsvpService.applyEventCapacity(eventId, 4);
+
+        EventCapacity capacity = capacityRepository.findById(eventId).orElseThrow();
+        assertEquals(4, capacity.getAttending());
+        assertEquals(4, rsvpRepository.countByEventIdAndStatus(eventId, RsvpStatus.ATTENDING));
+        Rsvp last = rsvpRepository.findByEventIdAndUserId(eventId, "user-4").orElseThrow();
+        assertEquals(RsvpStatus.WAITLISTED, last.getStatus());
+    }
+
+    private List<Rsvp> waitlistInOrder(UUID eventId) {
+        List<Rsvp> waitlist = new ArrayList<>(rsvpRepository.findByEventIdAndStatus(eventId, RsvpStatus.WAITLISTED));
+        waitlist.sort(Comparator.comparing(Rsvp::getWaitlistedAt).thenComparing(Rsvp::getId));
+        return waitlist;
+    }
+
+    // alle taken wachten op hetzelfde startsein, zodat ze echt tegelijk op dezelfde capaciteitsrij botsen
+    private <T> void runSimultaneously(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                return task.call();
+            }));
+        }
+        startSignal.countDown();
+        for (Future<T> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        assertTrue(futures.stream().allMatch(Future::isDone));
+    }
+}
@@ -0,0 +1,96 @@
+package com.horizon.rsvpservice.integration;
+
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.EventCapacityRepository;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// InnoDB locking laat zich niet op H2 nabootsen: hier tegen MySQL met het schema uit de Flyway migraties
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class RsvpCapacityMySqlIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int EVENTS = 20;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driverClassName", mysql::getDriverClassName);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+    }
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private RsvpService rsvpService;
+
+    @Autowired
+    private RsvpRepository rsvpRepository;
+
+    @Autowired
+    private EventCapacityRepository capacityRepository;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentFirstRsvps_shouldNotDeadlockOnTheMissingCapacityRow() throws Exception {
+        for (int e = 0; e < EVENTS; e++) {
+            UUID eventId = UUID.randomUUID();
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String userId = "user-" + i;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    return rsvpService.createRsvp(eventId, userId, RsvpStatus.ATTENDING, null);
+                }));
+            }
+            startSignal.countDown();
+            // een deadlock zou hier als DeadlockLoserDataAccessException naar boven komen
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            assertEquals(THREADS, rsvpRepository.countByEventIdAndStatus(eventId, RsvpStatus.ATTENDING));
+            assertEquals(THREADS, capacityRepository.findById(eventId).orElseThrow().getAttending());
+        }
+    }
+}
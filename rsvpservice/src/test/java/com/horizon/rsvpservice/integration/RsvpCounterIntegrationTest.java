@@ -0,0 +1,150 @@
+package com.horizon.rsvpservice.integration;
+
+import com.horizon.rsvpservice.dto.RsvpSummaryDTO;
+import com.horizon.rsvpservice.model.RsvpCounter;
+import com.horizon.rsvpservice.model.RsvpCounterId;
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.RsvpCounterRepository;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpCounterService;
+import com.horizon.rsvpservice.service.RsvpService;
+import com.horizon.rsvpservice.service.impl.RsvpCounterServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Draait op H2 (test profile); scheduling staat uit, de tests flushen en reconcilen zelf
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RsvpCounterIntegrationTest {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RsvpService rsvpService;
+
+    @Autowired
+    private RsvpCounterService counterService;
+
+    @Autowired
+    private RsvpCounterRepository counterRepository;
+
+    @Autowired
+    private RsvpRepository rsvpRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void summaryEndpoint_shouldCountFlushedAndPendingRsvps() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.applyEventCapacity(eventId, 1);
+        rsvpService.createRsvp(eventId, "alice", RsvpStatus.ATTENDING, null);
+        rsvpService.createRsvp(eventId, "bob", RsvpStatus.ATTENDING, null);
+        counterService.flush();
+        rsvpService.createRsvp(eventId, "carol", RsvpStatus.MAYBE, null);
+        when(jwtDecoder.decode("token")).thenReturn(Jwt.withTokenValue("token")
+                .header("alg", "none").subject("alice").build());
+
+        // carol staat nog alleen in de deltas van deze replica
+        mockMvc.perform(get("/rsvps/event/{eventId}/summary", eventId).header("Authorization", "Bearer token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventId").value(eventId.toString()))
+                .andExpect(jsonPath("$.attending").value(1))
+                .andExpect(jsonPath("$.waitlisted").value(1))
+                .andExpect(jsonPath("$.maybe").value(1))
+                .andExpect(jsonPath("$.notAttending").value(0));
+    }
+
+    @Test
+    void flush_shouldWritePendingDeltasToTheCounterTable() {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.createRsvp(eventId, "alice", RsvpStatus.ATTENDING, null);
+        Long rsvpId = rsvpService.createRsvp(eventId, "bob", RsvpStatus.ATTENDING, null).getId();
+        rsvpService.updateRsvp(rsvpId, RsvpStatus.NOT_ATTENDING);
+
+        counterService.flush();
+
+        assertEquals(Map.of(RsvpStatus.ATTENDING, 1L, RsvpStatus.NOT_ATTENDING, 1L), storedCounts(eventId));
+        assertEquals(new RsvpSummaryDTO(eventId, 1, 1, 0, 0), counterService.getSummary(eventId));
+    }
+
+    @Test
+    void flush_shouldRollBackAPartialBatchAndRetryItExactlyOnce() {
+        UUID eventId = UUID.randomUUID();
+        // de batch wordt geschreven en faalt daarna, zoals een verbinding die halverwege wegvalt
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        RsvpCounterRepository failingRepository = mock(RsvpCounterRepository.class, delegatesTo(counterRepository));
+        doAnswer(invocation -> {
+            counterRepository.incrementAll(invocation.getArgument(0));
+            if (failNext.getAndSet(false)) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            return null;
+        }).when(failingRepository).incrementAll(anyMap());
+        RsvpCounterServiceImpl service = new RsvpCounterServiceImpl(failingRepository, rsvpRepository, transactionManager);
+        service.recordChange(eventId, null, RsvpStatus.ATTENDING);
+        service.recordChange(eventId, null, RsvpStatus.MAYBE);
+
+        service.flush();
+        assertEquals(Map.of(), storedCounts(eventId));
+        assertEquals(new RsvpSummaryDTO(eventId, 1, 0, 1, 0), service.getSummary(eventId));
+
+        service.flush();
+        assertEquals(Map.of(RsvpStatus.ATTENDING, 1L, RsvpStatus.MAYBE, 1L), storedCounts(eventId));
+    }
+
+    @Test
+    void reconcile_shouldCorrectOnlyDriftThatPersists() {
+        UUID eventId = UUID.randomUUID();
+        rsvpService.createRsvp(eventId, "alice", RsvpStatus.ATTENDING, null);
+        counterService.flush();
+        // dubbel geflusht, en een teller zonder RSVPs
+        counterRepository.incrementAll(Map.of(
+                new RsvpCounterId(eventId, RsvpStatus.ATTENDING), 2L,
+                new RsvpCounterId(eventId, RsvpStatus.MAYBE), 1L));
+
+        counterService.reconcile();
+        assertEquals(Map.of(RsvpStatus.ATTENDING, 3L, RsvpStatus.MAYBE, 1L), storedCounts(eventId));
+
+        counterService.reconcile();
+        assertEquals(Map.of(RsvpStatus.ATTENDING, 1L, RsvpStatus.MAYBE, 0L), storedCounts(eventId));
+        assertEquals(new RsvpSummaryDTO(eventId, 1, 0, 0, 0), counterService.getSummary(eventId));
+    }
+
+    private Map<RsvpStatus, Long> storedCounts(UUID eventId) {
+        Map<RsvpStatus, Long> counts = new EnumMap<>(RsvpStatus.class);
+        for (RsvpCounter counter : counterRepository.findByEventId(eventId)) {
+            counts.put(counter.getStatus(), counter.getCount());
+        }
+        return counts;
+    }
+}
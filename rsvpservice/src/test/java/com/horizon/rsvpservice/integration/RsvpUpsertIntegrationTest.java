@@ -0,0 +1,100 @@
+package com.horizon.rsvpservice.integration;
+
+import com.horizon.rsvpservice.model.Rsvp;
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.EventCapacityRepository;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import com.horizon.rsvpservice.service.RsvpService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RsvpUpsertIntegrationTest {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private RsvpService rsvpService;
+
+    @Autowired
+    private RsvpRepository rsvpRepository;
+
+    @Autowired
+    private EventCapacityRepository capacityRepository;
+
+    @BeforeEach
+    void setUp() {
+        rsvpRepository.deleteAll();
+        capacityRepository.deleteAll();
+    }
+
+    @Test
+    void upsert_shouldBeIdempotentUnderConcurrentRetries() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Rsvp>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(executor.submit(() -> rsvpService.upsertRsvp(eventId, "retrying-user", RsvpStatus.MAYBE, "retrier")));
+            }
+            // geen enkele retry mag falen, en allemaal krijgen ze dezelfde RSVP terug
+            Long id = futures.get(0).get(30, TimeUnit.SECONDS).getId();
+            for (Future<Rsvp> future : futures) {
+                assertEquals(id, future.get(30, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, rsvpRepository.findByEventId(eventId).size());
+    }
+
+    @Test
+    void upsert_shouldChangeStatusOfExistingRsvp() {
+        UUID eventId = UUID.randomUUID();
+        Rsvp created = rsvpService.upsertRsvp(eventId, "user-1", RsvpStatus.MAYBE, "user one");
+
+        Rsvp updated = rsvpService.upsertRsvp(eventId, "user-1", RsvpStatus.ATTENDING, "user one");
+
+        assertEquals(created.getId(), updated.getId());
+        assertEquals(RsvpStatus.ATTENDING, rsvpRepository.findById(created.getId()).orElseThrow().getStatus());
+        assertEquals(1, capacityRepository.findById(eventId).orElseThrow().getAttending());
+    }
+
+    @Test
+    void database_shouldRejectDuplicateRsvpForSameEventAndUser() {
+        UUID eventId = UUID.randomUUID();
+        rsvpRepository.saveAndFlush(newRsvp(eventId, "user-1"));
+
+        // ook buiten de service om (andere code paden, handmatige inserts) houdt de unique index dit tegen
+        assertThrows(DataIntegrityViolationException.class,
+                () -> rsvpRepository.saveAndFlush(newRsvp(eventId, "user-1")));
+    }
+
+    private static Rsvp newRsvp(UUID eventId, String userId) {
+        Rsvp rsvp = new Rsvp();
+        rsvp.setEventId(eventId);
+        rsvp.setUserId(userId);
+        rsvp.setStatus(RsvpStatus.MAYBE);
+        return rsvp;
+    }
+}
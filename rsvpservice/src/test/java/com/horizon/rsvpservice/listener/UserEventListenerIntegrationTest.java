@@ -0,0 +1,261 @@
+package com.horizon.rsvpservice.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.codec.PayloadFormat;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.eventbus.retry.RetryRoutingAdvice;
+import com.horizon.eventbus.retry.RetryTopology;
+import com.horizon.rsvpservice.config.RabbitMQConfig;
+import com.horizon.rsvpservice.model.Rsvp;
+import com.horizon.rsvpservice.model.RsvpStatus;
+import com.horizon.rsvpservice.repository.RsvpRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserEventListenerIntegrationTest {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private UserEventListener listener;
+
+    @Autowired
+    private RsvpRepository rsvpRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RetryTopology retryTopology;
+
+    @Autowired
+    @Qualifier(RabbitMQConfig.USER_EVENTS_CONTAINER_FACTORY)
+    private SimpleRabbitListenerContainerFactory userEventsContainerFactory;
+
+    @BeforeEach
+    void setUp() {
+        rsvpRepository.deleteAll();
+    }
+
+    @Test
+    void failedDeliveries_shouldGoThroughRetryTopologyInsteadOfStraightBackOnTheQueue() {
+        assertTrue(retryTopology.isRetryable(RabbitMQConfig.RSVP_USER_EVENTS_QUEUE_NAME));
+        assertTrue(retryTopology.isRetryable(RabbitMQConfig.RSVP_EVENT_CAPACITY_QUEUE_NAME));
+        assertTrue(Arrays.stream(userEventsContainerFactory.getAdviceChain())
+                .anyMatch(RetryRoutingAdvice.class::isInstance));
+    }
+
+    @Test
+    void profileUpdate_shouldRenameAllRsvpsOfUserOnly() {
+        seedRsvps("power-user", 250, "old-name");
+        seedRsvps("other-user", 3, "other-name");
+
+        listener.onUserEvents(List.of(profileUpdated("power-user", "new-name")));
+
+        assertTrue(rsvpRepository.findByUserId("power-user").stream()
+                .allMatch(rsvp -> "new-name".equals(rsvp.getUserDisplayName()) && rsvp.getUpdatedAt() != null));
+        assertTrue(rsvpRepository.findByUserId("other-user").stream()
+                .allMatch(rsvp -> "other-name".equals(rsvp.getUserDisplayName())));
+        DistributionSummary rows = meterRegistry.find(UserEventListener.DISPLAY_NAME_ROWS_SUMMARY)
+                .tag("type", "UserProfileUpdatedEvent").summary();
+        assertEquals(250, rows.max());
+    }
+
+    @Test
+    void registration_shouldSkipRowsThatAlreadyHaveTheName() {
+        seedRsvps("new-user", 5, "same-name");
+        Rsvp unnamed = rsvpRepository.findByUserId("new-user").get(0);
+        unnamed.setUserDisplayName(null);
+        rsvpRepository.save(unnamed);
+
+        listener.onUserEvents(List.of(registered("new-user", "same-name")));
+
+        assertTrue(rsvpRepository.findByUserId("new-user").stream()
+                .allMatch(rsvp -> "same-name".equals(rsvp.getUserDisplayName())));
+        DistributionSummary rows = meterRegistry.find(UserEventListener.DISPLAY_NAME_ROWS_SUMMARY)
+                .tag("type", "UserRegisteredEvent").summary();
+        assertEquals(1, rows.max());
+    }
+
+    @Test
+    void batch_shouldApplyOnlyLatestNamePerUserAndSkipBrokenMessages() {
+        seedRsvps("renamed-twice", 4, "first");
+        seedRsvps("imported", 2, null);
+        Message broken = MessageBuilder.withBody("{not json".getBytes(StandardCharsets.UTF_8))
+                .setReceivedRoutingKey(RabbitMQConfig.USER_REGISTERED_ROUTING_KEY)
+                .build();
+
+        listener.onUserEvents(List.of(
+                profileUpdated("renamed-twice", "second"),
+                broken,
+                registered("imported", "imported-name"),
+                profileUpdated("renamed-twice", "third")));
+
+        assertTrue(rsvpRepository.findByUserId("renamed-twice").stream()
+                .allMatch(rsvp -> "third".equals(rsvp.getUserDisplayName())));
+        assertTrue(rsvpRepository.findByUserId("imported").stream()
+                .allMatch(rsvp -> "imported-name".equals(rsvp.getUserDisplayName())));
+        // twee users, dus twee UPDATEs voor vier berichten
+        assertEquals(2, meterRegistry.find(UserEventListener.BATCH_USERS_SUMMARY).summary().max());
+    }
+
+    @Test
+    void olderRenameArrivingLater_shouldNotOverwriteTheNewerName() {
+        seedRsvps("renamed-user", 3, "original");
+
+        // twee consumers, of de oudere rename kwam via een retry queue: de nieuwere is eerst verwerkt
+        listener.onUserEvents(List.of(at(200, profileUpdated("renamed-user", "newest"))));
+        listener.onUserEvents(List.of(at(100, profileUpdated("renamed-user", "older"))));
+        // zonder event time (van voor de header) ook niet
+        listener.onUserEvents(List.of(profileUpdated("renamed-user", "unversioned")));
+
+        assertTrue(rsvpRepository.findByUserId("renamed-user").stream()
+                .allMatch(rsvp -> "newest".equals(rsvp.getUserDisplayName()) && rsvp.getDisplayNameVersion() == 200));
+    }
+
+    @Test
+    void batch_shouldApplyTheNewestEventTimeRegardlessOfQueueOrder() {
+        seedRsvps("reordered-user", 2, "original");
+
+        listener.onUserEvents(List.of(
+                at(300, profileUpdated("reordered-user", "newest")),
+                at(100, profileUpdated("reordered-user", "oldest"))));
+        List<Rsvp> renamed = rsvpRepository.findByUserId("reordered-user");
+        // hetzelfde bericht opnieuw afgeleverd raakt geen rijen
+        listener.onUserEvents(List.of(at(300, profileUpdated("reordered-user", "newest"))));
+
+        assertTrue(renamed.stream().allMatch(rsvp -> "newest".equals(rsvp.getUserDisplayName())));
+        assertEquals(renamed.stream().map(Rsvp::getUpdatedAt).toList(),
+                rsvpRepository.findByUserId("reordered-user").stream().map(Rsvp::getUpdatedAt).toList());
+    }
+
+    @Test
+    void batch_shouldDispatchOnTypeIdHeaderAndCountUnknownTypes() throws Exception {
+        seedRsvps("typed-user", 2, "old");
+        double skippedBefore = skipped("unknown-type");
+        // routing key klopt niet met het type: de __TypeId__ header is leidend
+        Message typed = MessageBuilder.withBody(objectMapper.writeValueAsBytes(
+                        new UserRegisteredEvent("typed-user", "typed-name", "typed@example.com")))
+                .setReceivedRoutingKey(RabbitMQConfig.USER_PROFILE_UPDATED_ROUTING_KEY)
+                .setHeader("__TypeId__", RabbitMQConfig.USER_REGISTERED_TYPE_ID)
+                .build();
+        Message unknown = MessageBuilder.withBody("{}".getBytes(StandardCharsets.UTF_8))
+                .setReceivedRoutingKey(RabbitMQConfig.USER_REGISTERED_ROUTING_KEY)
+                .setHeader("__TypeId__", "com.horizon.userservice.event.UserDeletedEvent")
+                .build();
+
+        listener.onUserEvents(List.of(typed, unknown));
+
+        assertTrue(rsvpRepository.findByUserId("typed-user").stream()
+                .allMatch(rsvp -> "typed-name".equals(rsvp.getUserDisplayName())));
+        assertEquals(skippedBefore + 1, skipped("unknown-type"));
+    }
+
+    @Test
+    void batch_shouldStillReadLegacyUserserviceTypeIds() throws Exception {
+        seedRsvps("legacy-user", 1, "old");
+        // gepubliceerd voor de eventbus library, met de oude klassenaam van userservice als __TypeId__
+        Message legacy = MessageBuilder.withBody(objectMapper.writeValueAsBytes(
+                        new UserRegisteredEvent("legacy-user", "legacy-name", "legacy@example.com")))
+                .setReceivedRoutingKey(RabbitMQConfig.USER_REGISTERED_ROUTING_KEY)
+                .setHeader("__TypeId__", RabbitMQConfig.LEGACY_USER_REGISTERED_TYPE_ID)
+                .build();
+
+        listener.onUserEvents(List.of(legacy));
+
+        assertTrue(rsvpRepository.findByUserId("legacy-user").stream()
+                .allMatch(rsvp -> "legacy-name".equals(rsvp.getUserDisplayName())));
+    }
+
+    @Test
+    void batch_shouldAcceptJsonAndCborSideBySide() {
+        seedRsvps("json-user", 1, "old");
+        seedRsvps("cbor-user", 1, "old");
+        // tijdens de rollout van de binaire codec: content_type bepaalt per bericht het format
+        Message cbor = new EventbusCodec(PayloadFormat.CBOR).encode(new UserProfileUpdatedEvent("cbor-user",
+                Map.of("username", Map.of("oldValue", "old", "newValue", "cbor-name"))));
+        cbor.getMessageProperties().setReceivedRoutingKey(RabbitMQConfig.USER_PROFILE_UPDATED_ROUTING_KEY);
+
+        listener.onUserEvents(List.of(profileUpdated("json-user", "json-name"), cbor));
+
+        assertTrue(rsvpRepository.findByUserId("json-user").stream()
+                .allMatch(rsvp -> "json-name".equals(rsvp.getUserDisplayName())));
+        assertTrue(rsvpRepository.findByUserId("cbor-user").stream()
+                .allMatch(rsvp -> "cbor-name".equals(rsvp.getUserDisplayName())));
+    }
+
+    private double skipped(String reason) {
+        Counter counter = meterRegistry.find(UserEventListener.SKIPPED_COUNTER).tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static Message at(long eventTime, Message message) {
+        message.getMessageProperties().setHeader(EventbusTopology.EVENT_TIME_HEADER, eventTime);
+        return message;
+    }
+
+    private Message registered(String keycloakId, String username) {
+        return message(RabbitMQConfig.USER_REGISTERED_ROUTING_KEY,
+                new UserRegisteredEvent(keycloakId, username, username + "@example.com"));
+    }
+
+    private Message profileUpdated(String keycloakId, String newUsername) {
+        return message(RabbitMQConfig.USER_PROFILE_UPDATED_ROUTING_KEY, new UserProfileUpdatedEvent(keycloakId,
+                Map.of("username", Map.of("oldValue", "old", "newValue", newUsername))));
+    }
+
+    private Message message(String routingKey, Object payload) {
+        try {
+            return MessageBuilder.withBody(objectMapper.writeValueAsBytes(payload))
+                    .setReceivedRoutingKey(routingKey)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void seedRsvps(String userId, int count, String displayName) {
+        List<Rsvp> rsvps = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Rsvp rsvp = new Rsvp();
+            rsvp.setEventId(UUID.randomUUID());
+            rsvp.setUserId(userId);
+            rsvp.setUserDisplayName(displayName);
+            rsvp.setStatus(RsvpStatus.MAYBE);
+            rsvps.add(rsvp);
+        }
+        rsvpRepository.saveAll(rsvps);
+    }
+}
@@ -0,0 +1,33 @@
+package com.horizon.userservice.DAL;
+
+import com.horizon.userservice.model.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Bulk operaties op de users tabel die buiten de per-entity JPA save om gaan.
+ */
+public interface UserBatchDAL {
+
+    /**
+     * Insert alle users in één JDBC batch. Hibernate kan inserts met IDENTITY ids niet batchen,
+     * dus dit gaat via JdbcTemplate. De gegenereerde ids worden niet teruggezet op de entities.
+     */
+    void batchInsert(List<User> users);
+
+    /**
+     * Leest alle users op volgorde van id via een forward-only cursor en geeft ze één voor één door.
+     * De users worden niet in de persistence context of in een lijst bewaard, dus het geheugengebruik
+     * blijft gelijk ongeacht het aantal rijen.
+     */
+    void forEachUser(Consumer<User> consumer);
+
+    /**
+     * Telt per keycloakId het aantal op bij eventsCreatedCount, als één JDBC batch van atomaire
+     * UPDATE ... SET count = count + ? statements (geen read-modify-write, dus geen verloren increments
+     * tussen gelijktijdige consumers). Geeft het aantal bijgewerkte users terug.
+     */
+    int incrementEventsCreatedCounts(Map<String, Integer> countsByKeycloakId);
+}
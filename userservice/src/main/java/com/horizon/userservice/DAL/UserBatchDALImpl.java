@@ -0,0 +1,97 @@
+package com.horizon.userservice.DAL;
+
+import com.horizon.userservice.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Spring Data pikt deze implementatie op via de "Impl" suffix van UserBatchDAL
+public class UserBatchDALImpl implements UserBatchDAL {
+
+    // kolomnamen zoals Hibernate ze aanmaakt (camelCase -> snake_case)
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, age, keycloak_id, events_created_count, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_ALL_SQL =
+            "SELECT id, username, email, age, keycloak_id, events_created_count, created_at FROM users ORDER BY id";
+
+    private static final String INCREMENT_EVENTS_CREATED_SQL =
+            "UPDATE users SET events_created_count = COALESCE(events_created_count, 0) + ? WHERE keycloak_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public UserBatchDALImpl(JdbcTemplate jdbcTemplate,
+                            // Integer.MIN_VALUE laat de MySQL driver rij voor rij streamen in plaats van alles te bufferen
+                            @Value("${horizon.users.stream-fetch-size:-2147483648}") int streamFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(streamFetchSize);
+    }
+
+    @Override
+    public void batchInsert(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+            // @PrePersist draait hier niet, dus createdAt zelf zetten
+            LocalDateTime createdAt = user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.now();
+            ps.setString(1, user.getUsername());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getAge());
+            ps.setString(4, user.getKeycloakId());
+            ps.setInt(5, user.getEventsCreatedCount());
+            ps.setTimestamp(6, Timestamp.valueOf(createdAt));
+        });
+    }
+
+    @Override
+    public int incrementEventsCreatedCounts(Map<String, Integer> countsByKeycloakId) {
+        if (countsByKeycloakId.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(countsByKeycloakId.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(INCREMENT_EVENTS_CREATED_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setString(2, entry.getKey());
+        });
+        int total = 0;
+        for (int[] batch : updated) {
+            for (int rows : batch) {
+                // met rewriteBatchedStatements meldt de MySQL driver SUCCESS_NO_INFO (-2) i.p.v. een aantal
+                total += rows == Statement.SUCCESS_NO_INFO ? 1 : rows;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(mapRow(rs));
+        streamingJdbcTemplate.query(SELECT_ALL_SQL, handler);
+    }
+
+    private static User mapRow(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setId(rs.getInt("id"));
+        user.setUsername(rs.getString("username"));
+        user.setEmail(rs.getString("email"));
+        user.setAge(rs.getString("age"));
+        user.setKeycloakId(rs.getString("keycloak_id"));
+        user.setEventsCreatedCount(rs.getInt("events_created_count"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        user.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return user;
+    }
+}
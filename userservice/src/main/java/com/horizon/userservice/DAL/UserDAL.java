@@ -1,6 +1,7 @@
 package com.horizon.userservice.DAL;
 
 import com.horizon.userservice.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,7 +9,10 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserDAL extends JpaRepository<User, Integer> {
+public interface UserDAL extends JpaRepository<User, Integer>, UserBatchDAL {
     Optional<User> findByKeycloakId(String keycloakId);
     List<User> findAllByKeycloakIdIn(List<String> keycloakIds);
+
+    // keyset paginatie: WHERE id > ? ORDER BY id LIMIT ?, gebruikt de primary key index
+    List<User> findByIdGreaterThanOrderByIdAsc(int afterId, Limit limit);
 }
@@ -0,0 +1,33 @@
+package com.horizon.userservice.DTO;
+
+import java.util.List;
+
+public class UserPageDTO {
+    private List<UserResponseDTO> items;
+    // id van de laatste user op deze pagina, mee te geven als ?after= voor de volgende pagina; null als er niets meer is
+    private Integer nextCursor;
+
+    public UserPageDTO() {
+    }
+
+    public UserPageDTO(List<UserResponseDTO> items, Integer nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserResponseDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserResponseDTO> items) {
+        this.items = items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,15 +1,39 @@
 package com.horizon.userservice.Interface;
 
 import com.horizon.userservice.DTO.UserCreateDTO;
+import com.horizon.userservice.DTO.UserPageDTO;
 import com.horizon.userservice.DTO.UserResponseDTO;
+import com.horizon.userservice.DTO.UserSyncRequestDTO;
 import com.horizon.userservice.DTO.UserUpdateDTO;
 import com.horizon.userservice.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserResponseDTO getUserById(int id);
+
+    /**
+     * Loads every user into one list.
+     *
+     * @deprecated unbounded; use {@link #getUsersPage(Integer, int)} or {@link #streamAllUsers(Consumer)}
+     */
+    @Deprecated
     List<UserResponseDTO> getAllUsers();
+
+    /**
+     * Keyset pagination over users ordered by id.
+     *
+     * @param afterId only users with an id greater than this are returned; null for the first page
+     * @param size the requested page size, capped at the configured maximum
+     * @return the page plus the cursor for the next page (null when this is the last page)
+     */
+    UserPageDTO getUsersPage(Integer afterId, int size);
+
+    /**
+     * Streams every user, ordered by id, to the consumer without materializing the full list.
+     */
+    void streamAllUsers(Consumer<UserResponseDTO> consumer);
     UserResponseDTO createUser(UserCreateDTO dto);
     UserResponseDTO updateUser(int id, UserUpdateDTO dto);
     void deleteUser(int id);
@@ -29,4 +53,16 @@ public interface UserService {
      * @return the synchronized User entity.
      */
     User synchronizeUser(String keycloakId, String username, String email);
+
+    /**
+     * Batch variant of {@link #synchronizeUser(String, String, String)}.
+     * Existing users are resolved with a single query and changes are written in JDBC batches.
+     * The resulting events are written to the outbox in the same transaction; OutboxRelay publishes
+     * them after the commit, so the call never waits for the broker.
+     * Incomplete requests are skipped; for duplicate keycloakIds the last request wins.
+     *
+     * @param syncRequests the users to synchronize
+     * @return the synchronized User entities.
+     */
+    List<User> synchronizeUsers(List<UserSyncRequestDTO> syncRequests);
 }
@@ -2,38 +2,53 @@ package com.horizon.userservice.Interface;
 
 import com.horizon.userservice.DAL.UserDAL;
 import com.horizon.userservice.DTO.UserCreateDTO;
+import com.horizon.userservice.DTO.UserPageDTO;
 import com.horizon.userservice.DTO.UserResponseDTO;
+import com.horizon.userservice.DTO.UserSyncRequestDTO;
 import com.horizon.userservice.DTO.UserUpdateDTO;
-import com.horizon.userservice.event.UserRegisteredEvent;
-import com.horizon.userservice.event.UserProfileUpdatedEvent;
-import com.horizon.userservice.eventbus.EventCreatedListener;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.outbox.OutboxPublisher;
 import com.horizon.userservice.model.User;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.HashMap;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
     private final UserDAL userDAL;
-    private final RabbitTemplate rabbitTemplate;
-    private final EventCreatedListener eventCreatedListener;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // maximale pagina grootte voor getUsersPage, ongeacht wat de client vraagt
+    static final int MAX_PAGE_SIZE = 200;
 
     @Autowired
-    public UserServiceImpl(UserDAL userDAL, RabbitTemplate rabbitTemplate, EventCreatedListener eventCreatedListener) {
+    public UserServiceImpl(UserDAL userDAL, OutboxPublisher outboxPublisher, TransactionTemplate transactionTemplate) {
         this.userDAL = userDAL;
-        this.rabbitTemplate = rabbitTemplate;
-        this.eventCreatedListener = eventCreatedListener;
+        this.outboxPublisher = outboxPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -44,6 +59,7 @@ public class UserServiceImpl implements UserService {
         return mapToResponseDTO(user);
     }
 
+    @Deprecated
     @Override
     public List<UserResponseDTO> getAllUsers() {
         return userDAL.findAll().stream()
@@ -51,6 +67,28 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public UserPageDTO getUsersPage(Integer afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int cursor = afterId == null ? 0 : afterId;
+
+        // één rij extra ophalen om te weten of er nog een volgende pagina is
+        List<User> users = userDAL.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize + 1));
+        boolean hasMore = users.size() > pageSize;
+        List<User> page = hasMore ? users.subList(0, pageSize) : users;
+
+        List<UserResponseDTO> items = page.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+        Integer nextCursor = hasMore ? page.get(page.size() - 1).getId() : null;
+        return new UserPageDTO(items, nextCursor);
+    }
+
+    @Override
+    public void streamAllUsers(Consumer<UserResponseDTO> consumer) {
+        userDAL.forEachUser(user -> consumer.accept(mapToResponseDTO(user)));
+    }
+
     @Override
     public UserResponseDTO createUser(UserCreateDTO dto) {
         User user = new User();
@@ -82,7 +120,9 @@ public class UserServiceImpl implements UserService {
         userDAL.deleteById(id);
     }
 
+    // user en event in één transactie; OutboxRelay publiceert het event na de commit
     @Override
+    @Transactional
     public User synchronizeUser(String keycloakId, String username, String email) {
         if (keycloakId == null || keycloakId.trim().isEmpty()) {
             System.err.println("keycloakId is null or empty in synchronizeUser. Skipping.");
@@ -99,32 +139,16 @@ public class UserServiceImpl implements UserService {
 
         Optional<User> existingUserOpt = userDAL.findByKeycloakId(keycloakId);
         User userToSave;
-        Map<String, Object> updatedFieldsForEvent = new HashMap<>();
 
         if (existingUserOpt.isPresent()) {
             userToSave = existingUserOpt.get();
-            String oldUsername = userToSave.getUsername();
-            String oldEmail = userToSave.getEmail();
-            boolean updated = false;
-
-            if (username != null && !username.equals(userToSave.getUsername())) {
-                userToSave.setUsername(username);
-                updatedFieldsForEvent.put("username", Map.of("oldValue", oldUsername, "newValue", username));
-                updated = true;
-            }
-            if (email != null && !email.equals(userToSave.getEmail())) {
-                userToSave.setEmail(email);
-                updatedFieldsForEvent.put("email", Map.of("oldValue", oldEmail, "newValue", email));
-                updated = true;
-            }
+            Map<String, Object> updatedFieldsForEvent = applySyncChanges(userToSave, username, email);
 
-            if (updated) {
+            if (!updatedFieldsForEvent.isEmpty()) {
                 userToSave = userDAL.save(userToSave);
-                if (!updatedFieldsForEvent.isEmpty()) {
-                    UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(userToSave.getKeycloakId(), updatedFieldsForEvent);
-                    rabbitTemplate.convertAndSend("horizon.users.exchange", "user.profile.updated", event);
-                    System.out.println("Published UserProfileUpdatedEvent from synchronizeUser for keycloakId: " + userToSave.getKeycloakId() + " with fields: " + updatedFieldsForEvent.keySet());
-                }
+                UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(userToSave.getKeycloakId(), updatedFieldsForEvent);
+                outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_PROFILE_UPDATED, event);
+                System.out.println("Queued UserProfileUpdatedEvent from synchronizeUser for keycloakId: " + userToSave.getKeycloakId() + " with fields: " + updatedFieldsForEvent.keySet());
             }
         } else {
             userToSave = new User();
@@ -135,12 +159,76 @@ public class UserServiceImpl implements UserService {
             userToSave = userDAL.save(userToSave);
             // Publish UserRegisteredEvent
             UserRegisteredEvent event = new UserRegisteredEvent(userToSave.getKeycloakId(), userToSave.getUsername(), userToSave.getEmail());
-            rabbitTemplate.convertAndSend("horizon.users.exchange", "user.registered", event);
-            System.out.println("Published UserRegisteredEvent for keycloakId: " + userToSave.getKeycloakId()); // Logging
+            outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_REGISTERED, event);
+            System.out.println("Queued UserRegisteredEvent for keycloakId: " + userToSave.getKeycloakId()); // Logging
         }
         return userToSave;
     }
 
+    @Override
+    public List<User> synchronizeUsers(List<UserSyncRequestDTO> syncRequests) {
+        if (syncRequests == null || syncRequests.isEmpty()) {
+            return List.of();
+        }
+
+        // Ongeldige requests overslaan (net als synchronizeUser) en per keycloakId alleen de laatste houden
+        Map<String, UserSyncRequestDTO> requestsByKeycloakId = new LinkedHashMap<>();
+        for (UserSyncRequestDTO request : syncRequests) {
+            if (request == null || isBlank(request.getKeycloakId()) || isBlank(request.getUsername()) || isBlank(request.getEmail())) {
+                // alleen de keycloakId: het request bevat ook het e-mailadres
+                logger.warn("Skipping incomplete sync request in synchronizeUsers for keycloakId: {}",
+                        request == null ? null : request.getKeycloakId());
+                continue;
+            }
+            requestsByKeycloakId.put(request.getKeycloakId(), request);
+        }
+        if (requestsByKeycloakId.isEmpty()) {
+            return List.of();
+        }
+
+        return transactionTemplate.execute(status -> {
+            List<String> keycloakIds = new ArrayList<>(requestsByKeycloakId.keySet());
+            // Eén SELECT voor alle bestaande users in plaats van findByKeycloakId per user
+            Map<String, User> existingUsers = userDAL.findAllByKeycloakIdIn(keycloakIds).stream()
+                    .collect(Collectors.toMap(User::getKeycloakId, Function.identity()));
+
+            List<User> usersToInsert = new ArrayList<>();
+            List<User> usersToUpdate = new ArrayList<>();
+            for (UserSyncRequestDTO request : requestsByKeycloakId.values()) {
+                User existingUser = existingUsers.get(request.getKeycloakId());
+                if (existingUser == null) {
+                    User newUser = new User();
+                    newUser.setKeycloakId(request.getKeycloakId());
+                    newUser.setUsername(request.getUsername());
+                    newUser.setEmail(request.getEmail());
+                    newUser.setCreatedAt(LocalDateTime.now());
+                    usersToInsert.add(newUser);
+                    outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_REGISTERED,
+                            new UserRegisteredEvent(newUser.getKeycloakId(), newUser.getUsername(), newUser.getEmail()));
+                } else {
+                    Map<String, Object> updatedFields = applySyncChanges(existingUser, request.getUsername(), request.getEmail());
+                    if (!updatedFields.isEmpty()) {
+                        usersToUpdate.add(existingUser);
+                        outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_PROFILE_UPDATED,
+                                new UserProfileUpdatedEvent(existingUser.getKeycloakId(), updatedFields));
+                    }
+                }
+            }
+
+            // UPDATEs worden door Hibernate gebatcht (hibernate.jdbc.batch_size), INSERTs via een JDBC batch
+            userDAL.saveAll(usersToUpdate);
+            userDAL.batchInsert(usersToInsert);
+
+            List<User> result = new ArrayList<>(existingUsers.values());
+            if (!usersToInsert.isEmpty()) {
+                // de JDBC batch geeft geen ids terug, dus de nieuwe users in één query teruglezen
+                result.addAll(userDAL.findAllByKeycloakIdIn(usersToInsert.stream().map(User::getKeycloakId).toList()));
+            }
+            // de events staan in de outbox van deze transactie; OutboxRelay publiceert ze met batch confirms
+            return result;
+        });
+    }
+
     @Override
     public User getUserByKeycloakId(String keycloakId) {
         // TODO: Implement actual logic
@@ -157,6 +245,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateUserByKeycloakId(String keycloakId, UserUpdateDTO userDetails) {
         User user = userDAL.findByKeycloakId(keycloakId).orElseThrow(() ->
                 new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found with keycloakId: " + keycloakId)
@@ -189,8 +278,8 @@ public class UserServiceImpl implements UserService {
         if (!updatedFields.isEmpty()) {
             User updatedUser = userDAL.save(user);
             UserProfileUpdatedEvent event = new UserProfileUpdatedEvent(updatedUser.getKeycloakId(), updatedFields);
-            rabbitTemplate.convertAndSend("horizon.users.exchange", "user.profile.updated", event);
-            System.out.println("Published UserProfileUpdatedEvent for keycloakId: " + updatedUser.getKeycloakId() + " with fields: " + updatedFields.keySet()); // Logging
+            outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_PROFILE_UPDATED, event);
+            System.out.println("Queued UserProfileUpdatedEvent for keycloakId: " + updatedUser.getKeycloakId() + " with fields: " + updatedFields.keySet()); // Logging
             return updatedUser;
         } else {
             // No actual changes, just return the user as is, no event published
@@ -198,6 +287,30 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Neemt gewijzigde username/email over op de user en geeft de gewijzigde velden terug
+     * in het formaat van {@link UserProfileUpdatedEvent#getUpdatedFields()}.
+     */
+    private Map<String, Object> applySyncChanges(User user, String username, String email) {
+        Map<String, Object> updatedFields = new HashMap<>();
+        String oldUsername = user.getUsername();
+        String oldEmail = user.getEmail();
+
+        if (username != null && !username.equals(oldUsername)) {
+            user.setUsername(username);
+            updatedFields.put("username", Map.of("oldValue", oldUsername, "newValue", username));
+        }
+        if (email != null && !email.equals(oldEmail)) {
+            user.setEmail(email);
+            updatedFields.put("email", Map.of("oldValue", oldEmail, "newValue", email));
+        }
+        return updatedFields;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
     private UserResponseDTO mapToResponseDTO(User user) {
         UserResponseDTO dto = new UserResponseDTO();
         dto.setId(user.getId());
@@ -207,23 +320,8 @@ public class UserServiceImpl implements UserService {
         dto.setKeycloakId(user.getKeycloakId());
         dto.setCreatedAt(user.getCreatedAt());
 
-        // Populate eventsCreated field
-        if (user.getKeycloakId() != null) {
-            System.out.println("[UserServiceImpl] Mapping DTO for user: " + user.getUsername() + ", Keycloak ID: " + user.getKeycloakId());
-            try {
-                UUID userUuid = UUID.fromString(user.getKeycloakId());
-                System.out.println("[UserServiceImpl] Converted Keycloak ID to UUID: " + userUuid);
-                int count = eventCreatedListener.getEventCount(userUuid);
-                System.out.println("[UserServiceImpl] Fetched event count for UUID " + userUuid + ": " + count);
-                dto.setEventsCreated(count);
-            } catch (IllegalArgumentException e) {
-                System.err.println("[UserServiceImpl] Invalid KeycloakId format for user " + user.getId() + " (" + user.getUsername() + "): " + user.getKeycloakId() + ". Error: " + e.getMessage());
-                dto.setEventsCreated(0);
-            }
-        } else {
-            System.out.println("[UserServiceImpl] User " + user.getUsername() + " has null Keycloak ID.");
-            dto.setEventsCreated(0);
-        }
+        // eventsCreatedCount zit al op de geladen entity, dus geen extra query per user
+        dto.setEventsCreated(user.getEventsCreatedCount());
         return dto;
     }
 }
@@ -1,6 +1,9 @@
 package com.horizon.userservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.horizon.userservice.DTO.UserCreateDTO;
+import com.horizon.userservice.DTO.UserPageDTO;
 import com.horizon.userservice.DTO.UserResponseDTO;
 import com.horizon.userservice.DTO.UserUpdateDTO;
 import com.horizon.userservice.DTO.UserSyncRequestDTO;
@@ -8,13 +11,19 @@ import com.horizon.userservice.Interface.UserService;
 import com.horizon.userservice.model.User;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,11 +32,19 @@ import java.util.stream.Collectors;
 @Validated
 public class UsersController {
 
+    // bovengrens zodat één batch-request de transactie en het confirm-venster niet onbeperkt groot maakt
+    static final int MAX_SYNC_BATCH_SIZE = 500;
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String DEPRECATION_HEADER = "Deprecation";
+
     private final UserService userService;
+    private final ObjectWriter userJsonWriter;
 
     @Autowired
-    public UsersController(UserService userService) {
+    public UsersController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.userJsonWriter = objectMapper.writerFor(UserResponseDTO.class);
     }
 
     @GetMapping("/{id}")
@@ -35,9 +52,50 @@ public class UsersController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    /**
+     * @deprecated onbegrensde lijst van voor /users/page. Geeft nu hoogstens één pagina (max. 200 users) terug;
+     * als er meer zijn wijst de {@code Link} header met rel="next" naar het vervolg op /users/page.
+     * Gebruik /users/page, of Accept: application/x-ndjson voor een volledige export.
+     */
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+        UserPageDTO page = userService.getUsersPage(null, Integer.MAX_VALUE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(DEPRECATION_HEADER, "true")
+                .header(HttpHeaders.LINK, "</users/page>; rel=\"successor-version\"");
+        if (page.getNextCursor() != null) {
+            response.header(HttpHeaders.LINK, "</users/page?after=" + page.getNextCursor() + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<UserPageDTO> getUsersPage(@RequestParam(required = false) Integer after,
+                                                    @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getUsersPage(after, size));
+    }
+
+    // Export van alle users als NDJSON (één JSON object per regel), geschreven terwijl de rijen gelezen worden
+    @GetMapping(produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = outputStream -> {
+            userService.streamAllUsers(user -> writeNdjsonLine(outputStream, user));
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+
+    private void writeNdjsonLine(OutputStream outputStream, UserResponseDTO user) {
+        try {
+            outputStream.write(userJsonWriter.writeValueAsBytes(user));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            // client heeft de verbinding gesloten; dit breekt de JDBC cursor af
+            throw new UncheckedIOException(e);
+        }
     }
 
     @PostMapping
@@ -104,4 +162,13 @@ public class UsersController {
         }
         return ResponseEntity.ok(mapToResponseDTO(user));
     }
+
+    @PostMapping("/internal/synchronize/batch")
+    public ResponseEntity<List<UserResponseDTO>> synchronizeUsers(@RequestBody List<UserSyncRequestDTO> syncRequests) {
+        if (syncRequests == null || syncRequests.isEmpty() || syncRequests.size() > MAX_SYNC_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<User> users = userService.synchronizeUsers(syncRequests);
+        return ResponseEntity.ok(users.stream().map(this::mapToResponseDTO).collect(Collectors.toList()));
+    }
 }
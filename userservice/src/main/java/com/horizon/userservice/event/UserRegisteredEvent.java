@@ -1,14 +0,0 @@
-package com.horizon.userservice.event;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class UserRegisteredEvent {
-    private String keycloakId;
-    private String username;
-    private String email;
-} 
\ No newline at end of file
@@ -1,48 +1,93 @@
 package com.horizon.userservice.eventbus;
 
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.message.EventCreatedMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import com.horizon.userservice.DAL.UserDAL;
 import com.horizon.userservice.model.User;
 
+/**
+ * Telt aangemaakte events per organizer. Berichten komen in batches binnen (zie
+ * EventbusRabbitMQConfig.EVENT_CREATED_CONTAINER_FACTORY), worden in memory per organizer opgeteld en als
+ * één JDBC batch van atomaire increments weggeschreven. Pas daarna ackt de container de batch: at-least-once,
+ * een crash tussen flush en ack kan een batch dus dubbel tellen, maar nooit een increment kwijtraken. Mislukt de
+ * flush, dan gaat de batch via de retry topologie (EventbusRabbitMQConfig) vertraagd opnieuw door de listener.
+ */
 @Service
 public class EventCreatedListener {
-    // private static final Map<UUID, AtomicInteger> userEventCounts = new ConcurrentHashMap<>(); // No longer needed for count logic
     private static final Logger logger = LoggerFactory.getLogger(EventCreatedListener.class);
+
+    static final String FLUSH_TIMER = "users.events-created.flush";
+    static final String BATCH_MESSAGES_SUMMARY = "users.events-created.batch.messages";
+
     private final UserDAL userDAL;
+    private final EventbusCodec eventbusCodec;
+    private final MeterRegistry meterRegistry;
 
-    public EventCreatedListener(UserDAL userDAL) {
+    public EventCreatedListener(UserDAL userDAL, EventbusCodec eventbusCodec, MeterRegistry meterRegistry) {
         this.userDAL = userDAL;
+        this.eventbusCodec = eventbusCodec;
+        this.meterRegistry = meterRegistry;
     }
 
-    @RabbitListener(queues = EventbusRabbitMQConfig.QUEUE_EVENT_CREATED)
-    public void onEventCreated(EventCreatedMessage event) {
-        logger.info("[EventCreatedListener] Received event: {}", event.toString());
-        UUID organizerId = event.getOrganizerId();
-        if (organizerId == null) {
-            logger.warn("[EventCreatedListener] Received EventCreatedMessage with null organizerId. Event ID: {}", event.getId());
+    @RabbitListener(queues = EventbusRabbitMQConfig.QUEUE_EVENT_CREATED,
+            containerFactory = EventbusRabbitMQConfig.EVENT_CREATED_CONTAINER_FACTORY)
+    public void onEventsCreated(List<Message> messages) {
+        if (messages.isEmpty()) {
             return;
         }
-        logger.info("[EventCreatedListener] Processing event for organizerId: {}", organizerId);
 
-        User user = userDAL.findByKeycloakId(organizerId.toString()).orElse(null);
+        Map<String, Integer> countsByOrganizer = new HashMap<>();
+        for (Message message : messages) {
+            EventCreatedMessage event = read(message);
+            if (event == null) {
+                continue;
+            }
+            if (event.getOrganizerId() == null) {
+                logger.warn("[EventCreatedListener] Received EventCreatedMessage with null organizerId. Event ID: {}", event.getId());
+                continue;
+            }
+            countsByOrganizer.merge(event.getOrganizerId().toString(), 1, Integer::sum);
+        }
+
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int updated = userDAL.incrementEventsCreatedCounts(countsByOrganizer);
+            sample.stop(meterRegistry.timer(FLUSH_TIMER));
+            if (updated < countsByOrganizer.size()) {
+                logger.warn("[EventCreatedListener] {} of {} organizers not found, their events were not counted.",
+                        countsByOrganizer.size() - updated, countsByOrganizer.size());
+            }
+        } catch (RuntimeException e) {
+            // niets geteld: de hele batch gaat naar de eerstvolgende vertragingsqueue, de volgende poging telt alles opnieuw
+            logger.error("[EventCreatedListener] Could not flush event counts for {} messages, retrying later.", messages.size(), e);
+            throw e;
+        }
 
-        if (user != null) {
-            int currentCount = user.getEventsCreatedCount(); // Relies on User.java getter handling null
-            int newCount = currentCount + 1;
-            user.setEventsCreatedCount(newCount);
-            userDAL.save(user);
-            logger.info("[EventCreatedListener] Incremented and saved event count for user: {}. New count: {}", organizerId, newCount);
-        } else {
-            logger.warn("[EventCreatedListener] User not found with keycloakId: {}. Cannot increment event count.", organizerId);
+        meterRegistry.summary(BATCH_MESSAGES_SUMMARY).record(messages.size());
+        logger.info("[EventCreatedListener] Counted {} events for {} organizers.", messages.size(), countsByOrganizer.size());
+    }
+
+    // Een onleesbaar bericht wordt overgeslagen (en met de batch geackt) i.p.v. eindeloos opnieuw aangeboden
+    private EventCreatedMessage read(Message message) {
+        try {
+            return eventbusCodec.decode(message, EventCreatedMessage.class);
+        } catch (MessageConversionException e) {
+            logger.warn("[EventCreatedListener] Skipping unreadable EventCreatedMessage", e);
+            return null;
         }
     }
 
@@ -61,4 +106,3 @@ public class EventCreatedListener {
         return 0;
     }
 }
-
@@ -1,33 +1,50 @@
 package com.horizon.userservice.eventbus;
 
-import org.springframework.amqp.core.*;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.retry.RetryTopology;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+// Exchanges, MessageConverter, consumer metrics en retry routing komen uit de eventbus library (EventbusAutoConfiguration)
 @Configuration
 public class EventbusRabbitMQConfig {
-    public static final String EXCHANGE = "horizon.exchange.events";
-    public static final String QUEUE_EVENT_CREATED = "horizon.queue.event.created";
+    public static final String QUEUE_EVENT_CREATED = EventbusTopology.QUEUE_EVENT_CREATED;
+    public static final String EVENT_CREATED_CONTAINER_FACTORY = "eventCreatedBatchContainerFactory";
 
     @Bean
-    TopicExchange exchange() {
-        return ExchangeBuilder.topicExchange(EXCHANGE).durable(true).build();
+    Declarables eventCreatedQueue() {
+        return EventbusTopology.durableQueue(QUEUE_EVENT_CREATED, EventbusTopology.EVENTS_EXCHANGE,
+                EventbusTopology.ROUTING_KEY_EVENT_CREATED);
     }
 
+    // Mislukt een batch, dan gaat hij via de vertragingsqueues opnieuw naar de listener en daarna naar de parking lot
     @Bean
-    Queue queueEventCreated() {
-        return QueueBuilder.durable(QUEUE_EVENT_CREATED).build();
+    Declarables eventCreatedRetryQueues(RetryTopology retryTopology) {
+        return retryTopology.declare(QUEUE_EVENT_CREATED);
     }
 
-    @Bean
-    Binding binding(Queue queueEventCreated, TopicExchange exchange) {
-        return BindingBuilder.bind(queueEventCreated).to(exchange).with("event.created");
-    }
-
-    @Bean
-    MessageConverter jsonConverter() {
-        return new Jackson2JsonMessageConverter();
+    // Batches van max. batch-size berichten, of minder als er window lang niets binnenkomt. De container ackt de
+    // batch pas als EventCreatedListener de tellers heeft weggeschreven; gooit die, dan regelt RetryRoutingAdvice het.
+    @Bean(EVENT_CREATED_CONTAINER_FACTORY)
+    SimpleRabbitListenerContainerFactory eventCreatedBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${horizon.users.events-created.batch-size:200}") int batchSize,
+            @Value("${horizon.users.events-created.window:500ms}") Duration window) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(window.toMillis());
+        return factory;
     }
 }
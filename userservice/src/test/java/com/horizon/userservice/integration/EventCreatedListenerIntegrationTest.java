@@ -0,0 +1,119 @@
+package com.horizon.userservice.integration;
+
+import com.horizon.eventbus.codec.EventbusCodec;
+import com.horizon.eventbus.message.EventCreatedMessage;
+import com.horizon.userservice.DAL.UserDAL;
+import com.horizon.userservice.eventbus.EventCreatedListener;
+import com.horizon.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Draait op H2 (test profile); de batches worden direct aangeboden, zonder broker
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class EventCreatedListenerIntegrationTest {
+
+    @Autowired
+    private EventCreatedListener listener;
+
+    @Autowired
+    private UserDAL userDAL;
+
+    @Autowired
+    private EventbusCodec eventbusCodec;
+
+    private long deliveryTag;
+
+    @BeforeEach
+    void setUp() {
+        userDAL.deleteAll();
+        deliveryTag = 0;
+    }
+
+    @Test
+    void onEventsCreated_shouldAggregatePerOrganizerAndSkipUnusableMessages() throws Exception {
+        UUID alice = saveUser("alice", 2);
+        UUID bob = saveUser("bob", null);
+
+        List<Message> batch = List.of(
+                message(alice), message(bob), message(alice),
+                unreadable(), message(null), message(alice));
+        listener.onEventsCreated(batch);
+
+        assertEquals(5, listener.getEventCount(alice));
+        assertEquals(1, listener.getEventCount(bob));
+    }
+
+    @Test
+    void onEventsCreated_shouldNotLoseIncrementsAcrossConcurrentConsumers() throws Exception {
+        UUID organizer = saveUser("busy-organizer", 0);
+        int batches = 40;
+        int perBatch = 25;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < batches; i++) {
+                List<Message> batch = new ArrayList<>();
+                for (int j = 0; j < perBatch; j++) {
+                    batch.add(message(organizer));
+                }
+                futures.add(executor.submit(() -> {
+                    listener.onEventsCreated(batch);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // UPDATE ... SET count = count + ?: geen read-modify-write, dus geen verloren updates
+        assertEquals(batches * perBatch, listener.getEventCount(organizer));
+    }
+
+    private UUID saveUser(String username, Integer eventsCreatedCount) {
+        UUID keycloakId = UUID.randomUUID();
+        User user = new User();
+        user.setKeycloakId(keycloakId.toString());
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setEventsCreatedCount(eventsCreatedCount);
+        userDAL.save(user);
+        return keycloakId;
+    }
+
+    private Message message(UUID organizerId) throws Exception {
+        EventCreatedMessage event = new EventCreatedMessage(UUID.randomUUID(), "event", LocalDateTime.now().plusDays(1),
+                LocalDateTime.now(), organizerId);
+        return new Message(eventbusCodec.encode(event).getBody(), properties());
+    }
+
+    private Message unreadable() {
+        return new Message("not json".getBytes(), properties());
+    }
+
+    private MessageProperties properties() {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(++deliveryTag);
+        return properties;
+    }
+}
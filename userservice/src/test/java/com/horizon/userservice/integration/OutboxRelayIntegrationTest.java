@@ -0,0 +1,128 @@
+package com.horizon.userservice.integration;
+
+import com.horizon.userservice.DAL.UserDAL;
+import com.horizon.userservice.Interface.UserService;
+import com.horizon.eventbus.EventbusTopology;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.eventbus.outbox.OutboxDAL;
+import com.horizon.eventbus.outbox.OutboxPublisher;
+import com.horizon.eventbus.outbox.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Draait op H2 (test profile); de broker is gemockt, de relay wordt zelf aangeroepen
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"horizon.outbox.relay.batch-size=2", "horizon.eventbus.publisher.max-attempts=2",
+                "horizon.eventbus.publisher.retry-backoff=10ms"})
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDAL userDAL;
+
+    @Autowired
+    private OutboxDAL outboxDAL;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    // de broker bevestigt direct, met een ack of (als brokerAcks false is) een nack
+    private volatile boolean brokerAcks;
+
+    @BeforeEach
+    void setUp() {
+        userDAL.deleteAll();
+        outboxDAL.deleteAll();
+        brokerAcks = true;
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(brokerAcks, brokerAcks ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void synchronizeUser_shouldQueueEventWithoutTouchingTheBroker() {
+        userService.synchronizeUser("outbox-user", "outboxUser", "outbox@example.com");
+
+        assertEquals(1, outboxDAL.count());
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void relay_shouldPublishWithCorrelatedConfirmsAndDrainOutbox() {
+        for (int i = 0; i < 5; i++) {
+            userService.synchronizeUser("outbox-user-" + i, "outboxUser" + i, "outbox" + i + "@example.com");
+        }
+
+        assertEquals(5, outboxRelay.relay());
+
+        // batch-size=2: drie batches; elk bericht met een eigen CorrelationData
+        ArgumentCaptor<Message> messages = ArgumentCaptor.forClass(Message.class);
+        ArgumentCaptor<CorrelationData> correlations = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, times(5)).send(eq(EventbusTopology.USERS_EXCHANGE), eq("user.registered"), messages.capture(),
+                correlations.capture());
+        assertEquals(5, correlations.getAllValues().stream().map(CorrelationData::getId).distinct().count());
+        assertEquals(0, outboxDAL.count());
+
+        // hetzelfde bericht als een directe convertAndSend: consumers lezen het type uit __TypeId__
+        List<Message> published = messages.getAllValues();
+        Message first = published.get(0);
+        assertEquals(UserRegisteredEvent.class.getName(), first.getMessageProperties().getHeader("__TypeId__"));
+        assertEquals("application/json", first.getMessageProperties().getContentType());
+        assertEquals(true, new String(first.getBody()).contains("outbox-user-0"));
+        // het moment van de outbox insert, niet van de publish: consumers meten de leeftijd vanaf de commit
+        assertNotNull(first.getMessageProperties().getTimestamp());
+    }
+
+    @Test
+    void relay_shouldKeepMessagesWhenBrokerKeepsNacking() {
+        userService.synchronizeUser("unconfirmed-user", "unconfirmed", "unconfirmed@example.com");
+        brokerAcks = false;
+
+        assertEquals(0, outboxRelay.relay());
+
+        // de publisher heeft max-attempts keer geprobeerd
+        verify(rabbitTemplate, times(2)).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        // batch teruggedraaid: de volgende run publiceert hem opnieuw
+        assertEquals(1, outboxDAL.count());
+    }
+
+    @Test
+    void enqueue_shouldRequireSurroundingTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> outboxPublisher.enqueue(EventbusTopology.USERS_EXCHANGE, EventbusTopology.ROUTING_KEY_USER_REGISTERED,
+                        new UserRegisteredEvent("loose", "loose", "loose@example.com")));
+    }
+}
@@ -0,0 +1,88 @@
+package com.horizon.userservice.integration;
+
+import com.horizon.eventbus.retry.ParkingLot;
+import com.horizon.userservice.eventbus.EventbusRabbitMQConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// De filter chain komt uit de eventbus library en is in elke service gelijk; hier getest tegen userservice,
+// waar het test profile verder alles toelaat
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ParkingLotEndpointSecurityIntegrationTest {
+
+    private static final String QUEUE = EventbusRabbitMQConfig.QUEUE_EVENT_CREATED;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @MockitoBean
+    private ParkingLot parkingLot;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode("user-token")).thenReturn(jwt("user-token", List.of("user")));
+        when(jwtDecoder.decode("admin-token")).thenReturn(jwt("admin-token", List.of("user", "admin")));
+    }
+
+    @Test
+    void replay_shouldBeForbiddenForAuthenticatedNonAdmin() throws Exception {
+        mockMvc.perform(post("/actuator/parkinglot/{queue}", QUEUE).header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/parkinglot").header("Authorization", "Bearer user-token"))
+                .andExpect(status().isForbidden());
+
+        verify(parkingLot, never()).replay(anyString(), anyInt());
+    }
+
+    @Test
+    void parkingLot_shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/parkinglot"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void replay_shouldBeAllowedForAdmin() throws Exception {
+        when(parkingLot.replay(QUEUE, 500)).thenReturn(3);
+
+        mockMvc.perform(post("/actuator/parkinglot/{queue}", QUEUE).header("Authorization", "Bearer admin-token")
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(3));
+    }
+
+    // zoals Keycloak realm rollen in het token zet
+    private static Jwt jwt(String token, List<String> roles) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "none")
+                .subject("subject-" + token)
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
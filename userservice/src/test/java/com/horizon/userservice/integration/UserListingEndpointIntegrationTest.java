@@ -0,0 +1,156 @@
+package com.horizon.userservice.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.horizon.userservice.DAL.UserDAL;
+import com.horizon.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserListingEndpointIntegrationTest {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserDAL userDAL;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        userDAL.deleteAll();
+    }
+
+    @Test
+    void streamAllUsers_shouldWriteOneJsonObjectPerLineOrderedById() throws Exception {
+        List<User> users = seedUsers(5);
+        users.get(2).setEventsCreatedCount(3);
+        userDAL.save(users.get(2));
+
+        MvcResult started = mockMvc.perform(get("/users").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // elke regel één volledig JSON object, afgesloten met een newline, geen omsluitende array
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(users.size(), lines.length);
+        List<Integer> ids = new ArrayList<>();
+        for (String line : lines) {
+            assertFalse(line.isBlank());
+            JsonNode node = objectMapper.readTree(line);
+            assertTrue(node.isObject());
+            ids.add(node.get("id").asInt());
+        }
+        assertEquals(users.stream().map(User::getId).sorted().toList(), ids);
+
+        JsonNode third = objectMapper.readTree(lines[2]);
+        assertEquals(users.get(2).getKeycloakId(), third.get("keycloakId").asText());
+        assertEquals(users.get(2).getUsername(), third.get("username").asText());
+        assertEquals(3, third.get("eventsCreated").asInt());
+    }
+
+    @Test
+    void streamAllUsers_shouldOutliveTheDefaultAsyncTimeout() throws Exception {
+        MvcResult started = mockMvc.perform(get("/users").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // spring.mvc.async.request-timeout, niet de 30s van de servlet container
+        assertEquals(Duration.ofHours(1).toMillis(), started.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    @Test
+    void streamAllUsers_shouldWriteEmptyBodyWithoutUsers() throws Exception {
+        MvcResult started = mockMvc.perform(get("/users").accept(APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getAllUsers_shouldReturnAtMostOnePageAndLinkToTheRest() throws Exception {
+        List<User> users = seedUsers(201);
+        int lastOnPage = users.get(199).getId();
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().stringValues(HttpHeaders.LINK, hasItem(startsWith("</users/page>;"))))
+                .andExpect(header().stringValues(HttpHeaders.LINK,
+                        hasItem("</users/page?after=" + lastOnPage + ">; rel=\"next\"")))
+                .andExpect(jsonPath("$.length()").value(200))
+                .andExpect(jsonPath("$[0].id").value(users.get(0).getId()));
+
+        mockMvc.perform(get("/users/page").param("after", String.valueOf(lastOnPage)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].id").value(contains(users.get(200).getId())));
+    }
+
+    @Test
+    void getAllUsers_shouldOmitNextLinkWhenEverythingFits() throws Exception {
+        seedUsers(2);
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.LINK, contains(startsWith("</users/page>;"))))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    private List<User> seedUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setKeycloakId(UUID.randomUUID().toString());
+            user.setUsername("listing-user-" + i);
+            user.setEmail("listing-user-" + i + "@example.com");
+            user.setCreatedAt(LocalDateTime.now());
+            users.add(user);
+        }
+        // saveAll geeft de ids in invoegvolgorde terug, dus users staat al op id
+        return userDAL.saveAll(users);
+    }
+}
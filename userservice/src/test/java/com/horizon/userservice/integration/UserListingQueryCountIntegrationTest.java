@@ -0,0 +1,96 @@
+package com.horizon.userservice.integration;
+
+import com.horizon.userservice.DAL.UserDAL;
+import com.horizon.userservice.DTO.UserResponseDTO;
+import com.horizon.userservice.Interface.UserService;
+import com.horizon.userservice.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Draait op H2 (test profile), geen containers nodig
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class UserListingQueryCountIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDAL userDAL;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        userDAL.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllUsers_shouldExecuteSameNumberOfStatementsRegardlessOfUserCount() {
+        // Arrange & Act: 1 user
+        seedUsers(1);
+        long statementsForOneUser = countStatementsForGetAllUsers(1);
+
+        // Arrange & Act: 25 users
+        seedUsers(24);
+        long statementsForManyUsers = countStatementsForGetAllUsers(25);
+
+        // Assert: alleen de findAll query, geen extra SELECT per user
+        assertEquals(1, statementsForOneUser);
+        assertEquals(statementsForOneUser, statementsForManyUsers);
+    }
+
+    @Test
+    void getAllUsers_shouldReadEventCountFromLoadedEntity() {
+        User user = newUser(0);
+        user.setEventsCreatedCount(7);
+        userDAL.save(user);
+
+        List<UserResponseDTO> users = userService.getAllUsers();
+
+        assertEquals(1, users.size());
+        assertEquals(7, users.get(0).getEventsCreated());
+    }
+
+    private long countStatementsForGetAllUsers(int expectedUsers) {
+        statistics.clear();
+        List<UserResponseDTO> users = userService.getAllUsers();
+        assertEquals(expectedUsers, users.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedUsers(int count) {
+        List<User> users = new ArrayList<>();
+        long offset = userDAL.count();
+        for (int i = 0; i < count; i++) {
+            users.add(newUser(offset + i));
+        }
+        userDAL.saveAll(users);
+    }
+
+    private User newUser(long index) {
+        User user = new User();
+        // keycloakIds als UUID, zodat een eventuele per-user lookup op organizerId ook echt zou draaien
+        user.setKeycloakId(UUID.randomUUID().toString());
+        user.setUsername("listing-user-" + index);
+        user.setEmail("listing-user-" + index + "@example.com");
+        return user;
+    }
+}
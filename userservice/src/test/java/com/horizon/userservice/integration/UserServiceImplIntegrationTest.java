@@ -21,6 +21,7 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.time.LocalDateTime;
 
@@ -35,16 +36,10 @@ import com.horizon.userservice.DTO.UserUpdateDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
-import org.awaitility.Awaitility;
-import java.util.concurrent.TimeUnit;
-import com.horizon.userservice.event.UserRegisteredEvent;
-import com.horizon.userservice.event.UserProfileUpdatedEvent;
+import com.horizon.eventbus.message.UserRegisteredEvent;
+import com.horizon.eventbus.message.UserProfileUpdatedEvent;
+import com.horizon.eventbus.outbox.OutboxDAL;
 import java.util.Map;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.isA;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.never;
 
 @Testcontainers
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE) // No need for a web server for service tests
@@ -63,6 +58,9 @@ class UserServiceImplIntegrationTest {
     @Autowired
     private UserDAL userDAL;
 
+    @Autowired
+    private OutboxDAL outboxDAL;
+
     @SpyBean // Use SpyBean if you need to verify interactions but still want real method execution
     private RabbitTemplate rabbitTemplate;
 
@@ -102,6 +100,7 @@ class UserServiceImplIntegrationTest {
     void setUp() {
         // Clean up database before each test to ensure a clean state
         userDAL.deleteAll();
+        outboxDAL.deleteAll();
 
         // Setup RabbitAdmin for queue management
         rabbitAdmin = new RabbitAdmin(rabbitTemplate.getConnectionFactory());
@@ -266,13 +265,7 @@ class UserServiceImplIntegrationTest {
 
         // Assert: Event published
         // Verify that convertAndSend was called on the spy with the correct arguments
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.registered"),
-                isA(UserRegisteredEvent.class)
-            );
-        });
+        assertQueued("user.registered", UserRegisteredEvent.class, keycloakId);
     }
 
     @Test
@@ -306,13 +299,7 @@ class UserServiceImplIntegrationTest {
         assertEquals(updatedEmail, userFromDb.getEmail());
 
         // Assert: Event published
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.profile.updated"),
-                isA(UserProfileUpdatedEvent.class)
-            );
-        });
+        assertQueued("user.profile.updated", UserProfileUpdatedEvent.class, keycloakId);
     }
 
     @Test
@@ -336,22 +323,8 @@ class UserServiceImplIntegrationTest {
         assertEquals(username, synchronizedUser.getUsername());
         assertEquals(email, synchronizedUser.getEmail());
 
-        // Assert: No event published (give a small delay to ensure no message is sent)
-        try {
-            TimeUnit.SECONDS.sleep(1); // Small delay to catch any unintended async sends
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        verify(rabbitTemplate, never()).convertAndSend(
-            eq("horizon.users.exchange"), 
-            eq("user.profile.updated"), 
-            any(UserProfileUpdatedEvent.class)
-        );
-        verify(rabbitTemplate, never()).convertAndSend(
-            eq("horizon.users.exchange"), 
-            eq("user.registered"), 
-            any(UserRegisteredEvent.class)
-        );
+        // Assert: No event queued in the outbox
+        assertEquals(0, outboxDAL.count());
     }
 
     @Test
@@ -370,13 +343,7 @@ class UserServiceImplIntegrationTest {
         assertEquals(initialEmail, synchronizedUser.getEmail());
 
         // Verify event for registration
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.registered"),
-                isA(UserRegisteredEvent.class)
-            );
-        });
+        assertQueued("user.registered", UserRegisteredEvent.class, keycloakId);
 
         // === 2. Get the user by Keycloak ID ===
         User fetchedUserByKeycloakId = userService.getUserByKeycloakId(keycloakId);
@@ -398,13 +365,7 @@ class UserServiceImplIntegrationTest {
         assertEquals(initialUsername, updatedUser.getUsername()); // Username is not updated by this method
 
         // Verify event for profile update
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.profile.updated"),
-                isA(UserProfileUpdatedEvent.class)
-            );
-        });
+        assertQueued("user.profile.updated", UserProfileUpdatedEvent.class, keycloakId);
 
         // Verify in DB
         UserResponseDTO userFromDbAfterUpdate = userService.getUserById(synchronizedUser.getId());
@@ -413,10 +374,8 @@ class UserServiceImplIntegrationTest {
 
         // === 4. Synchronize the same user again, but with different email (username shouldn't change via sync) ===
         String emailAfterSecondSync = "flow.second.sync@example.com";
-        // Reset the mock interaction on rabbitTemplate for the next verification, if this is the last interaction we care about for this spy
-        // Or use a more specific verify(..., times(2)) if previous calls are also important.
-        // For this flow, let's assume we only care about the *next* event for profile update.
-        org.mockito.Mockito.reset(rabbitTemplate); // Reset interactions for the spy for cleaner verification of the next event
+        // Clear the outbox so the next assertion only sees the event of this sync
+        outboxDAL.deleteAll();
 
         User userAfterSecondSync = userService.synchronizeUser(keycloakId, initialUsername, emailAfterSecondSync);
         assertNotNull(userAfterSecondSync);
@@ -425,25 +384,13 @@ class UserServiceImplIntegrationTest {
         assertEquals(updatedAge, userAfterSecondSync.getAge()); // Age from previous updateUserByKeycloakId should persist
 
         // Verify event for the second profile update during sync
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-            verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.profile.updated"),
-                isA(UserProfileUpdatedEvent.class) // This should be the second UserProfileUpdatedEvent
-            );
-        });
+        assertQueued("user.profile.updated", UserProfileUpdatedEvent.class, keycloakId);
 
         // === 5. Get multiple users by Keycloak IDs (including a non-existent one) ===
         String anotherKeycloakId = "flow-another-keycloak";
         userService.synchronizeUser(anotherKeycloakId, "anotherFlowUser", "anotherflow@example.com");
         // Wait for the second registration event
-        Awaitility.await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
-             verify(rabbitTemplate).convertAndSend(
-                eq("horizon.users.exchange"),
-                eq("user.registered"),
-                org.mockito.ArgumentMatchers.argThat( (UserRegisteredEvent event) -> event.getKeycloakId().equals(anotherKeycloakId))
-            );
-        });
+        assertQueued("user.registered", UserRegisteredEvent.class, anotherKeycloakId);
 
         List<String> idsToFetch = List.of(keycloakId, anotherKeycloakId, "non-existent-keycloak-id");
         List<User> fetchedUsers = userService.getUsersByKeycloakIds(idsToFetch);
@@ -463,6 +410,14 @@ class UserServiceImplIntegrationTest {
         });
     }
 
+    // Events gaan via de outbox in dezelfde transactie; OutboxRelay publiceert ze na de commit
+    private void assertQueued(String routingKey, Class<?> type, String keycloakId) {
+        assertTrue(outboxDAL.findAll().stream().anyMatch(message -> message.getRoutingKey().equals(routingKey)
+                        && type.getName().equals(message.getTypeId())
+                        && new String(message.getPayload(), StandardCharsets.UTF_8).contains(keycloakId)),
+                "Expected a queued " + routingKey + " event for " + keycloakId);
+    }
+
     // TODO: Add more comprehensive integration tests for other UserServiceImpl methods
     // - getUserByKeycloakId
     // - getUsersByKeycloakIds
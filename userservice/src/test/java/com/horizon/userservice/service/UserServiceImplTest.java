@@ -1,8 +1,11 @@
 package com.horizon.userservice.service;
 
+import com.horizon.eventbus.outbox.OutboxPublisher;
 import com.horizon.userservice.DAL.UserDAL;
 import com.horizon.userservice.DTO.UserCreateDTO;
+import com.horizon.userservice.DTO.UserPageDTO;
 import com.horizon.userservice.DTO.UserResponseDTO;
+import com.horizon.userservice.DTO.UserSyncRequestDTO;
 import com.horizon.userservice.DTO.UserUpdateDTO;
 import com.horizon.userservice.Interface.UserServiceImpl;
 import com.horizon.userservice.model.User;
@@ -13,7 +16,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
@@ -31,7 +36,10 @@ class UserServiceImplTest {
     private UserDAL userDAL;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -161,6 +169,43 @@ class UserServiceImplTest {
         verify(userDAL).findAll();
     }
 
+    @Test
+    void getUsersPage_whenMoreUsersThanPageSize_shouldReturnPageAndNextCursor() {
+        // Arrange
+        User second = new User();
+        second.setId(2);
+        second.setKeycloakId("keycloak-second");
+        User third = new User();
+        third.setId(3);
+        third.setKeycloakId("keycloak-third");
+        when(userDAL.findByIdGreaterThanOrderByIdAsc(0, Limit.of(3))).thenReturn(new ArrayList<>(List.of(user, second, third)));
+
+        // Act
+        UserPageDTO page = userService.getUsersPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertEquals(1, page.getItems().get(0).getId());
+        assertEquals(2, page.getItems().get(1).getId());
+        assertEquals(2, page.getNextCursor());
+    }
+
+    @Test
+    void getUsersPage_whenLastPageAndSizeAboveMaximum_shouldCapSizeAndReturnNoCursor() {
+        // Arrange
+        when(userDAL.findByIdGreaterThanOrderByIdAsc(eq(1), any(Limit.class))).thenReturn(new ArrayList<>());
+
+        // Act
+        UserPageDTO page = userService.getUsersPage(1, 100_000);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        ArgumentCaptor<Limit> limitCaptor = ArgumentCaptor.forClass(Limit.class);
+        verify(userDAL).findByIdGreaterThanOrderByIdAsc(eq(1), limitCaptor.capture());
+        assertEquals(201, limitCaptor.getValue().max());
+    }
+
     @Test
     void updateUser_whenUserExists_shouldUpdateAndReturnUser() {
         // Arrange
@@ -295,9 +340,9 @@ class UserServiceImplTest {
         assertEquals(newEmail, userCaptor.getValue().getEmail());
 
         ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitTemplate).convertAndSend(eq("horizon.users.exchange"), eq("user.registered"), eventCaptor.capture());
-        assertTrue(eventCaptor.getValue() instanceof com.horizon.userservice.event.UserRegisteredEvent);
-        com.horizon.userservice.event.UserRegisteredEvent registeredEvent = (com.horizon.userservice.event.UserRegisteredEvent) eventCaptor.getValue();
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.registered"), eventCaptor.capture());
+        assertTrue(eventCaptor.getValue() instanceof com.horizon.eventbus.message.UserRegisteredEvent);
+        com.horizon.eventbus.message.UserRegisteredEvent registeredEvent = (com.horizon.eventbus.message.UserRegisteredEvent) eventCaptor.getValue();
         assertEquals(newKeycloakId, registeredEvent.getKeycloakId());
         assertEquals(newUsername, registeredEvent.getUsername());
         assertEquals(newEmail, registeredEvent.getEmail());
@@ -343,9 +388,9 @@ class UserServiceImplTest {
         assertEquals(updatedEmail, userCaptor.getValue().getEmail());
 
         ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitTemplate).convertAndSend(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
-        assertTrue(eventCaptor.getValue() instanceof com.horizon.userservice.event.UserProfileUpdatedEvent);
-        com.horizon.userservice.event.UserProfileUpdatedEvent updatedEvent = (com.horizon.userservice.event.UserProfileUpdatedEvent) eventCaptor.getValue();
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
+        assertTrue(eventCaptor.getValue() instanceof com.horizon.eventbus.message.UserProfileUpdatedEvent);
+        com.horizon.eventbus.message.UserProfileUpdatedEvent updatedEvent = (com.horizon.eventbus.message.UserProfileUpdatedEvent) eventCaptor.getValue();
         assertEquals(existingKeycloakId, updatedEvent.getKeycloakId());
         assertNotNull(updatedEvent.getUpdatedFields().get("username"));
         assertNotNull(updatedEvent.getUpdatedFields().get("email"));
@@ -367,7 +412,7 @@ class UserServiceImplTest {
         assertEquals(sameUsername, result.getUsername());
         assertEquals(sameEmail, result.getEmail());
         verify(userDAL, never()).save(any(User.class));
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        verify(outboxPublisher, never()).enqueue(anyString(), anyString(), any(Object.class));
     }
 
     @Test
@@ -378,7 +423,7 @@ class UserServiceImplTest {
         // Assert
         assertNull(result);
         verifyNoInteractions(userDAL);
-        verifyNoInteractions(rabbitTemplate);
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
@@ -389,7 +434,7 @@ class UserServiceImplTest {
         // Assert
         assertNull(result);
         verifyNoInteractions(userDAL);
-        verifyNoInteractions(rabbitTemplate);
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
@@ -544,9 +589,9 @@ class UserServiceImplTest {
         assertEquals(updateDetails.getAge(), userCaptor.getValue().getAge());
 
         ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitTemplate).convertAndSend(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
-        assertTrue(eventCaptor.getValue() instanceof com.horizon.userservice.event.UserProfileUpdatedEvent);
-        com.horizon.userservice.event.UserProfileUpdatedEvent updatedEvent = (com.horizon.userservice.event.UserProfileUpdatedEvent) eventCaptor.getValue();
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
+        assertTrue(eventCaptor.getValue() instanceof com.horizon.eventbus.message.UserProfileUpdatedEvent);
+        com.horizon.eventbus.message.UserProfileUpdatedEvent updatedEvent = (com.horizon.eventbus.message.UserProfileUpdatedEvent) eventCaptor.getValue();
         assertEquals(keycloakId, updatedEvent.getKeycloakId());
         assertTrue(updatedEvent.getUpdatedFields().containsKey("email"));
         assertTrue(updatedEvent.getUpdatedFields().containsKey("age"));
@@ -588,8 +633,8 @@ class UserServiceImplTest {
 
         verify(userDAL).save(any(User.class));
         ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitTemplate).convertAndSend(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
-        com.horizon.userservice.event.UserProfileUpdatedEvent updatedEvent = (com.horizon.userservice.event.UserProfileUpdatedEvent) eventCaptor.getValue();
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.profile.updated"), eventCaptor.capture());
+        com.horizon.eventbus.message.UserProfileUpdatedEvent updatedEvent = (com.horizon.eventbus.message.UserProfileUpdatedEvent) eventCaptor.getValue();
         assertEquals(keycloakId, updatedEvent.getKeycloakId());
         assertTrue(updatedEvent.getUpdatedFields().containsKey("email"));
         assertFalse(updatedEvent.getUpdatedFields().containsKey("age"));
@@ -614,7 +659,7 @@ class UserServiceImplTest {
         assertEquals(user.getEmail(), result.getEmail());
         assertEquals(user.getAge(), result.getAge());
         verify(userDAL, never()).save(any(User.class));
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        verify(outboxPublisher, never()).enqueue(anyString(), anyString(), any(Object.class));
     }
 
     @Test
@@ -631,7 +676,71 @@ class UserServiceImplTest {
         });
         assertEquals("User not found with keycloakId: " + nonExistentKeycloakId, exception.getReason());
         verify(userDAL, never()).save(any(User.class));
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        verify(outboxPublisher, never()).enqueue(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronizeUsers_whenMixOfNewChangedAndUnchanged_shouldBatchWritesAndQueueEventsInTransaction() {
+        // Arrange
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        User unchangedUser = new User();
+        unchangedUser.setId(2);
+        unchangedUser.setKeycloakId("keycloak-unchanged");
+        unchangedUser.setUsername("unchanged");
+        unchangedUser.setEmail("unchanged@example.com");
+
+        User insertedUser = new User();
+        insertedUser.setId(3);
+        insertedUser.setKeycloakId("keycloak-batch-new");
+        insertedUser.setUsername("batchNew");
+        insertedUser.setEmail("batchnew@example.com");
+
+        when(userDAL.findAllByKeycloakIdIn(List.of(user.getKeycloakId(), "keycloak-unchanged", "keycloak-batch-new")))
+                .thenReturn(List.of(user, unchangedUser));
+        when(userDAL.findAllByKeycloakIdIn(List.of("keycloak-batch-new"))).thenReturn(List.of(insertedUser));
+
+        List<UserSyncRequestDTO> requests = List.of(
+                new UserSyncRequestDTO(user.getKeycloakId(), "renamed", user.getEmail()),
+                new UserSyncRequestDTO("keycloak-unchanged", "unchanged", "unchanged@example.com"),
+                new UserSyncRequestDTO("keycloak-batch-new", "batchNew", "batchnew@example.com"),
+                new UserSyncRequestDTO(null, "incomplete", "incomplete@example.com"));
+
+        // Act
+        List<User> result = userService.synchronizeUsers(requests);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals("renamed", user.getUsername());
+
+        ArgumentCaptor<List<User>> updatedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userDAL).saveAll(updatedCaptor.capture());
+        assertEquals(List.of(user), updatedCaptor.getValue());
+
+        ArgumentCaptor<List<User>> insertedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(userDAL).batchInsert(insertedCaptor.capture());
+        assertEquals(1, insertedCaptor.getValue().size());
+        assertEquals("keycloak-batch-new", insertedCaptor.getValue().get(0).getKeycloakId());
+
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.profile.updated"), any(com.horizon.eventbus.message.UserProfileUpdatedEvent.class));
+        verify(outboxPublisher).enqueue(eq("horizon.users.exchange"), eq("user.registered"), any(com.horizon.eventbus.message.UserRegisteredEvent.class));
+        verifyNoMoreInteractions(outboxPublisher);
+        verify(userDAL, never()).findByKeycloakId(anyString());
+        verify(userDAL, never()).save(any(User.class));
+    }
+
+    @Test
+    void synchronizeUsers_whenAllRequestsIncomplete_shouldNotTouchDALOrRabbit() {
+        // Act
+        List<User> result = userService.synchronizeUsers(List.of(new UserSyncRequestDTO("id", " ", "mail@example.com")));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(userDAL);
+        verifyNoInteractions(outboxPublisher);
+        verifyNoInteractions(transactionTemplate);
     }
 
     // TODO: Add unit tests for other methods: